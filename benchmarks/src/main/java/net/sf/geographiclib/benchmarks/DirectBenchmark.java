@@ -0,0 +1,72 @@
+/**
+ * Implementation of the net.sf.geographiclib.benchmarks.DirectBenchmark
+ * class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.sf.geographiclib.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the direct geodesic problem.
+ * <p>
+ * The cost of the direct problem depends on which series need to be
+ * evaluated, i.e., on the {@link GeodesicMask} bits, so several masks are
+ * timed.  <i>arcmode</i> selects {@link Geodesic#ArcDirect ArcDirect} (the
+ * second variable is the arc length) instead of {@link Geodesic#Direct
+ * Direct}.  The reported time is per direct problem.
+ **********************************************************************/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectBenchmark {
+
+  @Param({ "LATITUDE|LONGITUDE", "STANDARD", "STANDARD|LONG_UNROLL",
+           "STANDARD|REDUCEDLENGTH|GEODESICSCALE", "ALL" })
+  public String mask;
+
+  @Param({ "false", "true" })
+  public boolean arcmode;
+
+  private final Geodesic geod = Geodesic.WGS84;
+  private GeodesicArrays g;
+  private double s12_a12[];
+  private int outmask;
+
+  @Setup
+  public void Setup() {
+    g = Points.Direct(Points.N);
+    s12_a12 = arcmode ? g.a12 : g.s12;
+    outmask = Points.Mask(mask);
+    // Outputs of the batch routines (in arcmode s12 is an output)
+    g.lat2 = new double[Points.N]; g.lon2 = new double[Points.N];
+    g.azi2 = new double[Points.N]; g.m12 = new double[Points.N];
+    g.M12 = new double[Points.N]; g.M21 = new double[Points.N];
+    g.S12 = new double[Points.N];
+    if (arcmode) g.s12 = new double[Points.N];
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public void Direct(Blackhole bh) {
+    for (int i = 0; i < Points.N; ++i)
+      bh.consume(geod.Direct(g.lat1[i], g.lon1[i], g.azi1[i], arcmode,
+                             s12_a12[i], outmask));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public double[] DirectBatch() {
+    geod.Direct(g, 0, Points.N, arcmode, outmask);
+    return g.lat2;
+  }
+}
@@ -0,0 +1,69 @@
+/**
+ * Implementation of the net.sf.geographiclib.benchmarks.GnomonicBenchmark
+ * class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.sf.geographiclib.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the {@link Gnomonic} projection.
+ * <p>
+ * The points lie within <i>radius</i> of the center of the projection.
+ * Reverse iterates to find the point, so its cost grows with the distance
+ * from the center.  The reported time is per point.
+ **********************************************************************/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GnomonicBenchmark {
+
+  @Param({ "100000", "5000000" })
+  public double radius;
+
+  private static final double lat0 = 48 + 50/60.0, lon0 = 2 + 20/60.0;
+  private final Gnomonic gnom = new Gnomonic(Geodesic.WGS84);
+  private double lat[], lon[], x[], y[];
+
+  @Setup
+  public void Setup() {
+    Random r = new Random(Points.SEED);
+    lat = new double[Points.N]; lon = new double[Points.N];
+    x = new double[Points.N]; y = new double[Points.N];
+    for (int i = 0; i < Points.N; ++i) {
+      GeodesicData g = Geodesic.WGS84.Direct(lat0, lon0,
+                                             Points.RandomLon(r),
+                                             radius * r.nextDouble(),
+                                             GeodesicMask.LATITUDE |
+                                             GeodesicMask.LONGITUDE);
+      lat[i] = g.lat2; lon[i] = g.lon2;
+      GnomonicData p = gnom.Forward(lat0, lon0, lat[i], lon[i]);
+      x[i] = p.x; y[i] = p.y;
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public void Forward(Blackhole bh) {
+    for (int i = 0; i < Points.N; ++i)
+      bh.consume(gnom.Forward(lat0, lon0, lat[i], lon[i]));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public void Reverse(Blackhole bh) {
+    for (int i = 0; i < Points.N; ++i)
+      bh.consume(gnom.Reverse(lat0, lon0, x[i], y[i]));
+  }
+}
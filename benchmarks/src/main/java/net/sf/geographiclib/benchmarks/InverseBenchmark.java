@@ -0,0 +1,96 @@
+/**
+ * Implementation of the net.sf.geographiclib.benchmarks.InverseBenchmark
+ * class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.sf.geographiclib.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the inverse geodesic problem.
+ * <p>
+ * Each regime of {@link Points#REGIMES} is timed separately because the
+ * number of iterations needed differs widely between them.  The reported
+ * time is per inverse problem.  The variants are
+ * <ul>
+ * <li>
+ *   <i>Inverse</i>: {@link Geodesic#Inverse(double, double, double, double,
+ *   int)} which allocates a result for each call;
+ * <li>
+ *   <i>InverseWorkspace</i>: the overload taking a {@link GeodesicData} and
+ *   {@link GeodesicWorkspace} which allocates nothing;
+ * <li>
+ *   <i>InverseBatch</i>: the batch interface using {@link GeodesicArrays};
+ * <li>
+ *   <i>Distance</i>: {@link Geodesic#Distance(GeodesicWorkspace, double,
+ *   double, double, double)} (this ignores <i>mask</i>).
+ * </ul>
+ **********************************************************************/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InverseBenchmark {
+
+  @Param({ "short", "meridional", "equatorial", "antipodal", "random" })
+  public String regime;
+
+  @Param({ "STANDARD", "DISTANCE" })
+  public String mask;
+
+  private final Geodesic geod = Geodesic.WGS84;
+  private GeodesicArrays g;
+  private GeodesicData r;
+  private GeodesicWorkspace w;
+  private int outmask;
+
+  @Setup
+  public void Setup() {
+    g = Points.Inverse(regime, Points.N);
+    g.azi1 = new double[Points.N]; g.azi2 = new double[Points.N];
+    g.s12 = new double[Points.N];
+    r = new GeodesicData();
+    w = new GeodesicWorkspace();
+    outmask = Points.Mask(mask);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public void Inverse(Blackhole bh) {
+    for (int i = 0; i < Points.N; ++i)
+      bh.consume(geod.Inverse(g.lat1[i], g.lon1[i], g.lat2[i], g.lon2[i],
+                              outmask));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public void InverseWorkspace(Blackhole bh) {
+    for (int i = 0; i < Points.N; ++i) {
+      geod.Inverse(r, w, g.lat1[i], g.lon1[i], g.lat2[i], g.lon2[i], outmask);
+      bh.consume(r.s12);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public double[] InverseBatch() {
+    geod.Inverse(g, 0, Points.N, outmask);
+    return g.s12;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public void Distance(Blackhole bh) {
+    for (int i = 0; i < Points.N; ++i)
+      bh.consume(geod.Distance(w, g.lat1[i], g.lon1[i], g.lat2[i], g.lon2[i]));
+  }
+}
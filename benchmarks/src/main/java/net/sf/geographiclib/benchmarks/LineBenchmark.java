@@ -0,0 +1,84 @@
+/**
+ * Implementation of the net.sf.geographiclib.benchmarks.LineBenchmark class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.sf.geographiclib.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for sweeps along a {@link GeodesicLine}.
+ * <p>
+ * This is the typical use of GeodesicLine: computing a sequence of equally
+ * spaced waypoints along a geodesic.  The sweep goes once around the
+ * ellipsoid (40000 km or 360&deg;) in {@link Points#N} steps.  The line is
+ * constructed with the capabilities given by <i>caps</i> (together with
+ * DISTANCE_IN, so that Position can be used), and <i>caps</i> is also used
+ * as the outmask for the positions.  <i>Waypoints</i> and
+ * <i>ArcWaypoints</i> time the same sweeps with {@link GeodesicLine#Waypoints
+ * GeodesicLine.Waypoints}.  The reported time is per position.
+ **********************************************************************/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineBenchmark {
+
+  @Param({ "LATITUDE|LONGITUDE", "STANDARD", "ALL" })
+  public String caps;
+
+  private GeodesicLine line;
+  private GeodesicArrays g;
+  private int outmask;
+  private double ds, da;
+
+  @Setup
+  public void Setup() {
+    outmask = Points.Mask(caps);
+    line = new GeodesicLine(Geodesic.WGS84, 40.64, -73.78, 45,
+                            outmask | GeodesicMask.DISTANCE_IN);
+    ds = 4e7 / Points.N;
+    da = 360.0 / Points.N;
+    g = new GeodesicArrays();
+    g.lat2 = new double[Points.N]; g.lon2 = new double[Points.N];
+    g.azi2 = new double[Points.N]; g.s12 = new double[Points.N];
+    g.m12 = new double[Points.N]; g.M12 = new double[Points.N];
+    g.M21 = new double[Points.N]; g.S12 = new double[Points.N];
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public void Position(Blackhole bh) {
+    for (int i = 0; i < Points.N; ++i)
+      bh.consume(line.Position(i * ds, outmask));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public void ArcPosition(Blackhole bh) {
+    for (int i = 0; i < Points.N; ++i)
+      bh.consume(line.ArcPosition(i * da, outmask));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public double[] Waypoints() {
+    line.Waypoints(false, 0, ds, Points.N, outmask, g, 0);
+    return g.lat2;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Points.N)
+  public double[] ArcWaypoints() {
+    line.Waypoints(true, 0, da, Points.N, outmask, g, 0);
+    return g.lat2;
+  }
+}
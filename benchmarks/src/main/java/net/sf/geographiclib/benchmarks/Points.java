@@ -0,0 +1,167 @@
+/**
+ * Implementation of the net.sf.geographiclib.benchmarks.Points class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib.benchmarks;
+
+import java.util.Random;
+import net.sf.geographiclib.*;
+
+/**
+ * Sets of test points for the benchmarks.
+ * <p>
+ * The inverse problem goes down different code paths (and takes different
+ * numbers of iterations) depending on the relative position of the two
+ * points.  The regimes here are
+ * <ul>
+ * <li>
+ *   <i>short</i>: points within 10<sup>&minus;7</sup>&deg; (about 1 cm) of
+ *   each other in latitude and longitude (the short line approximation is
+ *   used; no iteration).  This approximation is only accepted if the points
+ *   are less than about 0.2 m apart; points farther apart than this are
+ *   solved with Newton's method;
+ * <li>
+ *   <i>meridional</i>: points on the same meridian (no iteration);
+ * <li>
+ *   <i>equatorial</i>: points on the equator (no iteration);
+ * <li>
+ *   <i>antipodal</i>: points within 1&deg; of being antipodal (the
+ *   astroid is used for the starting guess and many iterations may be
+ *   needed);
+ * <li>
+ *   <i>random</i>: points uniformly distributed on the ellipsoid.
+ * </ul>
+ * All the sets are generated with a fixed seed so that runs are comparable.
+ **********************************************************************/
+final class Points {
+  private Points() {}
+
+  /**
+   * The number of problems in each set.
+   **********************************************************************/
+  static final int N = 1024;
+
+  /**
+   * The seed for the random number generator.
+   **********************************************************************/
+  static final long SEED = 20260101L;
+
+  /**
+   * The names of the regimes for the inverse problem.
+   **********************************************************************/
+  static final String REGIMES[] =
+  { "short", "meridional", "equatorial", "antipodal", "random" };
+
+  /**
+   * @param r the random number generator.
+   * @return a random latitude (degrees) such that points are uniformly
+   *   distributed on the sphere.
+   **********************************************************************/
+  static double RandomLat(Random r) {
+    return Math.toDegrees(Math.asin(2 * r.nextDouble() - 1));
+  }
+
+  /**
+   * @param r the random number generator.
+   * @return a random longitude (degrees) in [&minus;180&deg;, 180&deg;).
+   **********************************************************************/
+  static double RandomLon(Random r) {
+    return 360 * r.nextDouble() - 180;
+  }
+
+  /**
+   * Convert a mask given by name to its value.
+   * <p>
+   * @param names the names of {@link GeodesicMask} constants separated by
+   *   "|", e.g., "STANDARD|LONG_UNROLL".
+   * @return the bitor'ed combination of the constants.
+   * @exception IllegalArgumentException if a name is not recognized.
+   **********************************************************************/
+  static int Mask(String names) {
+    int mask = GeodesicMask.NONE;
+    for (String name : names.split("\\|")) {
+      try {
+        mask |= GeodesicMask.class.getField(name.trim()).getInt(null);
+      }
+      catch (ReflectiveOperationException e) {
+        throw new IllegalArgumentException("Unknown mask " + name);
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Fill the input arrays for a set of inverse problems.
+   * <p>
+   * @param regime one of the entries of {@link #REGIMES}.
+   * @param n the number of problems.
+   * @return a {@link GeodesicArrays} object with <i>lat1</i>, <i>lon1</i>,
+   *   <i>lat2</i>, and <i>lon2</i> set.
+   * @exception IllegalArgumentException if <i>regime</i> is not recognized.
+   **********************************************************************/
+  static GeodesicArrays Inverse(String regime, int n) {
+    Random r = new Random(SEED);
+    GeodesicArrays g = new GeodesicArrays();
+    g.lat1 = new double[n]; g.lon1 = new double[n];
+    g.lat2 = new double[n]; g.lon2 = new double[n];
+    // The largest longitude difference on the equator for which the
+    // geodesic follows the equator
+    double equator = (1 - Geodesic.WGS84.Flattening()) * 180;
+    for (int i = 0; i < n; ++i) {
+      double lat1 = RandomLat(r), lon1 = RandomLon(r), lat2, lon2;
+      switch (regime) {
+      case "short":
+        lat1 = 160 * r.nextDouble() - 80;
+        lat2 = lat1 + 2e-7 * r.nextDouble() - 1e-7;
+        lon2 = lon1 + 2e-7 * r.nextDouble() - 1e-7;
+        break;
+      case "meridional":
+        lat2 = RandomLat(r);
+        lon2 = r.nextBoolean() ? lon1 : lon1 + 180;
+        break;
+      case "equatorial":
+        lat1 = lat2 = 0;
+        lon2 = lon1 + equator * (2 * r.nextDouble() - 1);
+        break;
+      case "antipodal":
+        lat2 = -lat1 + 2 * r.nextDouble() - 1;
+        lon2 = lon1 + 180 + 2 * r.nextDouble() - 1;
+        break;
+      case "random":
+        lat2 = RandomLat(r);
+        lon2 = RandomLon(r);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown regime " + regime);
+      }
+      g.lat1[i] = lat1; g.lon1[i] = lon1;
+      g.lat2[i] = lat2; g.lon2[i] = lon2;
+    }
+    return g;
+  }
+
+  /**
+   * Fill the input arrays for a set of direct problems.
+   * <p>
+   * @param n the number of problems.
+   * @return a {@link GeodesicArrays} object with <i>lat1</i>, <i>lon1</i>,
+   *   <i>azi1</i>, <i>s12</i>, and <i>a12</i> set.  The distances lie in
+   *   [0, 20000 km] and the arc lengths lie in [0&deg;, 180&deg;].
+   **********************************************************************/
+  static GeodesicArrays Direct(int n) {
+    Random r = new Random(SEED);
+    GeodesicArrays g = new GeodesicArrays();
+    g.lat1 = new double[n]; g.lon1 = new double[n]; g.azi1 = new double[n];
+    g.s12 = new double[n]; g.a12 = new double[n];
+    for (int i = 0; i < n; ++i) {
+      g.lat1[i] = RandomLat(r); g.lon1[i] = RandomLon(r);
+      g.azi1[i] = RandomLon(r);
+      g.s12[i] = 2e7 * r.nextDouble();
+      g.a12[i] = 180 * r.nextDouble();
+    }
+    return g;
+  }
+}
@@ -0,0 +1,78 @@
+/**
+ * Implementation of the net.sf.geographiclib.benchmarks.PolygonAreaBenchmark
+ * class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.sf.geographiclib.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for {@link PolygonArea} on large rings.
+ * <p>
+ * The ring is a star-shaped polygon with <i>n</i> vertices at a random
+ * distance of between 500 km and 1000 km from a center point.
+ * <i>AddPointCompute</i> times building the polygon with {@link
+ * PolygonArea#AddPoint AddPoint} and calling {@link PolygonArea#Compute()
+ * Compute}; <i>Compute</i> times Compute alone on a polygon which has
+ * already been built (which solves just the closing edge); and
+ * <i>TestPoint</i> times {@link PolygonArea#TestPoint TestPoint}.  The
+ * reported time is per ring.
+ **********************************************************************/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolygonAreaBenchmark {
+
+  @Param({ "1000", "100000" })
+  public int n;
+
+  private final Geodesic geod = Geodesic.WGS84;
+  private double lat[], lon[];
+  private PolygonArea poly, built;
+
+  @Setup
+  public void Setup() {
+    Random r = new Random(Points.SEED);
+    lat = new double[n]; lon = new double[n];
+    for (int i = 0; i < n; ++i) {
+      // Go counterclockwise so that the area is positive
+      GeodesicData g = geod.Direct(52, 5, -360.0 * i / n,
+                                   5e5 * (1 + r.nextDouble()),
+                                   GeodesicMask.LATITUDE |
+                                   GeodesicMask.LONGITUDE);
+      lat[i] = g.lat2; lon[i] = g.lon2;
+    }
+    poly = new PolygonArea(geod, false);
+    built = new PolygonArea(geod, false);
+    for (int i = 0; i < n; ++i)
+      built.AddPoint(lat[i], lon[i]);
+  }
+
+  @Benchmark
+  public PolygonResult AddPointCompute() {
+    poly.Clear();
+    for (int i = 0; i < n; ++i)
+      poly.AddPoint(lat[i], lon[i]);
+    return poly.Compute();
+  }
+
+  @Benchmark
+  public PolygonResult Compute() {
+    return built.Compute();
+  }
+
+  @Benchmark
+  public PolygonResult TestPoint() {
+    return built.TestPoint(52, 5, false, true);
+  }
+}
@@ -170,6 +170,16 @@ public class GeoMath {
       p.first = Math.copySign(p.first, p.second == 0 ? y - x : -p.second);
   }
 
+  // AngDiff with xr = IEEEremainder(x, 360) and yr = IEEEremainder(y, 360)
+  // precomputed by the caller.  This gives identical results because
+  // IEEEremainder(-x, 360) = -IEEEremainder(x, 360) exactly.
+  static void AngDiff(Pair p, double x, double y, double xr, double yr) {
+    sum(p, -xr, yr);
+    sum(p, Math.IEEEremainder(p.first, 360.0), p.second);
+    if (p.first == 0 || Math.abs(p.first) == 180)
+      p.first = Math.copySign(p.first, p.second == 0 ? y - x : -p.second);
+  }
+
   /**
    * Evaluate the sine and cosine function with the argument in degrees
    *
@@ -7,6 +7,9 @@
  **********************************************************************/
 package net.sf.geographiclib;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Geodesic calculations.
  * <p>
@@ -164,6 +167,10 @@ package net.sf.geographiclib;
  *     0.1     1.5 mm
  *     0.2     300 mm </pre>
  * <p>
+ * A Geodesic object is immutable (all its fields are final) and so may be
+ * shared between threads.  Use {@link #of(double, double) Geodesic.of} to
+ * obtain a shared object for a given ellipsoid.
+ * <p>
  * The algorithms are described in
  * <ul>
  * <li>C. F. F. Karney,
@@ -203,9 +210,12 @@ package net.sf.geographiclib;
 public class Geodesic {
 
   /**
-   * The order of the expansions used by Geodesic.
+   * The default order of the expansions used by Geodesic.
    **********************************************************************/
   protected static final int GEOGRAPHICLIB_GEODESIC_ORDER = 6;
+  // The range of orders supported by Geodesic(a, f, order)
+  private static final int minorder_ = 3;
+  private static final int maxorder_ = GEOGRAPHICLIB_GEODESIC_ORDER;
 
   protected static final int nA1_ = GEOGRAPHICLIB_GEODESIC_ORDER;
   protected static final int nC1_ = GEOGRAPHICLIB_GEODESIC_ORDER;
@@ -219,7 +229,8 @@ public class Geodesic {
   protected static final int nC4_ = GEOGRAPHICLIB_GEODESIC_ORDER;
   protected static final int nC4x_ = (nC4_ * (nC4_ + 1)) / 2;
   private static final int maxit1_ = 20;
-  private static final int maxit2_ = maxit1_ + GeoMath.digits + 10;
+  // Package-private for use by GeodesicStatistics
+  static final int maxit2_ = maxit1_ + GeoMath.digits + 10;
 
   // Underflow guard.  We require
   //   tiny_ * epsilon() > 0
@@ -234,10 +245,19 @@ public class Geodesic {
   // Check on bisection interval
   private static final double tolb_ = tol0_;
   private static final double xthresh_ = 1000 * tol2_;
-
-  protected double _a, _f, _f1, _e2, _ep2, _b, _c2;
-  private double _n, _etol2;
-  private double _A3x[], _C3x[], _C4x[];
+  // An addition to outmask for InverseInt: the end points need not be stored
+  // in the GeodesicData object and, unless AZIMUTH is requested, the
+  // azimuths need not be stored in the GeodesicWorkspace.  This is used when
+  // only the results of the inverse problem are wanted (it lies outside
+  // GeodesicMask.OUT_MASK).
+  static final int NOENDS_ = 1<<16;
+
+  protected final double _a, _f, _f1, _e2, _ep2, _b, _c2;
+  private final double _n, _etol2;
+  // The order of the expansions; this plays the role of nA1_, nC1_, etc.
+  final int _order;
+  // Package-private for use by GeodesicBlock
+  final double _A3x[], _C3x[], _C4x[];
 
   /**
    * Constructor for an ellipsoid with
@@ -247,8 +267,59 @@ public class Geodesic {
    *   Negative <i>f</i> gives a prolate ellipsoid.
    * @exception GeographicErr if <i>a</i> or (1 &minus; <i>f</i> ) <i>a</i> is
    *   not positive.
+   * <p>
+   * The construction involves expanding the coefficients of the series which
+   * depend on <i>f</i>.  If the same ellipsoid is used repeatedly, {@link
+   * #of(double, double) Geodesic.of} avoids this cost.
+   * <p>
+   * For a sphere, <i>f</i> = 0, the geodesics are great circles.  In this
+   * case, the general inverse problem is solved in closed form (instead of
+   * by Newton's method), and {@link GeodesicLine} (and so the direct
+   * problem) skips the evaluation of the series.  The results agree with
+   * those for the general case to within roundoff.
    **********************************************************************/
   public Geodesic(double a, double f) {
+    this(a, f, GEOGRAPHICLIB_GEODESIC_ORDER);
+  }
+
+  /**
+   * Constructor for an ellipsoid with a specified order of the series
+   * expansions.
+   * <p>
+   * @param a equatorial radius (meters).
+   * @param f flattening of ellipsoid.  Setting <i>f</i> = 0 gives a sphere.
+   *   Negative <i>f</i> gives a prolate ellipsoid.
+   * @param order the order of the series expansions in <i>f</i> (in [3,
+   *   6]).
+   * @exception GeographicErr if <i>a</i> or (1 &minus; <i>f</i> ) <i>a</i> is
+   *   not positive or if <i>order</i> is out of range.
+   * <p>
+   * The series used in the calculations are truncated at order
+   * <i>order</i> in the flattening.  Lower orders reduce the cost of
+   * evaluating the series (which is a significant fraction of the total
+   * time for the direct problem) at the expense of accuracy.  The following
+   * table gives the maximum errors for the WGS84 ellipsoid in the position
+   * of point 2 for the direct problem and in the distance for the inverse
+   * problem, both for geodesics up to 20000 km long.  (The errors for order
+   * 6 are from Sec. 9 of
+   * <a href="https://arxiv.org/abs/1102.1215v1">arXiv:1102.1215v1</a>; the
+   * others were measured by comparing with order 6 for 10<sup>6</sup>
+   * random geodesics; for order 5, the differences, 8 nm, are less than the
+   * error for order 6.)
+   * <pre>
+   *   order  direct   inverse
+   *     3     37 &mu;m   7.5 &mu;m
+   *     4    110 nm    30 nm
+   *     5     15 nm    15 nm
+   *     6     15 nm    15 nm </pre>
+   * <p>
+   * The error scales as |<i>f</i>|<sup><i>order</i>+1</sup> so that, e.g.,
+   * doubling <i>f</i> increases the error by a factor of about
+   * 2<sup><i>order</i>+1</sup>.  Orders 7 and 8, which are supported by the
+   * C++ library, are not available here because the coefficients of the
+   * expansions are only included up to order 6.
+   **********************************************************************/
+  public Geodesic(double a, double f, int order) {
     _a = a;
     _f = f;
     _f1 = 1 - _f;
@@ -278,9 +349,13 @@ public class Geodesic {
       throw new GeographicErr("Equatorial radius is not positive");
     if (!(Double.isFinite(_b) && _b > 0))
       throw new GeographicErr("Polar semi-axis is not positive");
-    _A3x = new double[nA3x_];
-    _C3x = new double[nC3x_];
-    _C4x = new double[nC4x_];
+    if (!(order >= minorder_ && order <= maxorder_))
+      throw new GeographicErr("Order of expansions must be in [" +
+                              minorder_ + ", " + maxorder_ + "]");
+    _order = order;
+    _A3x = new double[_order];
+    _C3x = new double[(_order * (_order - 1)) / 2];
+    _C4x = new double[(_order * (_order + 1)) / 2];
 
     A3coeff();
     C3coeff();
@@ -459,6 +534,313 @@ public class Geodesic {
       Position(arcmode, s12_a12, outmask);
   }
 
+  /**
+   * Solve the direct geodesic problem deferring the calculation of the
+   * optional quantities.
+   * <p>
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param azi1 azimuth at point 1 (degrees).
+   * @param s12 distance between point 1 and point 2 (meters); it can be
+   *   negative.
+   * @return a {@link GeodesicLazyData} object with the fields <i>lat1</i>,
+   *   <i>lon1</i>, <i>azi1</i>, <i>lat2</i>, <i>lon2</i>, <i>azi2</i>,
+   *   <i>s12</i>, <i>a12</i> set; <i>m12</i>, <i>M12</i>, <i>M21</i>, and
+   *   <i>S12</i> are computed when they are first requested.
+   * <p>
+   * See {@link #InverseLazy InverseLazy}.
+   **********************************************************************/
+  public GeodesicLazyData DirectLazy(double lat1, double lon1,
+                                     double azi1, double s12) {
+    return DirectLazy(lat1, lon1, azi1, false, s12);
+  }
+
+  /**
+   * Solve the direct geodesic problem, with the length of the geodesic
+   * specified in terms of arc length, deferring the calculation of the
+   * optional quantities.
+   * <p>
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param azi1 azimuth at point 1 (degrees).
+   * @param a12 arc length between point 1 and point 2 (degrees); it can
+   *   be negative.
+   * @return a {@link GeodesicLazyData} object with the fields <i>lat1</i>,
+   *   <i>lon1</i>, <i>azi1</i>, <i>lat2</i>, <i>lon2</i>, <i>azi2</i>,
+   *   <i>s12</i>, <i>a12</i> set; <i>m12</i>, <i>M12</i>, <i>M21</i>, and
+   *   <i>S12</i> are computed when they are first requested.
+   * <p>
+   * See {@link #InverseLazy InverseLazy}.
+   **********************************************************************/
+  public GeodesicLazyData ArcDirectLazy(double lat1, double lon1,
+                                        double azi1, double a12) {
+    return DirectLazy(lat1, lon1, azi1, true, a12);
+  }
+
+  private GeodesicLazyData DirectLazy(double lat1, double lon1, double azi1,
+                                      boolean arcmode, double s12_a12) {
+    GeodesicData r = Direct(lat1, lon1, azi1, arcmode, s12_a12,
+                            GeodesicMask.STANDARD);
+    // The azimuth is treated as in GeodesicLine.LineInit; r.azi1 =
+    // AngNormalize(azi1).
+    Pair p = new Pair();
+    GeoMath.sincosd(p, GeoMath.AngRound(r.azi1));
+    return new GeodesicLazyData(this, r, p.first, p.second,
+                                Double.NaN, Double.NaN, p);
+  }
+
+  /**
+   * Solve a batch of direct geodesic problems where the lengths of the
+   * geodesics are specified in terms of distance.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input arrays
+   *   <i>lat1</i>, <i>lon1</i>, <i>azi1</i>, <i>s12</i> and the output arrays
+   *   for the results specified by <i>outmask</i>.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of direct problems to solve.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * This is equivalent to calling {@link #Direct(GeodesicArrays, int, int,
+   * boolean, int) Direct} with <i>arcmode</i> = false.
+   **********************************************************************/
+  public void Direct(GeodesicArrays g, int off, int len, int outmask) {
+    Direct(g, off, len, false, outmask);
+  }
+
+  /**
+   * Solve a batch of direct geodesic problems where the lengths of the
+   * geodesics are specified in terms of arc length.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input arrays
+   *   <i>lat1</i>, <i>lon1</i>, <i>azi1</i>, <i>a12</i> and the output arrays
+   *   for the results specified by <i>outmask</i>.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of direct problems to solve.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * This is equivalent to calling {@link #Direct(GeodesicArrays, int, int,
+   * boolean, int) Direct} with <i>arcmode</i> = true.
+   **********************************************************************/
+  public void ArcDirect(GeodesicArrays g, int off, int len, int outmask) {
+    Direct(g, off, len, true, outmask);
+  }
+
+  /**
+   * The general batch direct geodesic problem.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input arrays
+   *   <i>lat1</i>, <i>lon1</i>, <i>azi1</i>, and <i>s12</i> (if
+   *   <i>arcmode</i> is false) or <i>a12</i> (if <i>arcmode</i> is true) and
+   *   the output arrays for the results specified by <i>outmask</i>.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of direct problems to solve.
+   * @param arcmode boolean flag determining whether the lengths of the
+   *   geodesics are given by <i>s12</i> or <i>a12</i>.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * For each <i>i</i> in [<i>off</i>, <i>off</i> + <i>len</i>), this solves
+   * the direct problem starting at (<i>lat1</i>[<i>i</i>],
+   * <i>lon1</i>[<i>i</i>]) with azimuth <i>azi1</i>[<i>i</i>] and stores the
+   * results in element <i>i</i> of the arrays <i>lat2</i> (for {@link
+   * GeodesicMask#LATITUDE}), <i>lon2</i> (for {@link GeodesicMask#LONGITUDE}),
+   * <i>azi2</i> (for {@link GeodesicMask#AZIMUTH}), <i>s12</i> (for {@link
+   * GeodesicMask#DISTANCE} if <i>arcmode</i> is true), <i>m12</i> (for {@link
+   * GeodesicMask#REDUCEDLENGTH}), <i>M12</i> and <i>M21</i> (for {@link
+   * GeodesicMask#GEODESICSCALE}), and <i>S12</i> (for {@link
+   * GeodesicMask#AREA}).  In addition, if <i>arcmode</i> is false,
+   * <i>a12</i> is stored if this array is not null.  The {@link
+   * GeodesicMask#LONG_UNROLL} flag has the same meaning as for {@link
+   * #Direct(double, double, double, boolean, double, int) Direct}.  The
+   * results are identical to those returned by the scalar version of Direct;
+   * however a single set of coefficient arrays is used for the whole batch.
+   **********************************************************************/
+  public void Direct(GeodesicArrays g, int off, int len,
+                     boolean arcmode, int outmask) {
+    g.CheckDirect(off, len, arcmode, outmask & GeodesicMask.OUT_MASK);
+    DirectBatch(g, off, len, arcmode, outmask, new GeodesicWorkspace());
+  }
+
+  /**
+   * The general batch direct geodesic problem with single precision arrays.
+   * <p>
+   * @param g a {@link GeodesicFloatArrays} object holding the input arrays
+   *   <i>lat1</i>, <i>lon1</i>, <i>azi1</i>, and <i>s12</i> (if
+   *   <i>arcmode</i> is false) or <i>a12</i> (if <i>arcmode</i> is true) and
+   *   the output arrays for the results specified by <i>outmask</i>.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of direct problems to solve.
+   * @param arcmode boolean flag determining whether the lengths of the
+   *   geodesics are given by <i>s12</i> or <i>a12</i>.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * This is the same as {@link #Direct(GeodesicArrays, int, int, boolean,
+   * int) Direct} except that the arrays are float[].  The results are those
+   * of the double precision routine rounded to float; see {@link
+   * GeodesicFloatArrays} for a discussion of the errors.
+   **********************************************************************/
+  public void Direct(GeodesicFloatArrays g, int off, int len,
+                     boolean arcmode, int outmask) {
+    int out = outmask & GeodesicMask.OUT_MASK;
+    g.CheckDirect(off, len, arcmode, out);
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    GeodesicArrays d = g.Scratch();
+    float s12_a12[] = arcmode ? g.a12 : g.s12;
+    boolean
+      distance = arcmode && (out & GeodesicMask.DISTANCE) != 0,
+      arc = !arcmode && g.a12 != null;
+    for (int i = off; i < off + len; i += GeodesicFloatArrays.BLOCK) {
+      int n = Math.min(GeodesicFloatArrays.BLOCK, off + len - i);
+      GeodesicFloatArrays.Load(g.lat1, i, d.lat1, n);
+      GeodesicFloatArrays.Load(g.lon1, i, d.lon1, n);
+      GeodesicFloatArrays.Load(g.azi1, i, d.azi1, n);
+      GeodesicFloatArrays.Load(s12_a12, i, arcmode ? d.a12 : d.s12, n);
+      DirectBatch(d, 0, n, arcmode, outmask, w);
+      if ((out & GeodesicMask.LATITUDE) != 0)
+        GeodesicFloatArrays.Store(d.lat2, g.lat2, i, n);
+      if ((out & GeodesicMask.LONGITUDE) != 0)
+        GeodesicFloatArrays.Store(d.lon2, g.lon2, i, n);
+      if ((out & GeodesicMask.AZIMUTH) != 0)
+        GeodesicFloatArrays.Store(d.azi2, g.azi2, i, n);
+      if (distance)
+        GeodesicFloatArrays.Store(d.s12, g.s12, i, n);
+      if (arc)
+        GeodesicFloatArrays.Store(d.a12, g.a12, i, n);
+      StoreLengths(d, g, i, n, out);
+    }
+  }
+
+  // Store the reduced length, geodesic scales, and area (as selected by
+  // outmask) from [0, n) of d to [off, off + n) of g.
+  private static void StoreLengths(GeodesicArrays d, GeodesicFloatArrays g,
+                                   int off, int n, int outmask) {
+    if ((outmask & GeodesicMask.REDUCEDLENGTH) != 0)
+      GeodesicFloatArrays.Store(d.m12, g.m12, off, n);
+    if ((outmask & GeodesicMask.GEODESICSCALE) != 0) {
+      GeodesicFloatArrays.Store(d.M12, g.M12, off, n);
+      GeodesicFloatArrays.Store(d.M21, g.M21, off, n);
+    }
+    if ((outmask & GeodesicMask.AREA) != 0)
+      GeodesicFloatArrays.Store(d.S12, g.S12, off, n);
+  }
+
+  /**
+   * Solve the direct geodesic problem and pass the results to a consumer.
+   * <p>
+   * @param c a {@link GeodesicConsumer} which receives the results.
+   * @param i the index passed to <i>c</i>.
+   * @param w a {@link GeodesicWorkspace} object providing the scratch storage
+   *   for the calculation.
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param azi1 azimuth at point 1 (degrees).
+   * @param arcmode boolean flag determining the meaning of the
+   *   <i>s12_a12</i>.
+   * @param s12_a12 if <i>arcmode</i> is false, this is the distance between
+   *   point 1 and point 2 (meters); otherwise it is the arc length between
+   *   point 1 and point 2 (degrees); it can be negative.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * <p>
+   * This gives the same results as {@link #Direct(double, double, double,
+   * boolean, double, int) Direct}; <i>lat2</i>, <i>lon2</i>, <i>azi2</i>, and
+   * <i>s12</i> are passed to <i>c</i> with Double.NaN for the quantities not
+   * specified by <i>outmask</i>.  No memory is allocated; however <i>w</i>
+   * must not be used by another thread at the same time.
+   **********************************************************************/
+  public void Direct(GeodesicConsumer c, int i, GeodesicWorkspace w,
+                     double lat1, double lon1, double azi1,
+                     boolean arcmode, double s12_a12, int outmask) {
+    // Automatically supply DISTANCE_IN if necessary
+    if (!arcmode) outmask |= GeodesicMask.DISTANCE_IN;
+    GeodesicData r = w.g;
+    r.Clear();
+    w.line.LineInit(this, lat1, lon1, azi1, outmask, w.p);
+    w.line.Position(r, w.p, arcmode, s12_a12, outmask);
+    r.Send(c, i, outmask & GeodesicMask.OUT_MASK);
+  }
+
+  /**
+   * Solve a batch of direct geodesic problems and pass the results to a
+   * consumer.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input arrays
+   *   <i>lat1</i>, <i>lon1</i>, <i>azi1</i>, and <i>s12</i> (if
+   *   <i>arcmode</i> is false) or <i>a12</i> (if <i>arcmode</i> is true).
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of direct problems to solve.
+   * @param arcmode boolean flag determining whether the lengths of the
+   *   geodesics are given by <i>s12</i> or <i>a12</i>.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @param c a {@link GeodesicConsumer} which receives the results for
+   *   element <i>i</i> of the arrays with index <i>i</i>.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * The output arrays of <i>g</i> are not used; instead the results are
+   * passed to <i>c</i> as for {@link #Direct(GeodesicConsumer, int,
+   * GeodesicWorkspace, double, double, double, boolean, double, int)}.
+   **********************************************************************/
+  public void Direct(GeodesicArrays g, int off, int len,
+                     boolean arcmode, int outmask, GeodesicConsumer c) {
+    double s12_a12[] = arcmode ? g.a12 : g.s12;
+    GeodesicArrays.Check(g.lat1, "lat1", off, len);
+    GeodesicArrays.Check(g.lon1, "lon1", off, len);
+    GeodesicArrays.Check(g.azi1, "azi1", off, len);
+    GeodesicArrays.Check(s12_a12, arcmode ? "a12" : "s12", off, len);
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    for (int i = off; i < off + len; ++i)
+      Direct(c, i, w, g.lat1[i], g.lon1[i], g.azi1[i],
+             arcmode, s12_a12[i], outmask);
+  }
+
+  // The batch direct solution using the scratch space in w.  The arrays in g
+  // have already been checked.
+  void DirectBatch(GeodesicArrays g, int off, int len,
+                   boolean arcmode, int outmask, GeodesicWorkspace w) {
+    boolean block = GeodesicBlock.Handles(this, outmask);
+    // Automatically supply DISTANCE_IN if necessary
+    if (!arcmode) outmask |= GeodesicMask.DISTANCE_IN;
+    if (block) {
+      // Use the faster blocked algorithm which gives the same results
+      w.Block().Direct(this, g, off, len, arcmode, outmask);
+      return;
+    }
+    GeodesicData r = w.g;
+    GeodesicLine l = w.line;
+    double s12_a12[] = arcmode ? g.a12 : g.s12;
+    // Strip the capability bits before testing the outputs
+    int out = outmask & GeodesicMask.OUT_MASK;
+    boolean
+      latitude = (out & GeodesicMask.LATITUDE) != 0,
+      longitude = (out & GeodesicMask.LONGITUDE) != 0,
+      azimuth = (out & GeodesicMask.AZIMUTH) != 0,
+      distance = arcmode && (out & GeodesicMask.DISTANCE) != 0,
+      reducedlength = (out & GeodesicMask.REDUCEDLENGTH) != 0,
+      geodesicscale = (out & GeodesicMask.GEODESICSCALE) != 0,
+      area = (out & GeodesicMask.AREA) != 0,
+      arc = !arcmode && g.a12 != null;
+    for (int i = off; i < off + len; ++i) {
+      l.LineInit(this, g.lat1[i], g.lon1[i], g.azi1[i], outmask, w.p);
+      l.Position(r, w.p, arcmode, s12_a12[i], outmask);
+      if (latitude) g.lat2[i] = r.lat2;
+      if (longitude) g.lon2[i] = r.lon2;
+      if (azimuth) g.azi2[i] = r.azi2;
+      if (distance) g.s12[i] = r.s12;
+      if (arc) g.a12[i] = r.a12;
+      if (reducedlength) g.m12[i] = r.m12;
+      if (geodesicscale) { g.M12[i] = r.M12; g.M21[i] = r.M21; }
+      if (area) g.S12[i] = r.S12;
+    }
+  }
+
   /**
    * Define a {@link GeodesicLine} in terms of the direct geodesic problem
    * specified in terms of distance with all capabilities included.
@@ -619,34 +1001,172 @@ public class Geodesic {
     return Inverse(lat1, lon1, lat2, lon2, GeodesicMask.STANDARD);
   }
 
-  private class InverseData {
-    private GeodesicData g;
-    private double salp1, calp1, salp2, calp2;
-    private InverseData() {
-      g = new GeodesicData();
-      salp1 = calp1 = salp2 = calp2 = Double.NaN;
-    }
-  }
-
-  private InverseData InverseInt(double lat1, double lon1,
-                                 double lat2, double lon2, int outmask) {
-    InverseData result = new InverseData();
-    Pair p = new Pair();
-    GeodesicData r = result.g;
+  private void InverseInt(GeodesicData r, GeodesicWorkspace w,
+                          double lat1, double lon1,
+                          double lat2, double lon2, int outmask) {
+    // Fill in r and set w.salp1, w.calp1, w.salp2, w.calp2.  Only the fields
+    // of r specified by outmask (plus lat1, lon1, lat2, lon2, a12) are set.
+    // If outmask includes NOENDS_, lat1, lon1, lat2, lon2 are not set and,
+    // unless outmask includes AZIMUTH, neither are w.salp1, etc.
+    GeodesicListener listener = listener_;
+    Pair p = w.p;
     // Compute longitude difference (AngDiff does this carefully).  Result is
     // in [-180, 180] but -180 is only for west-going geodesics.  180 is for
     // east-going and meridional geodesics.
-    r.lat1 = lat1 = GeoMath.LatFix(lat1); r.lat2 = lat2 = GeoMath.LatFix(lat2);
+    lat1 = GeoMath.LatFix(lat1); lat2 = GeoMath.LatFix(lat2);
+    double lon12, lon12s;
+    GeoMath.AngDiff(p, lon1, lon2); lon12 = p.first; lon12s = p.second;
+    Ends(r, outmask, listener, lat1, lon1, lat2, lon2, lon12, lon12s);
     // If really close to the equator, treat as on equator.
     lat1 = GeoMath.AngRound(lat1);
     lat2 = GeoMath.AngRound(lat2);
+
+    // Swap points so that point with higher (abs) latitude is point 1
+    // If one latitude is a nan, then it becomes lat1.
+    int swapp = Math.abs(lat1) < Math.abs(lat2) || lat2 != lat2 ? -1 : 1;
+    if (swapp < 0) {
+      { double t = lat1; lat1 = lat2; lat2 = t; }
+    }
+    // Make lat1 <= 0
+    int latsign = (int)Math.copySign(1.0, -lat1);
+    lat1 *= latsign;
+    lat2 *= latsign;
+
+    double sbet1, cbet1, sbet2, cbet2;
+
+    GeoMath.sincosd(p, lat1);
+    sbet1 = _f1 * p.first; cbet1 = p.second;
+    // Ensure cbet1 = +epsilon at poles; doing the fix on beta means that sig12
+    // will be <= 2*tiny for two points at the same pole.
+    GeoMath.norm(p, sbet1, cbet1); sbet1 = p.first; cbet1 = p.second;
+    cbet1 = Math.max(tiny_, cbet1);
+
+    GeoMath.sincosd(p, lat2);
+    sbet2 = _f1 * p.first; cbet2 = p.second;
+    // Ensure cbet2 = +epsilon at poles
+    GeoMath.norm(p, sbet2, cbet2); sbet2 = p.first; cbet2 = p.second;
+    cbet2 = Math.max(tiny_, cbet2);
+
+    double
+      dn1 = Math.sqrt(1 + _ep2 * GeoMath.sq(sbet1)),
+      dn2 = Math.sqrt(1 + _ep2 * GeoMath.sq(sbet2));
+
+    InverseInt(r, w, lat1, sbet1, cbet1, dn1, sbet2, cbet2, dn2,
+               lon12, lon12s, swapp, latsign, outmask, listener);
+  }
+
+  // The inverse problem between point i of a and point j of b using the
+  // per-point terms computed by GeodesicPoints.Set.  This gives the same
+  // results as InverseInt(r, w, lat1, lon1, lat2, lon2, outmask).
+  void InverseInt(GeodesicData r, GeodesicWorkspace w,
+                  GeodesicPoints a, int i, GeodesicPoints b, int j,
+                  int outmask) {
+    GeodesicListener listener = listener_;
+    Pair p = w.p;
+    double lat1 = a.latr[i], lat2 = b.latr[j],
+      lon1 = a.lon[i], lon2 = b.lon[j];
     double lon12, lon12s;
-    GeoMath.AngDiff(p, lon1, lon2); lon12 = p.first; lon12s = p.second;
+    GeoMath.AngDiff(p, lon1, lon2, a.lonr[i], b.lonr[j]);
+    lon12 = p.first; lon12s = p.second;
+    Ends(r, outmask, listener, a.lat[i], lon1, b.lat[j], lon2, lon12, lon12s);
+    int swapp = Math.abs(lat1) < Math.abs(lat2) || lat2 != lat2 ? -1 : 1;
+    if (swapp < 0) {
+      { double t = lat1; lat1 = lat2; lat2 = t; }
+      { GeodesicPoints t = a; a = b; b = t; }
+      { int t = i; i = j; j = t; }
+    }
+    int latsign = (int)Math.copySign(1.0, -lat1);
+    lat1 *= latsign;
+    // Pick out the terms for the latitudes of the points after multiplying
+    // by latsign.
+    if (latsign < 0)
+      InverseInt(r, w, lat1,
+                 a.sbetn[i], a.cbetn[i], a.dnn[i],
+                 b.sbetn[j], b.cbetn[j], b.dnn[j],
+                 lon12, lon12s, swapp, latsign, outmask, listener);
+    else
+      InverseInt(r, w, lat1,
+                 a.sbet[i], a.cbet[i], a.dn[i],
+                 b.sbet[j], b.cbet[j], b.dn[j],
+                 lon12, lon12s, swapp, latsign, outmask, listener);
+  }
+
+  // The inverse problem between point i of a and (lat2, lon2).  Only the
+  // terms for point 2 need to be computed.  This gives the same results as
+  // InverseInt(r, w, lat1, lon1, lat2, lon2, outmask).
+  void InverseInt(GeodesicData r, GeodesicWorkspace w,
+                  GeodesicPoints a, int i, double lat2, double lon2,
+                  int outmask) {
+    GeodesicListener listener = listener_;
+    Pair p = w.p;
+    lat2 = GeoMath.LatFix(lat2);
+    double lat1 = a.latr[i], lon1 = a.lon[i];
+    double lon12, lon12s;
+    GeoMath.AngDiff(p, lon1, lon2, a.lonr[i], Math.IEEEremainder(lon2, 360.0));
+    lon12 = p.first; lon12s = p.second;
+    Ends(r, outmask, listener, a.lat[i], lon1, lat2, lon2, lon12, lon12s);
+    lat2 = GeoMath.AngRound(lat2);
+    int swapp = Math.abs(lat1) < Math.abs(lat2) || lat2 != lat2 ? -1 : 1;
+    if (swapp < 0) {
+      { double t = lat1; lat1 = lat2; lat2 = t; }
+    }
+    int latsign = (int)Math.copySign(1.0, -lat1);
+    lat1 *= latsign;
+    lat2 *= latsign;
+    // The terms for (lat2, lon2) which is now point 1 if swapp < 0
+    double sbet, cbet, dn;
+    GeoMath.sincosd(p, swapp < 0 ? lat1 : lat2);
+    sbet = _f1 * p.first; cbet = p.second;
+    GeoMath.norm(p, sbet, cbet); sbet = p.first; cbet = p.second;
+    cbet = Math.max(tiny_, cbet);
+    dn = Math.sqrt(1 + _ep2 * GeoMath.sq(sbet));
+    // The terms for point i of a
+    double sbeta, cbeta, dna;
+    if (latsign < 0) {
+      sbeta = a.sbetn[i]; cbeta = a.cbetn[i]; dna = a.dnn[i];
+    } else {
+      sbeta = a.sbet[i]; cbeta = a.cbet[i]; dna = a.dn[i];
+    }
+    if (swapp < 0)
+      InverseInt(r, w, lat1, sbet, cbet, dn, sbeta, cbeta, dna,
+                 lon12, lon12s, swapp, latsign, outmask, listener);
+    else
+      InverseInt(r, w, lat1, sbeta, cbeta, dna, sbet, cbet, dn,
+                 lon12, lon12s, swapp, latsign, outmask, listener);
+  }
+
+  // Store the end points in r.  This is skipped if outmask includes NOENDS_
+  // (unless there's a listener, which needs them).
+  private static void Ends(GeodesicData r, int outmask,
+                           GeodesicListener listener,
+                           double lat1, double lon1, double lat2, double lon2,
+                           double lon12, double lon12s) {
+    if ((outmask & NOENDS_) != 0 && listener == null) return;
+    r.lat1 = lat1; r.lat2 = lat2;
     if ((outmask & GeodesicMask.LONG_UNROLL) != 0) {
       r.lon1 = lon1; r.lon2 = (lon1 + lon12) + lon12s;
     } else {
       r.lon1 = GeoMath.AngNormalize(lon1); r.lon2 = GeoMath.AngNormalize(lon2);
     }
+  }
+
+  // The part of the inverse calculation common to the versions of
+  // InverseInt above.  The points have been swapped (swapp) and reflected
+  // (latsign) so that lat1 = -|lat1| and |lat2| <= |lat1|; lon12 and lon12s
+  // are the longitude difference returned by AngDiff.  listener is the value
+  // of listener_ read (once) by the caller.
+  private void InverseInt(GeodesicData r, GeodesicWorkspace w,
+                          double lat1,
+                          double sbet1, double cbet1, double dn1,
+                          double sbet2, double cbet2, double dn2,
+                          double lon12, double lon12s,
+                          int swapp, int latsign, int outmask,
+                          GeodesicListener listener) {
+    long start = listener == null ? 0 : System.nanoTime();
+    // The path taken, the number of iterations, and the number of bisections
+    // reported to the listener
+    int path = GeodesicListener.MERIDIAN, numit = 0, bisections = 0;
+    Pair p = w.p;
     // Make longitude difference positive.
     int lonsign = (int)Math.copySign(1.0, lon12);
     lon12 *= lonsign; lon12s *= lonsign;
@@ -655,18 +1175,7 @@ public class Geodesic {
     GeoMath.sincosde(p, lon12, lon12s);
     slam12 = p.first; clam12 = p.second;
     lon12s = (180 - lon12) - lon12s; // the supplementary longitude difference
-
-    // Swap points so that point with higher (abs) latitude is point 1
-    // If one latitude is a nan, then it becomes lat1.
-    int swapp = Math.abs(lat1) < Math.abs(lat2) || lat2 != lat2 ? -1 : 1;
-    if (swapp < 0) {
-      lonsign *= -1;
-      { double t = lat1; lat1 = lat2; lat2 = t; }
-    }
-    // Make lat1 <= 0
-    int latsign = (int)Math.copySign(1.0, -lat1);
-    lat1 *= latsign;
-    lat2 *= latsign;
+    lonsign *= swapp;
     // Now we have
     //
     //     0 <= lon12 <= 180
@@ -679,22 +1188,9 @@ public class Geodesic {
     // check, e.g., on verifying quadrants in atan2.  In addition, this
     // enforces some symmetries in the results returned.
 
-    double sbet1, cbet1, sbet2, cbet2, s12x, m12x;
+    double s12x, m12x;
     s12x = m12x = Double.NaN;
 
-    GeoMath.sincosd(p, lat1);
-    sbet1 = _f1 * p.first; cbet1 = p.second;
-    // Ensure cbet1 = +epsilon at poles; doing the fix on beta means that sig12
-    // will be <= 2*tiny for two points at the same pole.
-    GeoMath.norm(p, sbet1, cbet1); sbet1 = p.first; cbet1 = p.second;
-    cbet1 = Math.max(tiny_, cbet1);
-
-    GeoMath.sincosd(p, lat2);
-    sbet2 = _f1 * p.first; cbet2 = p.second;
-    // Ensure cbet2 = +epsilon at poles
-    GeoMath.norm(p, sbet2, cbet2); sbet2 = p.first; cbet2 = p.second;
-    cbet2 = Math.max(tiny_, cbet2);
-
     // If cbet1 < -sbet1, then cbet2 - cbet1 is a sensitive measure of the
     // |bet1| - |bet2|.  Alternatively (cbet1 >= -sbet1), abs(sbet2) + sbet1 is
     // a better measure.  This logic is used in assigning calp2 in Lambda12.
@@ -702,6 +1198,7 @@ public class Geodesic {
     // bet1 exactly.  An example where is is necessary is the inverse problem
     // 48.522876735459 0 -48.52287673545898293 179.599720456223079643
     // which failed with Visual Studio 10 (Release and Debug)
+    // (The values of dn1 and dn2 are unaffected by these adjustments.)
 
     if (cbet1 < -sbet1) {
       if (cbet2 == cbet1)
@@ -711,19 +1208,13 @@ public class Geodesic {
         cbet2 = cbet1;
     }
 
-    double
-      dn1 = Math.sqrt(1 + _ep2 * GeoMath.sq(sbet1)),
-      dn2 = Math.sqrt(1 + _ep2 * GeoMath.sq(sbet2));
-
     double a12, sig12, calp1, salp1, calp2, salp2;
     a12 = sig12 = calp1 = salp1 = calp2 = salp2 = Double.NaN;
     // index zero elements of these arrays are unused
-    double C1a[] = new double[nC1_ + 1];
-    double C2a[] = new double[nC2_ + 1];
-    double C3a[] = new double[nC3_];
+    double C1a[] = w.C1a, C2a[] = w.C2a, C3a[] = w.C3a;
 
     boolean meridian = lat1 == -90 || slam12 == 0;
-    LengthsV v = new LengthsV();
+    LengthsV v = w.v;
 
     if (meridian) {
 
@@ -777,14 +1268,48 @@ public class Geodesic {
         (_f <= 0 || lon12s >= _f * 180)) {
 
       // Geodesic runs along equator
+      path = GeodesicListener.EQUATORIAL;
       calp1 = calp2 = 0; salp1 = salp2 = 1;
       s12x = _a * lam12;
       sig12 = omg12 = lam12 / _f1;
-      m12x = _b * Math.sin(sig12);
+      if ((outmask & GeodesicMask.REDUCEDLENGTH) != 0)
+        m12x = _b * Math.sin(sig12);
       if ((outmask & GeodesicMask.GEODESICSCALE) != 0)
         r.M12 = r.M21 = Math.cos(sig12);
       a12 = lon12 / _f1;
 
+    } else if (!meridian && _f == 0) {
+
+      // A sphere, so the geodesic is a great circle and the solution is given
+      // in closed form.  These are the formulas used in InverseStart with
+      // omg12 = lam12 (arranged to avoid cancellation when lam12 is close to
+      // 0 or pi).
+      path = GeodesicListener.SPHERICAL;
+      double
+        sbet12 = sbet2 * cbet1 - cbet2 * sbet1,
+        sbet12a = sbet2 * cbet1 + cbet2 * sbet1,
+        // 1 - cos(lam12) or 1 + cos(lam12)
+        t = GeoMath.sq(slam12) / (1 + Math.abs(clam12));
+      salp1 = cbet2 * slam12;
+      calp1 = clam12 >= 0 ? sbet12 + cbet2 * sbet1 * t :
+        sbet12a - cbet2 * sbet1 * t;
+      salp2 = cbet1 * slam12;
+      calp2 = clam12 >= 0 ? sbet12 - cbet1 * sbet2 * t :
+        cbet1 * sbet2 * t - sbet12a;
+      double
+        ssig12 = Math.hypot(salp1, calp1),
+        csig12 = sbet1 * sbet2 + cbet1 * cbet2 * clam12;
+      GeoMath.norm(p, salp1, calp1); salp1 = p.first; calp1 = p.second;
+      GeoMath.norm(p, salp2, calp2); salp2 = p.first; calp2 = p.second;
+      sig12 = Math.atan2(ssig12, csig12);
+      s12x = _b * sig12;
+      if ((outmask & GeodesicMask.REDUCEDLENGTH) != 0)
+        m12x = _b * ssig12;
+      if ((outmask & GeodesicMask.GEODESICSCALE) != 0)
+        r.M12 = r.M21 = csig12;
+      a12 = Math.toDegrees(sig12);
+      somg12 = slam12; comg12 = clam12;
+
     } else if (!meridian) {
 
       // Now point1 and point2 belong within a hemisphere bounded by a
@@ -793,10 +1318,10 @@ public class Geodesic {
       // Figure a starting point for Newton's method
       double dnm;
       {
-        InverseStartV s =
-          InverseStart(sbet1, cbet1, dn1, sbet2, cbet2, dn2,
-                       lam12, slam12, clam12,
-                       C1a, C2a, p, v);
+        InverseStartV s = w.s;
+        InverseStart(s, sbet1, cbet1, dn1, sbet2, cbet2, dn2,
+                     lam12, slam12, clam12,
+                     C1a, C2a, p, v);
         sig12 = s.sig12;
         salp1 = s.salp1; calp1 = s.calp1;
         salp2 = s.salp2; calp2 = s.calp2;
@@ -805,8 +1330,10 @@ public class Geodesic {
 
       if (sig12 >= 0) {
         // Short lines (InverseStart sets salp2, calp2, dnm)
+        path = GeodesicListener.SHORT;
         s12x = sig12 * _b * dnm;
-        m12x = GeoMath.sq(dnm) * _b * Math.sin(sig12 / dnm);
+        if ((outmask & GeodesicMask.REDUCEDLENGTH) != 0)
+          m12x = GeoMath.sq(dnm) * _b * Math.sin(sig12 / dnm);
         if ((outmask & GeodesicMask.GEODESICSCALE) != 0)
           r.M12 = r.M21 = Math.cos(sig12 / dnm);
         a12 = Math.toDegrees(sig12);
@@ -826,23 +1353,37 @@ public class Geodesic {
         // guess is taken to be (alp1a + alp1b) / 2.
         double ssig1, csig1, ssig2, csig2, eps, domg12;
         ssig1 = csig1 = ssig2 = csig2 = eps = domg12 = Double.NaN;
-        int numit = 0;
+        path = GeodesicListener.NEWTON;
+        if (w.hint != null) {
+          // Use the previous solution as the starting point, transforming it
+          // to the canonical form as for the results (see the end of this
+          // routine).  If swapp < 0, point 1 is the old point 2.
+          GeodesicHint h = w.hint;
+          double
+            hsalp1 = (swapp < 0 ? h.salp2 : h.salp1) * swapp * lonsign,
+            hcalp1 = (swapp < 0 ? h.calp2 : h.calp1) * swapp * latsign;
+          // Reversed test to skip NaNs; alp1 must be in (0, pi)
+          if (hsalp1 > 0) {
+            GeoMath.norm(p, hsalp1, hcalp1);
+            salp1 = p.first; calp1 = p.second;
+          }
+        }
         // Bracketing range
         double salp1a = tiny_, calp1a = 1, salp1b = tiny_, calp1b = -1;
-        Lambda12V w = new Lambda12V();
+        Lambda12V l = w.l;
         for (boolean tripn = false, tripb = false;; ++numit) {
           // the WGS84 test set: mean = 1.47, sd = 1.25, max = 16
           // WGS84 and random input: mean = 2.85, sd = 0.60
           double V, dV;
-          Lambda12(w, sbet1, cbet1, dn1, sbet2, cbet2, dn2, salp1, calp1,
+          Lambda12(l, sbet1, cbet1, dn1, sbet2, cbet2, dn2, salp1, calp1,
                    slam12, clam12, numit < maxit1_, C1a, C2a, C3a, p, v);
-          V = w.lam12;
-          salp2 = w.salp2; calp2 = w.calp2;
-          sig12 = w.sig12;
-          ssig1 = w.ssig1; csig1 = w.csig1;
-          ssig2 = w.ssig2; csig2 = w.csig2;
-          eps = w.eps; domg12 = w.domg12;
-          dV = w.dlam12;
+          V = l.lam12;
+          salp2 = l.salp2; calp2 = l.calp2;
+          sig12 = l.sig12;
+          ssig1 = l.ssig1; csig1 = l.csig1;
+          ssig2 = l.ssig2; csig2 = l.csig2;
+          eps = l.eps; domg12 = l.domg12;
+          dV = l.dlam12;
           if (tripb ||
               // Reversed test to allow escape with NaNs
               !(Math.abs(V) >= (tripn ? 8 : 1) * tol0_) ||
@@ -886,6 +1427,7 @@ public class Geodesic {
           calp1 = (calp1a + calp1b)/2;
           GeoMath.norm(p, salp1, calp1); salp1 = p.first; calp1 = p.second;
           tripn = false;
+          ++bisections;
           tripb = (Math.abs(salp1a - salp1) + (calp1a - calp1) < tolb_ ||
                    Math.abs(salp1 - salp1b) + (calp1 - calp1b) < tolb_);
         }
@@ -928,7 +1470,8 @@ public class Geodesic {
         salp0 = salp1 * cbet1,
         calp0 = Math.hypot(calp1, salp1 * sbet1); // calp0 > 0
       double alp12;
-      if (calp0 != 0 && salp0 != 0) {
+      // The A4 term vanishes for a sphere
+      if (calp0 != 0 && salp0 != 0 && _e2 != 0) {
         double
           // From Lambda12: tan(bet) = tan(sig) * cos(alp)
           ssig1 = sbet1, csig1 = calp1 * cbet1,
@@ -939,11 +1482,11 @@ public class Geodesic {
           A4 = GeoMath.sq(_a) * calp0 * salp0 * _e2;
         GeoMath.norm(p, ssig1, csig1); ssig1 = p.first; csig1 = p.second;
         GeoMath.norm(p, ssig2, csig2); ssig2 = p.first; csig2 = p.second;
-        double C4a[] = new double[nC4_];
+        double C4a[] = w.C4a;
         C4f(eps, C4a);
         double
-          B41 = SinCosSeries(false, ssig1, csig1, C4a),
-          B42 = SinCosSeries(false, ssig2, csig2, C4a);
+          B41 = SinCosSeries(false, ssig1, csig1, C4a, _order),
+          B42 = SinCosSeries(false, ssig2, csig2, C4a, _order);
         r.S12 = A4 * (B42 - B41);
       } else
         // Avoid problems with indeterminate sig1, sig2 on equator
@@ -984,22 +1527,31 @@ public class Geodesic {
       r.S12 += 0;
     }
 
+    if (swapp < 0 && (outmask & GeodesicMask.GEODESICSCALE) != 0)
+      { double t = r.M12; r.M12 = r.M21; r.M21 = t; }
+
     // Convert calp, salp to azimuth accounting for lonsign, swapp, latsign.
-    if (swapp < 0) {
-      { double t = salp1; salp1 = salp2; salp2 = t; }
-      { double t = calp1; calp1 = calp2; calp2 = t; }
-      if ((outmask & GeodesicMask.GEODESICSCALE) != 0)
-        { double t = r.M12; r.M12 = r.M21; r.M21 = t; }
-    }
+    // This is skipped if only the results of the inverse problem without the
+    // azimuths are wanted (e.g., by Distance).
+    if ((outmask & (NOENDS_ | GeodesicMask.AZIMUTH)) != NOENDS_) {
+      if (swapp < 0) {
+        { double t = salp1; salp1 = salp2; salp2 = t; }
+        { double t = calp1; calp1 = calp2; calp2 = t; }
+      }
 
-    salp1 *= swapp * lonsign; calp1 *= swapp * latsign;
-    salp2 *= swapp * lonsign; calp2 *= swapp * latsign;
+      salp1 *= swapp * lonsign; calp1 *= swapp * latsign;
+      salp2 *= swapp * lonsign; calp2 *= swapp * latsign;
+
+      w.salp1 = salp1; w.calp1 = calp1;
+      w.salp2 = salp2; w.calp2 = calp2;
+    }
 
     // Returned value in [0, 180]
     r.a12 = a12;
-    result.salp1 = salp1; result.calp1 = calp1;
-    result.salp2 = salp2; result.calp2 = calp2;
-    return result;
+    w.numit = numit;
+    if (listener != null)
+      listener.Inverse(r.lat1, r.lon1, r.lat2, r.lon2, path, numit, bisections,
+                       System.nanoTime() - start);
   }
 
   /**
@@ -1046,14 +1598,485 @@ public class Geodesic {
    **********************************************************************/
   public GeodesicData Inverse(double lat1, double lon1,
                               double lat2, double lon2, int outmask) {
+    GeodesicData r = new GeodesicData();
+    Inverse(r, new GeodesicWorkspace(), lat1, lon1, lat2, lon2, outmask);
+    return r;
+  }
+
+  /**
+   * Solve the inverse geodesic problem using caller-supplied storage.
+   * <p>
+   * @param r a {@link GeodesicData} object in which the results are returned.
+   * @param w a {@link GeodesicWorkspace} object providing the scratch storage
+   *   for the calculation.
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * <p>
+   * This gives the same results as {@link #Inverse(double, double, double,
+   * double, int) Inverse}.  The fields of <i>r</i> which are not specified by
+   * <i>outmask</i> are set to Double.NaN.  No memory is allocated, so this
+   * version is suitable for solving a large number of inverse problems;
+   * however <i>w</i> must not be used by another thread at the same time.
+   **********************************************************************/
+  public void Inverse(GeodesicData r, GeodesicWorkspace w,
+                      double lat1, double lon1,
+                      double lat2, double lon2, int outmask) {
     outmask &= GeodesicMask.OUT_MASK;
-    InverseData result = InverseInt(lat1, lon1, lat2, lon2, outmask);
-    GeodesicData r = result.g;
+    r.Clear();
+    InverseInt(r, w, lat1, lon1, lat2, lon2, outmask);
     if ((outmask & GeodesicMask.AZIMUTH) != 0) {
-      r.azi1 = GeoMath.atan2d(result.salp1, result.calp1);
-      r.azi2 = GeoMath.atan2d(result.salp2, result.calp2);
+      r.azi1 = GeoMath.atan2d(w.salp1, w.calp1);
+      r.azi2 = GeoMath.atan2d(w.salp2, w.calp2);
     }
-    return r;
+  }
+
+  /**
+   * Solve the inverse geodesic problem using a warm start.
+   * <p>
+   * @param r a {@link GeodesicData} object in which the results are returned.
+   * @param w a {@link GeodesicWorkspace} object providing the scratch storage
+   *   for the calculation.
+   * @param h a {@link GeodesicHint} holding the azimuths used as the starting
+   *   point for Newton's method; on return, this holds the azimuths found.
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * <p>
+   * This is the same as {@link #Inverse(GeodesicData, GeodesicWorkspace,
+   * double, double, double, double, int) Inverse} except that, in the
+   * general case where Newton's method is needed, the iteration starts from
+   * the solution held in <i>h</i> (if any).  This reduces the number of
+   * iterations when a sequence of inverse problems differ only slightly.
+   * The results have the same accuracy but may differ in the last bit from
+   * those of Inverse; the other cases (meridional, equatorial, and short
+   * geodesics) are unaffected.  No memory is allocated.
+   **********************************************************************/
+  public void Inverse(GeodesicData r, GeodesicWorkspace w, GeodesicHint h,
+                      double lat1, double lon1,
+                      double lat2, double lon2, int outmask) {
+    outmask &= GeodesicMask.OUT_MASK;
+    int coldnumit = 0;
+    if (h.Compare()) {
+      // Solve without the hint to count the iterations
+      InverseInt(w.g, w, lat1, lon1, lat2, lon2,
+                 GeodesicMask.NONE | NOENDS_);
+      coldnumit = w.numit;
+    }
+    r.Clear();
+    w.hint = h;
+    InverseInt(r, w, lat1, lon1, lat2, lon2, outmask);
+    w.hint = null;
+    h.Update(w, w.numit, coldnumit);
+    if ((outmask & GeodesicMask.AZIMUTH) != 0) {
+      r.azi1 = GeoMath.atan2d(w.salp1, w.calp1);
+      r.azi2 = GeoMath.atan2d(w.salp2, w.calp2);
+    }
+  }
+
+  /**
+   * Solve the inverse geodesic problem deferring the calculation of the
+   * optional quantities.
+   * <p>
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @return a {@link GeodesicLazyData} object with the fields <i>lat1</i>,
+   *   <i>lon1</i>, <i>azi1</i>, <i>lat2</i>, <i>lon2</i>, <i>azi2</i>,
+   *   <i>s12</i>, <i>a12</i> set; <i>m12</i>, <i>M12</i>, <i>M21</i>, and
+   *   <i>S12</i> are computed when they are first requested.
+   * <p>
+   * This costs about the same as {@link #Inverse(double, double, double,
+   * double) Inverse} with the standard outputs and is a good choice if it's
+   * not known in advance whether the other quantities are needed.  The
+   * results agree with those of {@link #Inverse(double, double, double,
+   * double, int) Inverse} with <i>outmask</i> = {@link GeodesicMask#ALL}; see
+   * {@link GeodesicLazyData} for details.
+   **********************************************************************/
+  public GeodesicLazyData InverseLazy(double lat1, double lon1,
+                                      double lat2, double lon2) {
+    // The thread's workspace supplies the scratch space; it is only used
+    // within InverseInt and by GeodesicLazyData to hold the series
+    // coefficients.
+    GeodesicWorkspace w = GeodesicWorkspace.Local();
+    GeodesicData r = new GeodesicData();
+    InverseInt(r, w, lat1, lon1, lat2, lon2,
+               GeodesicMask.STANDARD & GeodesicMask.OUT_MASK);
+    r.azi1 = GeoMath.atan2d(w.salp1, w.calp1);
+    r.azi2 = GeoMath.atan2d(w.salp2, w.calp2);
+    return new GeodesicLazyData(this, r, w.salp1, w.calp1,
+                                w.salp2, w.calp2, w.p);
+  }
+
+  /**
+   * Find the distance between two points.
+   * <p>
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @return <i>s12</i> the distance between point 1 and point 2 (meters).
+   * <p>
+   * This gives the same result as {@link #Inverse(double, double, double,
+   * double, int) Inverse}(<i>lat1</i>, <i>lon1</i>, <i>lat2</i>,
+   * <i>lon2</i>, {@link GeodesicMask#DISTANCE}).<i>s12</i>.
+   **********************************************************************/
+  public double Distance(double lat1, double lon1, double lat2, double lon2) {
+    return Distance(new GeodesicWorkspace(), lat1, lon1, lat2, lon2);
+  }
+
+  /**
+   * Find the distance between two points using caller-supplied storage.
+   * <p>
+   * @param w a {@link GeodesicWorkspace} object providing the scratch storage
+   *   for the calculation.
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @return <i>s12</i> the distance between point 1 and point 2 (meters).
+   * <p>
+   * This carries out only the parts of the solution of the inverse problem
+   * needed for <i>s12</i>; in particular, the azimuths are not restored to
+   * the original orientation of the points or converted to degrees, the
+   * longitudes are not reduced, and the reduced length is not found (unless
+   * it's needed to check whether a meridian is a shortest path).  The same
+   * path through the calculation is taken as with {@link #Inverse(double,
+   * double, double, double, int) Inverse}, so the result is identical.  No
+   * memory is allocated; however <i>w</i> must not be used by another thread
+   * at the same time.  The batch routines, e.g., {@link
+   * #Inverse(GeodesicArrays, int, int, int) Inverse}, similarly skip the
+   * unneeded parts of the calculation.
+   **********************************************************************/
+  public double Distance(GeodesicWorkspace w,
+                         double lat1, double lon1, double lat2, double lon2) {
+    GeodesicData r = w.g;
+    InverseInt(r, w, lat1, lon1, lat2, lon2, GeodesicMask.DISTANCE | NOENDS_);
+    return r.s12;
+  }
+
+  /**
+   * Find an approximate distance between two points together with a bound on
+   * its error.
+   * <p>
+   * @param p a {@link Pair} in which the results are returned: <i>first</i>
+   *   is the approximate distance between point 1 and point 2 (meters) and
+   *   <i>second</i> is a bound on its error (meters).
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * <p>
+   * This uses the Andoyer-Lambert formula, i.e., the great-circle distance
+   * between the points on the auxiliary sphere (with the reduced latitudes)
+   * with a correction of order <i>f</i>.  No iteration is needed and it is
+   * typically 3 to 4 times faster than {@link #Distance(GeodesicWorkspace,
+   * double, double, double, double) Distance}.  The error is of order
+   * <i>f</i><sup>2</sup> and the returned error bound is
+   * <pre>
+   *   <i>K</i> <i>f</i><sup>2</sup> max(<i>a</i>, <i>b</i>) &sigma; +
+   *     16 <i>a</i> &epsilon;,</pre>
+   * where &sigma; is the great-circle distance (in radians) on the auxiliary
+   * sphere, &epsilon; = 2<sup>&minus;52</sup>, and <i>K</i> = max(0.28, 0.12
+   * / cos<sup>2</sup>(&sigma;/2)).  For distances less than a quarter of a
+   * meridian, the error is about 0.125 <i>f</i><sup>2</sup><i>s12</i>
+   * (1.4 mm per km for WGS84).  The formula breaks down for nearly antipodal
+   * points; in this case, <i>a</i> &sigma; (1 &minus; <i>f</i>/2) is returned
+   * with an error bound of &pi; |<i>f</i>| <i>a</i> + 16 <i>a</i> &epsilon;.
+   * <p>
+   * <b>NOTE:</b> the bound is empirical, not derived.  The expression for
+   * <i>K</i> was fitted to the errors found by comparing with the exact
+   * distances for a large number of random and adversarially chosen points
+   * with |<i>f</i>| &le; 0.01 (the largest error found was about 0.45 of the
+   * bound) and then doubled as a safety margin.  It is not guaranteed that
+   * the error never exceeds the bound.  For larger values of |<i>f</i>|, the
+   * error bound is returned as infinity.
+   **********************************************************************/
+  public void DistanceApprox(Pair p, double lat1, double lon1,
+                             double lat2, double lon2) {
+    double sbet1, cbet1, sbet2, cbet2, slam12, clam12;
+    GeoMath.sincosd(p, GeoMath.LatFix(lat1));
+    GeoMath.norm(p, _f1 * p.first, p.second); sbet1 = p.first; cbet1 = p.second;
+    GeoMath.sincosd(p, GeoMath.LatFix(lat2));
+    GeoMath.norm(p, _f1 * p.first, p.second); sbet2 = p.first; cbet2 = p.second;
+    GeoMath.AngDiff(p, lon1, lon2);
+    GeoMath.sincosd(p, (p.first + p.second) / 2);
+    slam12 = p.first; clam12 = p.second;
+    double sP, cP, sQ, cQ;
+    // P = (bet1 + bet2)/2, Q = (bet2 - bet1)/2
+    HalfAngle(p, sbet1 * cbet2 + cbet1 * sbet2, cbet1 * cbet2 - sbet1 * sbet2);
+    sP = p.first; cP = p.second;
+    HalfAngle(p, sbet2 * cbet1 - cbet2 * sbet1, cbet1 * cbet2 + sbet1 * sbet2);
+    sQ = p.first; cQ = p.second;
+    double
+      // h = haversine(sig) = sin(sig/2)^2 and hc = cos(sig/2)^2 written so
+      // that neither suffers from cancellation
+      h = GeoMath.sq(sQ * clam12) + GeoMath.sq(cP * slam12),
+      hc = GeoMath.sq(cQ * clam12) + GeoMath.sq(sP * slam12),
+      sig = 2 * Math.atan2(Math.sqrt(h), Math.sqrt(hc)),
+      // An empirical fit to the maximum error multiplied by a safety factor
+      // of 2
+      k = 2 * Math.max(0.14, 0.06 * (h + hc) / hc),
+      cap = Math.PI * Math.abs(_f) * _a + 16 * tol0_ * _a,
+      err = k * GeoMath.sq(_f) * Math.max(_a, _b) * sig + 16 * tol0_ * _a;
+    if (!(Math.abs(_f) <= 0.01)) err = Double.POSITIVE_INFINITY;
+    if (h == 0)
+      p.first = 0;
+    else if (err > cap) {
+      // Nearly antipodal
+      p.first = _a * sig * (1 - _f/2);
+      err = Math.max(err, cap);
+    } else {
+      double
+        ssig = Math.sin(sig),
+        X = (sig - ssig) * GeoMath.sq(sP * cQ) / hc,
+        Y = (sig + ssig) * GeoMath.sq(cP * sQ) / h;
+      p.first = _a * (sig - _f/2 * (X + Y));
+    }
+    p.second = err;
+  }
+
+  // Set p to the sine and cosine of x/2 given those of x in [-180, 180].
+  private static void HalfAngle(Pair p, double sinx, double cosx) {
+    // tan(x/2) = sin(x)/(1 + cos(x)) = (1 - cos(x))/sin(x); choose the form
+    // which avoids cancellation.
+    double s, c;
+    if (cosx >= 0) {
+      s = sinx; c = 1 + cosx;
+    } else {
+      s = Math.copySign(1 - cosx, sinx); c = Math.abs(sinx);
+    }
+    double r = Math.sqrt(s * s + c * c);
+    p.first = s / r; p.second = c / r;
+  }
+
+  /**
+   * Test whether the distance between two points is within a threshold.
+   * <p>
+   * @param w a {@link GeodesicWorkspace} object providing the scratch storage
+   *   for the calculation.
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @param s12max the threshold (meters).
+   * @return whether <i>s12</i> &le; <i>s12max</i>.
+   * <p>
+   * This first computes the approximate distance with {@link
+   * #DistanceApprox DistanceApprox}; if this and its error bound settle the
+   * question, the result is returned immediately.  Only if the threshold
+   * lies within the error bound of the approximate distance is the exact
+   * distance computed with {@link #Distance(GeodesicWorkspace, double,
+   * double, double, double) Distance}.  The result is the same as
+   * Distance(<i>w</i>, <i>lat1</i>, <i>lon1</i>, <i>lat2</i>,
+   * <i>lon2</i>) &le; <i>s12max</i> provided that the error in the
+   * approximate distance lies within its error bound.  Because this bound
+   * is empirical (see {@link #DistanceApprox DistanceApprox}), this is not
+   * guaranteed and, in principle, Within may disagree with the exact test
+   * when <i>s12max</i> is very close to the distance.  No memory is
+   * allocated; however <i>w</i> must not be used by another thread at the
+   * same time.
+   **********************************************************************/
+  public boolean Within(GeodesicWorkspace w, double lat1, double lon1,
+                        double lat2, double lon2, double s12max) {
+    Pair p = w.p;
+    DistanceApprox(p, lat1, lon1, lat2, lon2);
+    if (p.first + p.second <= s12max)
+      return true;
+    // Reversed test to return false for nans
+    if (!(p.first - p.second <= s12max))
+      return false;
+    return Distance(w, lat1, lon1, lat2, lon2) <= s12max;
+  }
+
+  /**
+   * Solve a batch of inverse geodesic problems.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input arrays
+   *   <i>lat1</i>, <i>lon1</i>, <i>lat2</i>, <i>lon2</i> and the output arrays
+   *   for the results specified by <i>outmask</i>.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of inverse problems to solve.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * For each <i>i</i> in [<i>off</i>, <i>off</i> + <i>len</i>), this solves
+   * the inverse problem between (<i>lat1</i>[<i>i</i>], <i>lon1</i>[<i>i</i>])
+   * and (<i>lat2</i>[<i>i</i>], <i>lon2</i>[<i>i</i>]) and stores the
+   * results in element <i>i</i> of the arrays <i>azi1</i> and <i>azi2</i>
+   * (for {@link GeodesicMask#AZIMUTH}), <i>s12</i> (for {@link
+   * GeodesicMask#DISTANCE}), <i>m12</i> (for {@link
+   * GeodesicMask#REDUCEDLENGTH}), <i>M12</i> and <i>M21</i> (for {@link
+   * GeodesicMask#GEODESICSCALE}), and <i>S12</i> (for {@link
+   * GeodesicMask#AREA}).  In addition <i>a12</i> is stored if this array is
+   * not null.  The other arrays are not touched.  The results are identical
+   * to those returned by {@link #Inverse(double, double, double, double, int)
+   * Inverse}.
+   **********************************************************************/
+  public void Inverse(GeodesicArrays g, int off, int len, int outmask) {
+    outmask &= GeodesicMask.OUT_MASK;
+    g.CheckInverse(off, len, outmask);
+    InverseBatch(g, off, len, outmask, new GeodesicWorkspace(), null);
+  }
+
+  /**
+   * Solve a batch of inverse geodesic problems with single precision arrays.
+   * <p>
+   * @param g a {@link GeodesicFloatArrays} object holding the input arrays
+   *   <i>lat1</i>, <i>lon1</i>, <i>lat2</i>, <i>lon2</i> and the output arrays
+   *   for the results specified by <i>outmask</i>.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of inverse problems to solve.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * This is the same as {@link #Inverse(GeodesicArrays, int, int, int)
+   * Inverse} except that the arrays are float[].  The results are those of
+   * the double precision routine rounded to float; see {@link
+   * GeodesicFloatArrays} for a discussion of the errors.
+   **********************************************************************/
+  public void Inverse(GeodesicFloatArrays g, int off, int len, int outmask) {
+    outmask &= GeodesicMask.OUT_MASK;
+    g.CheckInverse(off, len, outmask);
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    GeodesicArrays d = g.Scratch();
+    for (int i = off; i < off + len; i += GeodesicFloatArrays.BLOCK) {
+      int n = Math.min(GeodesicFloatArrays.BLOCK, off + len - i);
+      GeodesicFloatArrays.Load(g.lat1, i, d.lat1, n);
+      GeodesicFloatArrays.Load(g.lon1, i, d.lon1, n);
+      GeodesicFloatArrays.Load(g.lat2, i, d.lat2, n);
+      GeodesicFloatArrays.Load(g.lon2, i, d.lon2, n);
+      InverseBatch(d, 0, n, outmask, w, null);
+      if ((outmask & GeodesicMask.AZIMUTH) != 0) {
+        GeodesicFloatArrays.Store(d.azi1, g.azi1, i, n);
+        GeodesicFloatArrays.Store(d.azi2, g.azi2, i, n);
+      }
+      if ((outmask & GeodesicMask.DISTANCE) != 0)
+        GeodesicFloatArrays.Store(d.s12, g.s12, i, n);
+      if (g.a12 != null)
+        GeodesicFloatArrays.Store(d.a12, g.a12, i, n);
+      StoreLengths(d, g, i, n, outmask);
+    }
+  }
+
+  /**
+   * Solve the inverse geodesic problem and pass the results to a consumer.
+   * <p>
+   * @param c a {@link GeodesicInverseConsumer} which receives the results.
+   * @param i the index passed to <i>c</i>.
+   * @param w a {@link GeodesicWorkspace} object providing the scratch storage
+   *   for the calculation.
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * <p>
+   * This gives the same results as {@link #Inverse(double, double, double,
+   * double, int) Inverse}; <i>azi1</i>, <i>azi2</i>, and <i>s12</i> are
+   * passed to <i>c</i> with Double.NaN for the quantities not specified by
+   * <i>outmask</i>.  No memory is allocated; however <i>w</i> must not be
+   * used by another thread at the same time.
+   **********************************************************************/
+  public void Inverse(GeodesicInverseConsumer c, int i, GeodesicWorkspace w,
+                      double lat1, double lon1,
+                      double lat2, double lon2, int outmask) {
+    outmask &= GeodesicMask.OUT_MASK;
+    GeodesicData r = w.g;
+    r.Clear();
+    InverseInt(r, w, lat1, lon1, lat2, lon2, outmask | NOENDS_);
+    boolean azimuth = (outmask & GeodesicMask.AZIMUTH) != 0;
+    c.Accept(i,
+             azimuth ? GeoMath.atan2d(w.salp1, w.calp1) : Double.NaN,
+             azimuth ? GeoMath.atan2d(w.salp2, w.calp2) : Double.NaN,
+             r.s12);
+  }
+
+  /**
+   * Solve a batch of inverse geodesic problems and pass the results to a
+   * consumer.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input arrays
+   *   <i>lat1</i>, <i>lon1</i>, <i>lat2</i>, <i>lon2</i>.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of inverse problems to solve.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @param c a {@link GeodesicInverseConsumer} which receives the results
+   *   for element <i>i</i> of the arrays with index <i>i</i>.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * The output arrays of <i>g</i> are not used; instead the results are
+   * passed to <i>c</i> as for {@link #Inverse(GeodesicInverseConsumer, int,
+   * GeodesicWorkspace, double, double, double, double, int)}.
+   **********************************************************************/
+  public void Inverse(GeodesicArrays g, int off, int len, int outmask,
+                      GeodesicInverseConsumer c) {
+    GeodesicArrays.Check(g.lat1, "lat1", off, len);
+    GeodesicArrays.Check(g.lon1, "lon1", off, len);
+    GeodesicArrays.Check(g.lat2, "lat2", off, len);
+    GeodesicArrays.Check(g.lon2, "lon2", off, len);
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    for (int i = off; i < off + len; ++i)
+      Inverse(c, i, w, g.lat1[i], g.lon1[i], g.lat2[i], g.lon2[i], outmask);
+  }
+
+  // The batch inverse solution using the scratch space in w.  The arrays in
+  // g have already been checked.  If o is not null, point 1 is taken to be
+  // the single point in o (and g.lat1, g.lon1 are not used).
+  void InverseBatch(GeodesicArrays g, int off, int len, int outmask,
+                    GeodesicWorkspace w, GeodesicPoints o) {
+    GeodesicData r = w.g;
+    boolean azimuth = (outmask & GeodesicMask.AZIMUTH) != 0,
+      distance = (outmask & GeodesicMask.DISTANCE) != 0,
+      reducedlength = (outmask & GeodesicMask.REDUCEDLENGTH) != 0,
+      geodesicscale = (outmask & GeodesicMask.GEODESICSCALE) != 0,
+      area = (outmask & GeodesicMask.AREA) != 0,
+      arc = g.a12 != null;
+    // The end points are not stored
+    outmask |= NOENDS_;
+    for (int i = off; i < off + len; ++i) {
+      if (o == null)
+        InverseInt(r, w, g.lat1[i], g.lon1[i], g.lat2[i], g.lon2[i], outmask);
+      else
+        InverseInt(r, w, o, 0, g.lat2[i], g.lon2[i], outmask);
+      if (azimuth) {
+        g.azi1[i] = GeoMath.atan2d(w.salp1, w.calp1);
+        g.azi2[i] = GeoMath.atan2d(w.salp2, w.calp2);
+      }
+      if (distance) g.s12[i] = r.s12;
+      if (arc) g.a12[i] = r.a12;
+      if (reducedlength) g.m12[i] = r.m12;
+      if (geodesicscale) { g.M12[i] = r.M12; g.M21[i] = r.M21; }
+      if (area) g.S12[i] = r.S12;
+    }
+  }
+
+  /**
+   * Set up the solution of inverse geodesic problems starting at a fixed
+   * point.
+   * <p>
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @return a {@link GeodesicOrigin} object.
+   * <p>
+   * {@link GeodesicOrigin#InverseTo(double, double, int)
+   * GeodesicOrigin.InverseTo} then solves the inverse problem from (<i>lat1</i>,
+   * <i>lon1</i>) to any number of points 2, skipping the work which depends
+   * only on point 1.
+   **********************************************************************/
+  public GeodesicOrigin InverseFrom(double lat1, double lon1) {
+    return new GeodesicOrigin(this, lat1, lon1);
   }
 
   /**
@@ -1099,9 +2122,11 @@ public class Geodesic {
    **********************************************************************/
   public GeodesicLine InverseLine(double lat1, double lon1,
                                   double lat2, double lon2, int caps)  {
-    InverseData result = InverseInt(lat1, lon1, lat2, lon2, 0);
-    double salp1 = result.salp1, calp1 = result.calp1,
-      azi1 = GeoMath.atan2d(salp1, calp1), a12 = result.g.a12;
+    GeodesicData r = new GeodesicData();
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    InverseInt(r, w, lat1, lon1, lat2, lon2, 0);
+    double salp1 = w.salp1, calp1 = w.calp1,
+      azi1 = GeoMath.atan2d(salp1, calp1), a12 = r.a12;
     // Ensure that a12 can be converted to a distance
     if ((caps & (GeodesicMask.OUT_MASK & GeodesicMask.DISTANCE_IN)) != 0)
       caps |= GeodesicMask.DISTANCE;
@@ -1191,6 +2216,12 @@ public class Geodesic {
    **********************************************************************/
   public double Flattening() { return _f; }
 
+  /**
+   * @return the order of the series expansions.  This is the value used in
+   *   the constructor.
+   **********************************************************************/
+  public int Order() { return _order; }
+
   /**
    * @return total area of ellipsoid in meters<sup>2</sup>.  The area of a
    *   polygon encircling a pole can be found by adding EllipsoidArea()/2 to
@@ -1198,12 +2229,127 @@ public class Geodesic {
    **********************************************************************/
   public double EllipsoidArea() { return 4 * Math.PI * _c2; }
 
+  /**
+   * Warm up the just-in-time compiler for the geodesic routines.
+   * <p>
+   * @return a {@link GeodesicWarmUp} object reporting whether the steady
+   *   state was reached.
+   * <p>
+   * This runs a synthetic workload which exercises all the paths through
+   * the solution of the inverse problem, as well as the direct problem,
+   * GeodesicLine, and PolygonArea, until the time taken by the workload
+   * stops decreasing (or until {@link GeodesicWarmUp#DEFAULT_TIMEOUT} has
+   * elapsed).  Call this when a service starts, before accepting requests,
+   * in order to avoid slow calls while the code is being compiled.
+   **********************************************************************/
+  public GeodesicWarmUp WarmUp() {
+    GeodesicWarmUp warm = new GeodesicWarmUp(this);
+    warm.Run(GeodesicWarmUp.DEFAULT_TIMEOUT);
+    return warm;
+  }
+
+  // The listener for the inverse problem (shared by all Geodesic objects);
+  // null if none.  This is read once per inverse calculation.
+  private static volatile GeodesicListener listener_ = null;
+
+  /**
+   * Set the listener for the solutions of the inverse problem.
+   * <p>
+   * @param listener the {@link GeodesicListener} to be called at the end of
+   *   each inverse calculation; null to disable the listener.
+   * <p>
+   * There is a single listener for the whole process: it is called for the
+   * inverse calculations of <i>all</i> Geodesic objects (whatever the
+   * ellipsoid) in all threads, and calling SetListener replaces the listener
+   * set by any other caller.  The listener must therefore be thread safe.
+   * The listener is read once at the start of each inverse calculation, so
+   * a calculation in progress when SetListener is called reports to the
+   * listener in effect when it started.
+   * <p>
+   * With no listener (the default), the only overhead is the check for a
+   * listener.
+   **********************************************************************/
+  public static void SetListener(GeodesicListener listener) {
+    listener_ = listener;
+  }
+
+  /**
+   * @return the current listener for the solutions of the inverse problem
+   *   (null if none).
+   **********************************************************************/
+  public static GeodesicListener Listener() { return listener_; }
+
   /**
    * A global instantiation of Geodesic with the parameters for the WGS84
    * ellipsoid.
+   * <p>
+   * This is specialized so that the coefficients of the series depending on
+   * the flattening are compile-time constants (see GeodesicGenerator).  The
+   * results are identical to those of new Geodesic(Constants.WGS84_a,
+   * Constants.WGS84_f).
    **********************************************************************/
-  public static final Geodesic WGS84 =
-    new Geodesic(Constants.WGS84_a, Constants.WGS84_f);
+  public static final Geodesic WGS84 = new GeodesicWGS84();
+
+  // The maximum number of ellipsoids held by of(a, f)
+  private static final int cachesize_ = 64;
+  // A cache of the ellipsoids constructed by of(a, f) in access order (the
+  // least recently used is evicted first); guarded by its own lock.
+  private static final LinkedHashMap<Key, Geodesic> cache_ =
+    new LinkedHashMap<Key, Geodesic>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+      @Override protected boolean
+        removeEldestEntry(Map.Entry<Key, Geodesic> eldest) {
+        return size() > cachesize_;
+      }
+    };
+
+  // The key for cache_: the bit patterns of a and f.
+  private static final class Key {
+    private final long a, f;
+    Key(double a, double f) {
+      this.a = Double.doubleToLongBits(a); this.f = Double.doubleToLongBits(f);
+    }
+    @Override public boolean equals(Object o) {
+      if (!(o instanceof Key)) return false;
+      Key k = (Key)o;
+      return a == k.a && f == k.f;
+    }
+    @Override public int hashCode() { return Long.hashCode(a * 31 + f); }
+  }
+
+  /**
+   * Return a Geodesic object for an ellipsoid, reusing a previously
+   * constructed object if possible.
+   * <p>
+   * @param a equatorial radius (meters).
+   * @param f flattening of ellipsoid.
+   * @return a Geodesic object for the ellipsoid.
+   * @exception GeographicErr if <i>a</i> or (1 &minus; <i>f</i> ) <i>a</i> is
+   *   not positive.
+   * <p>
+   * The most recently used ellipsoids (up to 64 of them) are retained; for
+   * the WGS84 ellipsoid, {@link #WGS84} is returned.  Because Geodesic
+   * objects are immutable, the returned object may be shared freely between
+   * threads.  This method may be called by several threads at once.  The
+   * lock on the cache is only held while looking up and storing entries
+   * (not while a new object is constructed); if several threads construct
+   * an object for the same ellipsoid at once, they all receive the one
+   * stored first.
+   **********************************************************************/
+  public static Geodesic of(double a, double f) {
+    if (a == WGS84._a && f == WGS84._f) return WGS84;
+    Key k = new Key(a, f);
+    Geodesic g;
+    synchronized (cache_) { g = cache_.get(k); }
+    if (g != null) return g;
+    // Construct the object (which computes the coefficients of the series)
+    // without holding the lock.
+    g = new Geodesic(a, f);
+    synchronized (cache_) {
+      Geodesic h = cache_.putIfAbsent(k, g);
+      return h == null ? g : h;
+    }
+  }
 
   // This is a reformulation of the geodesic problem.  The notation is as
   // follows:
@@ -1227,13 +2373,21 @@ public class Geodesic {
   protected static double SinCosSeries(boolean sinp,
                                        double sinx, double cosx,
                                        double c[]) {
+    return SinCosSeries(sinp, sinx, cosx, c, c.length);
+  }
+
+  // The same as SinCosSeries(sinp, sinx, cosx, c) using the first len
+  // elements of c.
+  static double SinCosSeries(boolean sinp,
+                             double sinx, double cosx,
+                             double c[], int len) {
     // Evaluate
     // y = sinp ? sum(c[i] * sin( 2*i    * x), i, 1, n) :
     //            sum(c[i] * cos((2*i+1) * x), i, 0, n-1)
     // using Clenshaw summation.  N.B. c[0] is unused for sin series
     // Approx operation count = (n + 5) mult and (2 * n + 2) add
     int
-      k = c.length,             // Point to one beyond last element
+      k = len,                  // Point to one beyond last element
       n = k - (sinp ? 1 : 0);
     double
       ar = 2 * (cosx - sinx) * (cosx + sinx), // 2 * cos(2 * x)
@@ -1250,9 +2404,9 @@ public class Geodesic {
       : cosx * (y0 - y1);       // cos(x) * (y0 - y1)
   }
 
-  private class LengthsV {
+  static class LengthsV {
     private double s12b, m12b, m0, M12, M21;
-    private LengthsV() {
+    LengthsV() {
       s12b = m12b = m0 = M12 = M21 = Double.NaN;
     }
   }
@@ -1272,35 +2426,35 @@ public class Geodesic {
     double m0x = 0, J12 = 0, A1 = 0, A2 = 0;
     if ((outmask & (GeodesicMask.DISTANCE | GeodesicMask.REDUCEDLENGTH |
                     GeodesicMask.GEODESICSCALE)) != 0) {
-      A1 = A1m1f(eps);
-      C1f(eps, C1a);
+      A1 = A1m1f(eps, _order);
+      C1f(eps, C1a, _order);
       if ((outmask & (GeodesicMask.REDUCEDLENGTH |
                       GeodesicMask.GEODESICSCALE)) != 0) {
-        A2 = A2m1f(eps);
-        C2f(eps, C2a);
+        A2 = A2m1f(eps, _order);
+        C2f(eps, C2a, _order);
         m0x = A1 - A2;
         A2 = 1 + A2;
       }
       A1 = 1 + A1;
     }
     if ((outmask & GeodesicMask.DISTANCE) != 0) {
-      double B1 = SinCosSeries(true, ssig2, csig2, C1a) -
-        SinCosSeries(true, ssig1, csig1, C1a);
+      double B1 = SinCosSeries(true, ssig2, csig2, C1a, _order + 1) -
+        SinCosSeries(true, ssig1, csig1, C1a, _order + 1);
       // Missing a factor of _b
       v.s12b = A1 * (sig12 + B1);
       if ((outmask & (GeodesicMask.REDUCEDLENGTH |
                       GeodesicMask.GEODESICSCALE)) != 0) {
-        double B2 = SinCosSeries(true, ssig2, csig2, C2a) -
-          SinCosSeries(true, ssig1, csig1, C2a);
+        double B2 = SinCosSeries(true, ssig2, csig2, C2a, _order + 1) -
+          SinCosSeries(true, ssig1, csig1, C2a, _order + 1);
         J12 = m0x * sig12 + (A1 * B1 - A2 * B2);
       }
     } else if ((outmask & (GeodesicMask.REDUCEDLENGTH |
                            GeodesicMask.GEODESICSCALE)) != 0) {
       // Assume here that nC1_ >= nC2_
-      for (int l = 1; l <= nC2_; ++l)
+      for (int l = 1; l <= _order; ++l)
         C2a[l] = A1 * C1a[l] - A2 * C2a[l];
-      J12 = m0x * sig12 + (SinCosSeries(true, ssig2, csig2, C2a) -
-                           SinCosSeries(true, ssig1, csig1, C2a));
+      J12 = m0x * sig12 + (SinCosSeries(true, ssig2, csig2, C2a, _order + 1) -
+                           SinCosSeries(true, ssig1, csig1, C2a, _order + 1));
     }
     if ((outmask & GeodesicMask.REDUCEDLENGTH) != 0) {
       v.m0 = m0x;
@@ -1370,31 +2524,32 @@ public class Geodesic {
     return k;
   }
 
-  private class InverseStartV {
+  static class InverseStartV {
     private double sig12, salp1, calp1,
     // Only updated if return val >= 0
       salp2, calp2,
     // Only updated for short lines
       dnm;
-    private InverseStartV() {
+    InverseStartV() {
       sig12 = salp1 = calp1 = salp2 = calp2 = dnm = Double.NaN;
     }
   }
 
-  private InverseStartV InverseStart(double sbet1, double cbet1, double dn1,
-                                     double sbet2, double cbet2, double dn2,
-                                     double lam12,
-                                     double slam12, double clam12,
-                                     // Scratch areas of the right size
-                                     double C1a[], double C2a[],
-                                     Pair p, LengthsV v) {
+  private void InverseStart(InverseStartV w,
+                            double sbet1, double cbet1, double dn1,
+                            double sbet2, double cbet2, double dn2,
+                            double lam12,
+                            double slam12, double clam12,
+                            // Scratch areas of the right size
+                            double C1a[], double C2a[],
+                            Pair p, LengthsV v) {
     // Return a starting point for Newton's method in salp1 and calp1 (function
     // value is -1).  If Newton's method doesn't need to be used, return also
     // salp2 and calp2 and function value is sig12.
 
-    // To hold sig12, salp1, calp1, salp2, calp2, dnm.
-    InverseStartV w = new InverseStartV();
+    // w to hold sig12, salp1, calp1, salp2, calp2, dnm.
     w.sig12 = -1;               // Return value
+    w.salp2 = w.calp2 = w.dnm = Double.NaN;
     double
       // bet12 = bet2 - bet1 in [0, pi); bet12a = bet2 + bet1 in (-pi, 0]
       sbet12 = sbet2 * cbet1 - cbet2 * sbet1,
@@ -1534,13 +2689,12 @@ public class Geodesic {
     } else {
       w.salp1 = 1; w.calp1 = 0;
     }
-    return w;
   }
 
-  private class Lambda12V {
+  static class Lambda12V {
     private double lam12, salp2, calp2, sig12, ssig1, csig1, ssig2, csig2,
       eps, domg12, dlam12;
-    private Lambda12V() {
+    Lambda12V() {
       lam12 = salp2 = calp2 = sig12 = ssig1 = csig1 = ssig2 = csig2
         = eps = domg12 = dlam12 = Double.NaN;
     }
@@ -1614,8 +2768,8 @@ public class Geodesic {
     double k2 = GeoMath.sq(calp0) * _ep2;
     w.eps = k2 / (2 * (1 + Math.sqrt(1 + k2)) + k2);
     C3f(w.eps, C3a);
-    B312 = (SinCosSeries(true, w.ssig2, w.csig2, C3a) -
-            SinCosSeries(true, w.ssig1, w.csig1, C3a));
+    B312 = (SinCosSeries(true, w.ssig2, w.csig2, C3a, _order) -
+            SinCosSeries(true, w.ssig1, w.csig1, C3a, _order));
     w.domg12 = -_f * A3f(w.eps) * salp0 * (w.sig12 + B312);
     w.lam12 = eta + w.domg12;
 
@@ -1634,16 +2788,16 @@ public class Geodesic {
 
   protected double A3f(double eps) {
     // Evaluate A3
-    return GeoMath.polyval(nA3_ - 1, _A3x, 0, eps);
+    return GeoMath.polyval(_order - 1, _A3x, 0, eps);
   }
 
   protected void C3f(double eps, double c[]) {
     // Evaluate C3 coeffs
-    // Elements c[1] thru c[nC3_ - 1] are set
+    // Elements c[1] thru c[_order - 1] are set
     double mult = 1;
     int o = 0;
-    for (int l = 1; l < nC3_; ++l) { // l is index of C3[l]
-      int m = nC3_ - l - 1;          // order of polynomial in eps
+    for (int l = 1; l < _order; ++l) { // l is index of C3[l]
+      int m = _order - l - 1;          // order of polynomial in eps
       mult *= eps;
       c[l] = mult * GeoMath.polyval(m, _C3x, o, eps);
       o += m + 1;
@@ -1652,11 +2806,11 @@ public class Geodesic {
 
   protected void C4f(double eps, double c[]) {
     // Evaluate C4 coeffs
-    // Elements c[0] thru c[nC4_ - 1] are set
+    // Elements c[0] thru c[_order - 1] are set
     double mult = 1;
     int o = 0;
-    for (int l = 0; l < nC4_; ++l) { // l is index of C4[l]
-      int m = nC4_ - l - 1;          // order of polynomial in eps
+    for (int l = 0; l < _order; ++l) { // l is index of C4[l]
+      int m = _order - l - 1;          // order of polynomial in eps
       c[l] = mult * GeoMath.polyval(m, _C4x, o, eps);
       o += m + 1;
       mult *= eps;
@@ -1664,86 +2818,109 @@ public class Geodesic {
   }
 
   // The scale factor A1-1 = mean value of (d/dsigma)I1 - 1
+  static final double A1m1coeff_[] = {
+    // (1-eps)*A1-1, polynomial in eps2 of order 3
+    1, 4, 64, 0, 256,
+  };
   protected static double A1m1f(double eps) {
-    final double coeff[] = {
-      // (1-eps)*A1-1, polynomial in eps2 of order 3
-      1, 4, 64, 0, 256,
-    };
-    int m = nA1_/2;
-    double t = GeoMath.polyval(m, coeff, 0, GeoMath.sq(eps)) / coeff[m + 1];
+    return A1m1f(eps, nA1_);
+  }
+  // The series truncated at the given order (at most nA1_).  The
+  // coefficients for lower orders are obtained by dropping the leading
+  // (highest order) terms in the polynomials.
+  static double A1m1f(double eps, int order) {
+    final double coeff[] = A1m1coeff_;
+    int m0 = nA1_/2, m = order/2;
+    double t = GeoMath.polyval(m, coeff, m0 - m, GeoMath.sq(eps)) /
+      coeff[m0 + 1];
     return (t + eps) / (1 - eps);
   }
 
   // The coefficients C1[l] in the Fourier expansion of B1
+  static final double C1coeff_[] = {
+    // C1[1]/eps^1, polynomial in eps2 of order 2
+    -1, 6, -16, 32,
+    // C1[2]/eps^2, polynomial in eps2 of order 2
+    -9, 64, -128, 2048,
+    // C1[3]/eps^3, polynomial in eps2 of order 1
+    9, -16, 768,
+    // C1[4]/eps^4, polynomial in eps2 of order 1
+    3, -5, 512,
+    // C1[5]/eps^5, polynomial in eps2 of order 0
+    -7, 1280,
+    // C1[6]/eps^6, polynomial in eps2 of order 0
+    -7, 2048,
+  };
   protected static void C1f(double eps, double c[]) {
-    final double coeff[] = {
-      // C1[1]/eps^1, polynomial in eps2 of order 2
-      -1, 6, -16, 32,
-      // C1[2]/eps^2, polynomial in eps2 of order 2
-      -9, 64, -128, 2048,
-      // C1[3]/eps^3, polynomial in eps2 of order 1
-      9, -16, 768,
-      // C1[4]/eps^4, polynomial in eps2 of order 1
-      3, -5, 512,
-      // C1[5]/eps^5, polynomial in eps2 of order 0
-      -7, 1280,
-      // C1[6]/eps^6, polynomial in eps2 of order 0
-      -7, 2048,
-    };
+    C1f(eps, c, nC1_);
+  }
+  static void C1f(double eps, double c[], int order) {
+    Series(C1coeff_, nC1_, eps, c, order);
+  }
+
+  // The coefficients c[l] for l in [1, order] of a series whose coefficients
+  // are given by eps^l times a polynomial in eps^2 (this is the pattern for
+  // C1f, C1pf, and C2f); coeff holds the polynomials for order n0 and these
+  // are truncated for lower orders.
+  private static void Series(double coeff[], int n0,
+                             double eps, double c[], int order) {
     double
       eps2 = GeoMath.sq(eps),
       d = eps;
     int o = 0;
-    for (int l = 1; l <= nC1_; ++l) { // l is index of C1p[l]
-      int m = (nC1_ - l) / 2;         // order of polynomial in eps^2
-      c[l] = d * GeoMath.polyval(m, coeff, o, eps2) / coeff[o + m + 1];
-      o += m + 2;
+    for (int l = 1; l <= order; ++l) { // l is index of C[l]
+      int m0 = (n0 - l) / 2,           // order of polynomial in eps^2
+        m = (order - l) / 2;           // truncated order
+      c[l] = d * GeoMath.polyval(m, coeff, o + m0 - m, eps2) /
+        coeff[o + m0 + 1];
+      o += m0 + 2;
       d *= eps;
     }
   }
 
   // The coefficients C1p[l] in the Fourier expansion of B1p
+  static final double C1pcoeff_[] = {
+    // C1p[1]/eps^1, polynomial in eps2 of order 2
+    205, -432, 768, 1536,
+    // C1p[2]/eps^2, polynomial in eps2 of order 2
+    4005, -4736, 3840, 12288,
+    // C1p[3]/eps^3, polynomial in eps2 of order 1
+    -225, 116, 384,
+    // C1p[4]/eps^4, polynomial in eps2 of order 1
+    -7173, 2695, 7680,
+    // C1p[5]/eps^5, polynomial in eps2 of order 0
+    3467, 7680,
+    // C1p[6]/eps^6, polynomial in eps2 of order 0
+    38081, 61440,
+  };
   protected static void C1pf(double eps, double c[]) {
-    final double coeff[] = {
-      // C1p[1]/eps^1, polynomial in eps2 of order 2
-      205, -432, 768, 1536,
-      // C1p[2]/eps^2, polynomial in eps2 of order 2
-      4005, -4736, 3840, 12288,
-      // C1p[3]/eps^3, polynomial in eps2 of order 1
-      -225, 116, 384,
-      // C1p[4]/eps^4, polynomial in eps2 of order 1
-      -7173, 2695, 7680,
-      // C1p[5]/eps^5, polynomial in eps2 of order 0
-      3467, 7680,
-      // C1p[6]/eps^6, polynomial in eps2 of order 0
-      38081, 61440,
-    };
-    double
-      eps2 = GeoMath.sq(eps),
-      d = eps;
-    int o = 0;
-    for (int l = 1; l <= nC1p_; ++l) { // l is index of C1p[l]
-      int m = (nC1p_ - l) / 2;         // order of polynomial in eps^2
-      c[l] = d * GeoMath.polyval(m, coeff, o, eps2) / coeff[o + m + 1];
-      o += m + 2;
-      d *= eps;
-    }
+    C1pf(eps, c, nC1p_);
+  }
+  static void C1pf(double eps, double c[], int order) {
+    Series(C1pcoeff_, nC1p_, eps, c, order);
   }
 
   // The scale factor A2-1 = mean value of (d/dsigma)I2 - 1
+  private static final double A2m1coeff_[] = {
+    // (eps+1)*A2-1, polynomial in eps2 of order 3
+    -11, -28, -192, 0, 256,
+  };
   protected static double A2m1f(double eps) {
-    final double coeff[] = {
-      // (eps+1)*A2-1, polynomial in eps2 of order 3
-      -11, -28, -192, 0, 256,
-    };
-    int m = nA2_/2;
-    double t = GeoMath.polyval(m, coeff, 0, GeoMath.sq(eps)) / coeff[m + 1];
+    return A2m1f(eps, nA2_);
+  }
+  static double A2m1f(double eps, int order) {
+    final double coeff[] = A2m1coeff_;
+    int m0 = nA2_/2, m = order/2;
+    double t = GeoMath.polyval(m, coeff, m0 - m, GeoMath.sq(eps)) /
+      coeff[m0 + 1];
     return (t - eps) / (1 + eps);
   }
 
   // The coefficients C2[l] in the Fourier expansion of B2
   protected static void C2f(double eps, double c[]) {
-    final double coeff[] = {
+    C2f(eps, c, nC2_);
+  }
+  private static final double C2coeff_[] = {
       // C2[1]/eps^1, polynomial in eps2 of order 2
       1, 2, 16, 32,
       // C2[2]/eps^2, polynomial in eps2 of order 2
@@ -1757,16 +2934,8 @@ public class Geodesic {
       // C2[6]/eps^6, polynomial in eps2 of order 0
       77, 2048,
     };
-    double
-      eps2 = GeoMath.sq(eps),
-      d = eps;
-    int o = 0;
-    for (int l = 1; l <= nC2_; ++l) { // l is index of C2[l]
-      int m = (nC2_ - l) / 2;         // order of polynomial in eps^2
-      c[l] = d * GeoMath.polyval(m, coeff, o, eps2) / coeff[o + m + 1];
-      o += m + 2;
-      d *= eps;
-    }
+  static void C2f(double eps, double c[], int order) {
+    Series(C2coeff_, nC2_, eps, c, order);
   }
 
   // The scale factor A3 = mean value of (d/dsigma)I3
@@ -1785,11 +2954,17 @@ public class Geodesic {
       // A3, coeff of eps^0, polynomial in n of order 0
       1, 1,
     };
+    // For lower orders, drop the terms in eps^j and the leading terms of the
+    // polynomials in n.
     int o = 0, k = 0;
     for (int j = nA3_ - 1; j >= 0; --j) { // coeff of eps^j
-      int m = Math.min(nA3_ - j - 1, j);  // order of polynomial in n
-      _A3x[k++] = GeoMath.polyval(m, coeff, o, _n) / coeff[o + m + 1];
-      o += m + 2;
+      int m0 = Math.min(nA3_ - j - 1, j); // order of polynomial in n
+      if (j < _order) {
+        int m = Math.min(_order - j - 1, j);
+        _A3x[k++] = GeoMath.polyval(m, coeff, o + m0 - m, _n) /
+          coeff[o + m0 + 1];
+      }
+      o += m0 + 2;
     }
   }
 
@@ -1830,9 +3005,13 @@ public class Geodesic {
     int o = 0, k = 0;
     for (int l = 1; l < nC3_; ++l) {        // l is index of C3[l]
       for (int j = nC3_ - 1; j >= l; --j) { // coeff of eps^j
-        int m = Math.min(nC3_ - j - 1, j);  // order of polynomial in n
-        _C3x[k++] = GeoMath.polyval(m, coeff, o, _n) / coeff[o + m + 1];
-        o += m + 2;
+        int m0 = Math.min(nC3_ - j - 1, j); // order of polynomial in n
+        if (j < _order) {
+          int m = Math.min(_order - j - 1, j);
+          _C3x[k++] = GeoMath.polyval(m, coeff, o + m0 - m, _n) /
+            coeff[o + m0 + 1];
+        }
+        o += m0 + 2;
       }
     }
   }
@@ -1885,9 +3064,13 @@ public class Geodesic {
     int o = 0, k = 0;
     for (int l = 0; l < nC4_; ++l) {        // l is index of C4[l]
       for (int j = nC4_ - 1; j >= l; --j) { // coeff of eps^j
-        int m = nC4_ - j - 1;               // order of polynomial in n
-        _C4x[k++] = GeoMath.polyval(m, coeff, o, _n) / coeff[o + m + 1];
-        o += m + 2;
+        int m0 = nC4_ - j - 1;              // order of polynomial in n
+        if (j < _order) {
+          int m = _order - j - 1;
+          _C4x[k++] = GeoMath.polyval(m, coeff, o + m0 - m, _n) /
+            coeff[o + m0 + 1];
+        }
+        o += m0 + 2;
       }
     }
   }
@@ -0,0 +1,155 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicArrays class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * The inputs and results of a batch of geodesic calculations.
+ * <p>
+ * This is the "struct of arrays" counterpart of {@link GeodesicData}; element
+ * <i>i</i> of each array holds the corresponding quantity for the geodesic
+ * between point 1 (<i>lat1</i>[<i>i</i>], <i>lon1</i>[<i>i</i>]) and point 2
+ * (<i>lat2</i>[<i>i</i>], <i>lon2</i>[<i>i</i>]).  It is used by the batch
+ * routines {@link Geodesic#Inverse(GeodesicArrays, int, int, int)
+ * Geodesic.Inverse}, which reads <i>lat1</i>, <i>lon1</i>, <i>lat2</i>,
+ * <i>lon2</i>, and {@link Geodesic#Direct(GeodesicArrays, int, int, int)
+ * Geodesic.Direct} ({@link Geodesic#ArcDirect(GeodesicArrays, int, int, int)
+ * Geodesic.ArcDirect}), which reads <i>lat1</i>, <i>lon1</i>, <i>azi1</i>,
+ * <i>s12</i> (<i>a12</i>).  {@link GeodesicOrigin#InverseTo(GeodesicArrays,
+ * int, int, int) GeodesicOrigin.InverseTo} reads just <i>lat2</i>,
+ * <i>lon2</i>.
+ * <p>
+ * The arrays are supplied by the caller (they are not copied), so existing
+ * columns of coordinates can be used directly as inputs.  Only the output
+ * arrays selected by the <i>outmask</i> argument of the batch routines need
+ * to be provided; the others can be left as null.  If the array for
+ * <i>a12</i> is provided, it is always filled in.  The input arrays are never
+ * modified.  {@link GeodesicFloatArrays} is the single precision
+ * counterpart of this class.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicArrays g = new GeodesicArrays();
+ * g.lat1 = lat1; g.lon1 = lon1; g.lat2 = lat2; g.lon2 = lon2;
+ * g.s12 = new double[n];
+ * Geodesic.WGS84.Inverse(g, 0, n, GeodesicMask.DISTANCE); }</pre>
+ **********************************************************************/
+public class GeodesicArrays {
+  /**
+   * latitudes of point 1 (degrees).
+   **********************************************************************/
+  public double lat1[];
+  /**
+   * longitudes of point 1 (degrees).
+   **********************************************************************/
+  public double lon1[];
+  /**
+   * azimuths at point 1 (degrees).
+   **********************************************************************/
+  public double azi1[];
+  /**
+   * latitudes of point 2 (degrees).
+   **********************************************************************/
+  public double lat2[];
+  /**
+   * longitudes of point 2 (degrees).
+   **********************************************************************/
+  public double lon2[];
+  /**
+   * azimuths at point 2 (degrees).
+   **********************************************************************/
+  public double azi2[];
+  /**
+   * distances between point 1 and point 2 (meters).
+   **********************************************************************/
+  public double s12[];
+  /**
+   * arc lengths on the auxiliary sphere between point 1 and point 2
+   *   (degrees).
+   **********************************************************************/
+  public double a12[];
+  /**
+   * reduced lengths of geodesics (meters).
+   **********************************************************************/
+  public double m12[];
+  /**
+   * geodesic scales of point 2 relative to point 1 (dimensionless).
+   **********************************************************************/
+  public double M12[];
+  /**
+   * geodesic scales of point 1 relative to point 2 (dimensionless).
+   **********************************************************************/
+  public double M21[];
+  /**
+   * areas under the geodesics (meters<sup>2</sup>).
+   **********************************************************************/
+  public double S12[];
+  /**
+   * Constructor with all the arrays set to null.
+   **********************************************************************/
+  public GeodesicArrays() {}
+
+  // Check that the column x can hold elements [off, off + len).
+  static void Check(double x[], String name, int off, int len) {
+    if (x == null)
+      throw new GeographicErr("Array " + name + " is missing");
+    if (!(off >= 0 && len >= 0 && off <= x.length - len))
+      throw new GeographicErr("Array " + name + " is too short");
+  }
+
+  // Check the inputs and outputs for the inverse problem.
+  void CheckInverse(int off, int len, int outmask) {
+    Check(lat1, "lat1", off, len); Check(lon1, "lon1", off, len);
+    Check(lat2, "lat2", off, len); Check(lon2, "lon2", off, len);
+    if ((outmask & GeodesicMask.AZIMUTH) != 0)
+      Check(azi1, "azi1", off, len);
+    CheckOut(off, len, outmask & ~(GeodesicMask.LATITUDE |
+                                   GeodesicMask.LONGITUDE));
+  }
+
+  // Check the inputs and outputs for the inverse problem from a fixed point 1.
+  void CheckInverseFrom(int off, int len, int outmask) {
+    Check(lat2, "lat2", off, len); Check(lon2, "lon2", off, len);
+    if ((outmask & GeodesicMask.AZIMUTH) != 0)
+      Check(azi1, "azi1", off, len);
+    CheckOut(off, len, outmask & ~(GeodesicMask.LATITUDE |
+                                   GeodesicMask.LONGITUDE));
+  }
+
+  // Check the inputs and outputs for the direct problem.
+  void CheckDirect(int off, int len, boolean arcmode, int outmask) {
+    Check(lat1, "lat1", off, len); Check(lon1, "lon1", off, len);
+    Check(azi1, "azi1", off, len);
+    if (arcmode)
+      Check(a12, "a12", off, len);
+    else
+      Check(s12, "s12", off, len);
+    CheckOut(off, len, outmask);
+  }
+
+  // Check the arrays for the quantities selected by outmask.
+  void CheckOut(int off, int len, int outmask) {
+    if ((outmask & GeodesicMask.LATITUDE) != 0)
+      Check(lat2, "lat2", off, len);
+    if ((outmask & GeodesicMask.LONGITUDE) != 0)
+      Check(lon2, "lon2", off, len);
+    if ((outmask & GeodesicMask.AZIMUTH) != 0)
+      Check(azi2, "azi2", off, len);
+    if ((outmask & GeodesicMask.DISTANCE) != 0)
+      Check(s12, "s12", off, len);
+    if ((outmask & GeodesicMask.REDUCEDLENGTH) != 0)
+      Check(m12, "m12", off, len);
+    if ((outmask & GeodesicMask.GEODESICSCALE) != 0) {
+      Check(M12, "M12", off, len); Check(M21, "M21", off, len);
+    }
+    if ((outmask & GeodesicMask.AREA) != 0)
+      Check(S12, "S12", off, len);
+    if (a12 != null)
+      Check(a12, "a12", off, len);
+  }
+}
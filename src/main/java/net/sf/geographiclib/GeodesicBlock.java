@@ -0,0 +1,224 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicBlock class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * The batch direct problem solved a block at a time.
+ * <p>
+ * This is used by Geodesic.DirectBatch for the common case where only the
+ * position and azimuth of point 2 (and the distance or arc length) are
+ * required.  Instead of going through the calculation of {@link
+ * GeodesicLine} one geodesic at a time, each block of geodesics is taken
+ * through the calculation in stages: the stages involving the trigonometric
+ * functions are done geodesic by geodesic, while the series evaluations are
+ * handed off to {@link GeodesicKernel} which treats the whole block at once.
+ * The operations carried out for each geodesic are the same as in
+ * GeodesicLine.LineInit and GeodesicLine.Position, so the results are
+ * identical.
+ **********************************************************************/
+class GeodesicBlock {
+
+  // The number of geodesics in a block
+  static final int BLOCK = 64;
+  // The outputs which can be handled
+  static final int OUTMASK = GeodesicMask.STANDARD | GeodesicMask.LONG_UNROLL;
+
+  private static final int nC1_ = Geodesic.nC1_;
+  private static final int nC1p_ = Geodesic.nC1p_;
+  private static final int nC3_ = Geodesic.nC3_;
+
+  private final GeodesicKernel _kernel;
+  private final Pair _p;
+  private final double _lon1[], _salp0[], _calp0[],
+    _ssig1[], _csig1[], _somg1[], _comg1[], _eps[],
+    _A1m1[], _B11[], _stau1[], _ctau1[], _A3c[], _B31[],
+    _sig12[], _ssig12[], _csig12[], _ssig2[], _csig2[], _cbet2[], _y[],
+    _C1a[], _C1pa[], _C3a[];
+
+  GeodesicBlock() {
+    _kernel = GeodesicKernel.kernel_;
+    _p = new Pair();
+    _lon1 = new double[BLOCK]; _salp0 = new double[BLOCK];
+    _calp0 = new double[BLOCK]; _ssig1 = new double[BLOCK];
+    _csig1 = new double[BLOCK]; _somg1 = new double[BLOCK];
+    _comg1 = new double[BLOCK]; _eps = new double[BLOCK];
+    _A1m1 = new double[BLOCK]; _B11 = new double[BLOCK];
+    _stau1 = new double[BLOCK]; _ctau1 = new double[BLOCK];
+    _A3c = new double[BLOCK]; _B31 = new double[BLOCK];
+    _sig12 = new double[BLOCK]; _ssig12 = new double[BLOCK];
+    _csig12 = new double[BLOCK]; _ssig2 = new double[BLOCK];
+    _csig2 = new double[BLOCK]; _cbet2 = new double[BLOCK];
+    _y = new double[BLOCK];
+    _C1a = new double[(nC1_ + 1) * BLOCK];
+    _C1pa = new double[(nC1p_ + 1) * BLOCK];
+    _C3a = new double[nC3_ * BLOCK];
+  }
+
+  // Can this class handle the direct problem for g and outmask?  This
+  // excludes the |f| > 0.01 case where Position does a Newton iteration and
+  // ellipsoids with series of lower order.
+  static boolean Handles(Geodesic g, int outmask) {
+    return (outmask & GeodesicMask.OUT_MASK & ~OUTMASK) == 0 &&
+      Math.abs(g._f) <= 0.01 &&
+      g._order == Geodesic.GEOGRAPHICLIB_GEODESIC_ORDER;
+  }
+
+  // Solve direct problems [off, off + len) of a.  caps is outmask with
+  // DISTANCE_IN added if !arcmode.
+  void Direct(Geodesic g, GeodesicArrays a, int off, int len,
+              boolean arcmode, int caps) {
+    for (int i = off; i < off + len; i += BLOCK)
+      DirectBlock(g, a, i, Math.min(BLOCK, off + len - i), arcmode, caps);
+  }
+
+  private void DirectBlock(Geodesic g, GeodesicArrays a, int off, int n,
+                           boolean arcmode, int caps) {
+    // This mirrors the setting of outmask in Position (LineInit only adds
+    // bits without capabilities to _caps)
+    int outmask = caps & GeodesicMask.OUT_MASK;
+    boolean
+      c1 = (caps & GeodesicMask.CAP_C1) != 0,
+      c1p = (caps & GeodesicMask.CAP_C1p) != 0,
+      c3 = (caps & GeodesicMask.CAP_C3) != 0,
+      unroll = (outmask & GeodesicMask.LONG_UNROLL) != 0,
+      distance = (outmask & GeodesicMask.DISTANCE) != 0,
+      longitude = (outmask & GeodesicMask.LONGITUDE) != 0,
+      latitude = (outmask & GeodesicMask.LATITUDE) != 0,
+      azimuth = (outmask & GeodesicMask.AZIMUTH) != 0,
+      arc = !arcmode && a.a12 != null;
+    Pair p = _p;
+    double f1 = g._f1, ep2 = g._ep2, b = g._b, f = g._f;
+    // Stage 1: the start of LineInit
+    for (int k = 0; k < n; ++k) {
+      int i = off + k;
+      double azi1 = GeoMath.AngNormalize(a.azi1[i]), salp1, calp1;
+      // Guard against underflow in salp0
+      GeoMath.sincosd(p, GeoMath.AngRound(azi1));
+      salp1 = p.first; calp1 = p.second;
+      double lat1 = GeoMath.LatFix(a.lat1[i]), cbet1, sbet1;
+      _lon1[k] = unroll ? a.lon1[i] : GeoMath.AngNormalize(a.lon1[i]);
+      GeoMath.sincosd(p, GeoMath.AngRound(lat1));
+      sbet1 = f1 * p.first; cbet1 = p.second;
+      // Ensure cbet1 = +epsilon at poles
+      GeoMath.norm(p, sbet1, cbet1);
+      sbet1 = p.first; cbet1 = Math.max(Geodesic.tiny_, p.second);
+      double salp0 = salp1 * cbet1, calp0 = Math.hypot(calp1, salp1 * sbet1);
+      _salp0[k] = salp0; _calp0[k] = calp0;
+      double ssig1 = sbet1, csig1;
+      _somg1[k] = salp0 * sbet1;
+      csig1 = _comg1[k] = sbet1 != 0 || calp1 != 0 ? cbet1 * calp1 : 1;
+      GeoMath.norm(p, ssig1, csig1);
+      _ssig1[k] = p.first; _csig1[k] = p.second;
+      double k2 = GeoMath.sq(calp0) * ep2;
+      _eps[k] = k2 / (2 * (1 + Math.sqrt(1 + k2)) + k2);
+    }
+    // Stage 2: the series in LineInit
+    if (c1) {
+      _kernel.A1m1f(Geodesic.nA1_/2, Geodesic.A1m1coeff_, _eps, _A1m1, n);
+      _kernel.C1f(nC1_, Geodesic.C1coeff_, _eps, _C1a, n);
+      _kernel.SinCosSeries(true, _ssig1, _csig1, _C1a, nC1_ + 1, _B11, n);
+      for (int k = 0; k < n; ++k) {
+        double s = Math.sin(_B11[k]), c = Math.cos(_B11[k]);
+        // tau1 = sig1 + B11
+        _stau1[k] = _ssig1[k] * c + _csig1[k] * s;
+        _ctau1[k] = _csig1[k] * c - _ssig1[k] * s;
+      }
+    }
+    if (c1p)
+      _kernel.C1f(nC1p_, Geodesic.C1pcoeff_, _eps, _C1pa, n);
+    if (c3) {
+      _kernel.C3f(nC3_, g._C3x, _eps, _C3a, n);
+      _kernel.Polyval(Geodesic.nA3_ - 1, g._A3x, _eps, _A3c, n);
+      for (int k = 0; k < n; ++k)
+        _A3c[k] = -f * _salp0[k] * _A3c[k];
+      _kernel.SinCosSeries(true, _ssig1, _csig1, _C3a, nC3_, _B31, n);
+    }
+    // Stage 3: find sig12 in Position
+    if (arcmode) {
+      for (int k = 0; k < n; ++k) {
+        double a12 = a.a12[off + k];
+        _sig12[k] = Math.toRadians(a12);
+        GeoMath.sincosd(p, a12); _ssig12[k] = p.first; _csig12[k] = p.second;
+      }
+    } else {
+      // Use _ssig2, _csig2 to hold tau2 and _sig12 to hold tau12
+      for (int k = 0; k < n; ++k) {
+        double
+          tau12 = a.s12[off + k] / (b * (1 + _A1m1[k])),
+          s = Math.sin(tau12),
+          c = Math.cos(tau12);
+        _sig12[k] = tau12;
+        // tau2 = tau1 + tau12
+        _ssig2[k] = _stau1[k] * c + _ctau1[k] * s;
+        _csig2[k] = _ctau1[k] * c - _stau1[k] * s;
+      }
+      _kernel.SinCosSeries(true, _ssig2, _csig2, _C1pa, nC1p_ + 1, _y, n);
+      for (int k = 0; k < n; ++k) {
+        double B12 = - _y[k], sig12 = _sig12[k] - (B12 - _B11[k]);
+        _sig12[k] = sig12;
+        _ssig12[k] = Math.sin(sig12); _csig12[k] = Math.cos(sig12);
+      }
+    }
+    for (int k = 0; k < n; ++k) {
+      // sig2 = sig1 + sig12
+      _ssig2[k] = _ssig1[k] * _csig12[k] + _csig1[k] * _ssig12[k];
+      _csig2[k] = _csig1[k] * _csig12[k] - _ssig1[k] * _ssig12[k];
+    }
+    // Stage 4: the series in Position
+    if (distance && arcmode) {
+      _kernel.SinCosSeries(true, _ssig2, _csig2, _C1a, nC1_ + 1, _y, n);
+      for (int k = 0; k < n; ++k) {
+        double AB1 = (1 + _A1m1[k]) * (_y[k] - _B11[k]);
+        a.s12[off + k] = b * ((1 + _A1m1[k]) * _sig12[k] + AB1);
+      }
+    }
+    for (int k = 0; k < n; ++k) {
+      // Alt: cbet2 = Math.hypot(csig2, salp0 * ssig2);
+      double cbet2 = Math.hypot(_salp0[k], _calp0[k] * _csig2[k]);
+      if (cbet2 == 0)
+        // I.e., salp0 = 0, csig2 = 0.  Break the degeneracy in this case
+        cbet2 = _csig2[k] = Geodesic.tiny_;
+      _cbet2[k] = cbet2;
+    }
+    if (longitude)
+      _kernel.SinCosSeries(true, _ssig2, _csig2, _C3a, nC3_, _y, n);
+    // Stage 5: the rest of Position
+    for (int k = 0; k < n; ++k) {
+      int i = off + k;
+      double
+        ssig2 = _ssig2[k], csig2 = _csig2[k], sig12 = _sig12[k],
+        salp0 = _salp0[k], calp0 = _calp0[k], sbet2, cbet2 = _cbet2[k];
+      if (arc) a.a12[i] = Math.toDegrees(sig12);
+      // sin(bet2) = cos(alp0) * sin(sig2)
+      sbet2 = calp0 * ssig2;
+      if (longitude) {
+        // tan(omg2) = sin(alp0) * tan(sig2)
+        double somg2 = salp0 * ssig2, comg2 = csig2, // No need to normalize
+          E = Math.copySign(1, salp0);               // east or west going?
+        // omg12 = omg2 - omg1
+        double omg12 = unroll
+          ? E * (sig12
+                 - (Math.atan2(  ssig2, csig2) -
+                    Math.atan2(  _ssig1[k], _csig1[k]))
+                 + (Math.atan2(E*somg2, comg2) -
+                    Math.atan2(E*_somg1[k], _comg1[k])))
+          : Math.atan2(somg2 * _comg1[k] - comg2 * _somg1[k],
+                       comg2 * _comg1[k] + somg2 * _somg1[k]);
+        double lam12 = omg12 + _A3c[k] * ( sig12 + (_y[k] - _B31[k]));
+        double lon12 = Math.toDegrees(lam12);
+        a.lon2[i] = unroll ? _lon1[k] + lon12 :
+          GeoMath.AngNormalize(_lon1[k] + GeoMath.AngNormalize(lon12));
+      }
+      if (latitude)
+        a.lat2[i] = GeoMath.atan2d(sbet2, f1 * cbet2);
+      if (azimuth)
+        // tan(alp0) = cos(sig2)*tan(alp2)
+        a.azi2[i] = GeoMath.atan2d(salp0, calp0 * csig2);
+    }
+  }
+}
@@ -0,0 +1,415 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicCache class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of the solutions of inverse geodesic problems.
+ * <p>
+ * Applications such as routing frequently solve the inverse problem for the
+ * same pairs of points (depots, airports, etc.).  A GeodesicCache remembers
+ * the solutions of recent problems.  The points are first snapped to a grid
+ * of latitudes and longitudes with spacing given by the <i>resolution</i>
+ * (degrees) and the cache is keyed by the grid indices of the two points;
+ * the result is then the solution of the inverse problem between the snapped
+ * points (and lat1, lon1, lat2, lon2 in the result are the snapped
+ * coordinates, with the longitudes reduced to the range [&minus;180&deg;,
+ * 180&deg;]).  With the default resolution of 10<sup>&minus;7</sup>&deg;,
+ * the snapping moves a point by at most about 1 cm.  Longitudes which
+ * differ by a multiple of 360&deg; (e.g., &minus;180&deg; and 180&deg;) are
+ * snapped to the same grid point.
+ * <p>
+ * The problems from A to B and from B to A share the same entry; the
+ * solution for the reversed problem is obtained by swapping the end points,
+ * so that <i>azi1</i> and <i>azi2</i> are exchanged and reversed, <i>M12</i>
+ * and <i>M21</i> are exchanged, and the sign of <i>S12</i> is changed.  (The
+ * results for the reversed problem may differ from those of {@link
+ * Geodesic#Inverse(double, double, double, double, int) Geodesic.Inverse} by
+ * roundoff.)  All the quantities in {@link GeodesicMask#ALL} are computed
+ * when a problem is added to the cache, so that an entry can satisfy any
+ * request.  This includes the area <i>S12</i>, which requires an extra
+ * series to be summed; so a miss costs about 30% more than {@link
+ * Geodesic#Distance(double, double, double, double) Geodesic.Distance} even
+ * if only the distance is wanted (e.g., by {@link #Distance Distance}).  This
+ * is the right trade-off when the cache is effective, i.e., when most
+ * lookups are hits.  Problems with NaN coordinates bypass the cache.
+ * <p>
+ * The cache holds at most <i>capacity</i> entries and is divided into
+ * segments, each with its own lock, so that it can be used by several
+ * threads at once.  When a segment is full, its least recently used entry
+ * is evicted.  The keys and values are held in primitive arrays, so lookups
+ * allocate no memory.  The inverse problem for a miss is solved outside the
+ * lock; in rare cases, therefore, two threads may solve the same problem.
+ * The numbers of hits, misses, and evictions are counted.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicCache cache = new GeodesicCache(Geodesic.WGS84, 100000);
+ * GeodesicWorkspace w = new GeodesicWorkspace();
+ * GeodesicData g = new GeodesicData();
+ * for (Request q : requests) {
+ *   cache.Inverse(g, w, q.lat1, q.lon1, q.lat2, q.lon2);
+ *   System.out.println(g.s12 + " " + g.azi1);
+ * }
+ * System.out.println(cache.Hits() + " hits, " +
+ *                    cache.Misses() + " misses"); }</pre>
+ **********************************************************************/
+public class GeodesicCache {
+
+  /**
+   * The default resolution of the grid (degrees).
+   **********************************************************************/
+  public static final double DEFAULT_RESOLUTION = 1e-7;
+
+  // The number of values stored per entry: s12, a12, azi1, azi2, m12, M12,
+  // M21, S12
+  private static final int nvals_ = 8;
+  // The maximum number of segments
+  private static final int maxsegments_ = 16;
+
+  private final Geodesic _earth;
+  private final double _res;
+  // The number of grid points around a circle of latitude if 360 is a
+  // multiple of the resolution; otherwise 0.
+  private final long _nlon;
+  private final Segment _segments[];
+  private final int _segmask;
+  private final LongAdder _hits, _misses, _evictions;
+
+  // A segment of the cache.  The entries are numbered [0, cap); the hash
+  // table links entries with the same hash with _next, and the entries in
+  // use are kept in a doubly linked list in order of use (_lru is the least
+  // and _mru the most recently used).  -1 is the null link.
+  private static final class Segment {
+    final long _key1[], _key2[];
+    final double _vals[];
+    final int _head[], _next[], _older[], _newer[];
+    final int _cap;
+    int _size, _lru, _mru;
+
+    Segment(int cap) {
+      _cap = cap;
+      _key1 = new long[cap]; _key2 = new long[cap];
+      _vals = new double[nvals_ * cap];
+      int nbuckets = Integer.highestOneBit(2 * cap - 1) * 2;
+      _head = new int[nbuckets];
+      _next = new int[cap]; _older = new int[cap]; _newer = new int[cap];
+      Clear();
+    }
+
+    void Clear() {
+      java.util.Arrays.fill(_head, -1);
+      _size = 0; _lru = _mru = -1;
+    }
+
+    // Find the entry for a key; return -1 if it isn't present.
+    int Find(long k1, long k2, int h) {
+      for (int e = _head[h & (_head.length - 1)]; e >= 0; e = _next[e])
+        if (_key1[e] == k1 && _key2[e] == k2) return e;
+      return -1;
+    }
+
+    // Move entry e to the most recently used end of the list.
+    void Touch(int e) {
+      if (e == _mru) return;
+      Unlink(e);
+      Link(e);
+    }
+
+    private void Unlink(int e) {
+      int o = _older[e], n = _newer[e];
+      if (o >= 0) _newer[o] = n; else _lru = n;
+      if (n >= 0) _older[n] = o; else _mru = o;
+    }
+
+    private void Link(int e) {
+      _older[e] = _mru; _newer[e] = -1;
+      if (_mru >= 0) _newer[_mru] = e; else _lru = e;
+      _mru = e;
+    }
+
+    // Add an entry for a key (which isn't present); return its index and
+    // whether an entry was evicted (as the sign bit).
+    int Add(long k1, long k2, int h) {
+      int e, evicted = 0;
+      if (_size < _cap)
+        e = _size++;
+      else {
+        e = _lru;
+        Unlink(e);
+        // Remove e from its hash chain
+        int b = Hash(_key1[e], _key2[e]) & (_head.length - 1);
+        if (_head[b] == e)
+          _head[b] = _next[e];
+        else {
+          int f = _head[b];
+          while (_next[f] != e) f = _next[f];
+          _next[f] = _next[e];
+        }
+        evicted = Integer.MIN_VALUE;
+      }
+      _key1[e] = k1; _key2[e] = k2;
+      int b = h & (_head.length - 1);
+      _next[e] = _head[b]; _head[b] = e;
+      Link(e);
+      return e | evicted;
+    }
+  }
+
+  /**
+   * Constructor for a GeodesicCache with the default resolution.
+   * <p>
+   * @param earth the {@link Geodesic} object to use for the calculations.
+   * @param capacity the maximum number of entries in the cache.
+   * @exception GeographicErr if <i>earth</i> is null or if <i>capacity</i>
+   *   is not positive.
+   **********************************************************************/
+  public GeodesicCache(Geodesic earth, int capacity) {
+    this(earth, capacity, DEFAULT_RESOLUTION);
+  }
+
+  /**
+   * Constructor for a GeodesicCache.
+   * <p>
+   * @param earth the {@link Geodesic} object to use for the calculations.
+   * @param capacity the maximum number of entries in the cache.
+   * @param resolution the spacing of the grid to which the points are
+   *   snapped (degrees).
+   * @exception GeographicErr if <i>earth</i> is null, if <i>capacity</i> is
+   *   not positive, or if <i>resolution</i> is not in [10<sup>&minus;7</sup>,
+   *   90].
+   * <p>
+   * The lower limit on <i>resolution</i> allows the grid indices of a point
+   * to be packed into a long.  The capacity is divided evenly between the
+   * segments, so the actual capacity, given by {@link #Capacity Capacity},
+   * may be slightly larger.
+   **********************************************************************/
+  public GeodesicCache(Geodesic earth, int capacity, double resolution) {
+    if (earth == null)
+      throw new GeographicErr("Geodesic object is missing");
+    if (!(capacity > 0))
+      throw new GeographicErr("Capacity is not positive");
+    if (!(resolution >= 1e-7 && resolution <= 90))
+      throw new GeographicErr("Resolution must be in [1e-7, 90]");
+    _earth = earth;
+    _res = resolution;
+    double n = 360 / resolution;
+    _nlon = n == Math.rint(n) ? (long)n : 0;
+    // Use fewer segments for small caches so that the LRU order is nearly
+    // global; aim for at least 64 entries in each segment.
+    int nseg = Math.max(1, Math.min(maxsegments_,
+                                    Integer.highestOneBit(capacity / 64)));
+    int cap = (capacity + nseg - 1) / nseg;
+    _segments = new Segment[nseg];
+    for (int i = 0; i < nseg; ++i) _segments[i] = new Segment(cap);
+    _segmask = nseg - 1;
+    _hits = new LongAdder(); _misses = new LongAdder();
+    _evictions = new LongAdder();
+  }
+
+  /**
+   * Solve the inverse geodesic problem using the cache.
+   * <p>
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @return a {@link GeodesicData} object with all the results of the
+   *   inverse problem between the snapped points.
+   **********************************************************************/
+  public GeodesicData Inverse(double lat1, double lon1,
+                              double lat2, double lon2) {
+    GeodesicData r = new GeodesicData();
+    Inverse(r, GeodesicWorkspace.Local(), lat1, lon1, lat2, lon2);
+    return r;
+  }
+
+  /**
+   * Solve the inverse geodesic problem using the cache, storing the results
+   * in a supplied object.
+   * <p>
+   * @param r a {@link GeodesicData} object which receives the results of the
+   *   inverse problem between the snapped points.
+   * @param w a {@link GeodesicWorkspace} object providing the scratch storage
+   *   for the calculation in the case of a miss.
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * <p>
+   * No memory is allocated; however <i>w</i> must not be used by another
+   * thread at the same time.
+   **********************************************************************/
+  public void Inverse(GeodesicData r, GeodesicWorkspace w,
+                      double lat1, double lon1, double lat2, double lon2) {
+    lat1 = GeoMath.LatFix(lat1); lat2 = GeoMath.LatFix(lat2);
+    lon1 = GeoMath.AngNormalize(lon1); lon2 = GeoMath.AngNormalize(lon2);
+    if (Double.isNaN(lat1 + lon1 + lat2 + lon2)) {
+      _earth.Inverse(r, w, lat1, lon1, lat2, lon2, GeodesicMask.ALL);
+      return;
+    }
+    long
+      p1 = Pack(Math.round(lat1 / _res), LonIndex(lon1)),
+      p2 = Pack(Math.round(lat2 / _res), LonIndex(lon2));
+    // The entry is for the problem with the points in order of their keys
+    boolean swap = p1 > p2;
+    long k1 = swap ? p2 : p1, k2 = swap ? p1 : p2;
+    int h = Hash(k1, k2);
+    Segment s = _segments[(h >>> 24) & _segmask];
+    int e;
+    synchronized (s) {
+      e = s.Find(k1, k2, h);
+      if (e >= 0) {
+        s.Touch(e);
+        Fill(r, s._vals, nvals_ * e, swap);
+      }
+    }
+    if (e >= 0)
+      _hits.increment();
+    else {
+      _misses.increment();
+      _earth.Inverse(r, w, Lat(k1), Lon(k1), Lat(k2), Lon(k2),
+                     GeodesicMask.ALL);
+      double v0 = r.s12, v1 = r.a12, v2 = r.azi1, v3 = r.azi2, v4 = r.m12,
+        v5 = r.M12, v6 = r.M21, v7 = r.S12;
+      synchronized (s) {
+        // Another thread may have added the entry in the meantime
+        if (s.Find(k1, k2, h) < 0) {
+          e = s.Add(k1, k2, h);
+          if (e < 0) {
+            e &= Integer.MAX_VALUE;
+            _evictions.increment();
+          }
+          int o = nvals_ * e;
+          double v[] = s._vals;
+          v[o] = v0; v[o+1] = v1; v[o+2] = v2; v[o+3] = v3;
+          v[o+4] = v4; v[o+5] = v5; v[o+6] = v6; v[o+7] = v7;
+        }
+      }
+      if (swap) Reverse(r);
+    }
+    r.lat1 = Lat(p1); r.lon1 = Lon(p1);
+    r.lat2 = Lat(p2); r.lon2 = Lon(p2);
+  }
+
+  /**
+   * Compute the distance between two points using the cache.
+   * <p>
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @return <i>s12</i> the distance between the snapped points (meters).
+   **********************************************************************/
+  public double Distance(double lat1, double lon1, double lat2, double lon2) {
+    GeodesicWorkspace w = GeodesicWorkspace.Local();
+    GeodesicData r = w.g;
+    Inverse(r, w, lat1, lon1, lat2, lon2);
+    return r.s12;
+  }
+
+  /**
+   * Remove all the entries from the cache.  The counts are not reset.
+   **********************************************************************/
+  public void Clear() {
+    for (Segment s : _segments)
+      synchronized (s) { s.Clear(); }
+  }
+
+  /**
+   * Reset the counts of hits, misses, and evictions to zero.
+   **********************************************************************/
+  public void Reset() {
+    _hits.reset(); _misses.reset(); _evictions.reset();
+  }
+
+  /**
+   * @return the number of lookups satisfied by the cache.
+   **********************************************************************/
+  public long Hits() { return _hits.sum(); }
+
+  /**
+   * @return the number of lookups which required the solution of the inverse
+   *   problem.
+   **********************************************************************/
+  public long Misses() { return _misses.sum(); }
+
+  /**
+   * @return the number of entries evicted to make room for new entries.
+   **********************************************************************/
+  public long Evictions() { return _evictions.sum(); }
+
+  /**
+   * @return the number of entries in the cache.
+   **********************************************************************/
+  public int Size() {
+    int n = 0;
+    for (Segment s : _segments)
+      synchronized (s) { n += s._size; }
+    return n;
+  }
+
+  /**
+   * @return the maximum number of entries in the cache.
+   **********************************************************************/
+  public int Capacity() { return _segments.length * _segments[0]._cap; }
+
+  /**
+   * @return the resolution of the grid (degrees).
+   **********************************************************************/
+  public double Resolution() { return _res; }
+
+  // Copy the values at offset o of v into r, reversing the problem if swap.
+  private static void Fill(GeodesicData r, double v[], int o, boolean swap) {
+    r.s12 = v[o]; r.a12 = v[o+1]; r.azi1 = v[o+2]; r.azi2 = v[o+3];
+    r.m12 = v[o+4]; r.M12 = v[o+5]; r.M21 = v[o+6]; r.S12 = v[o+7];
+    if (swap) Reverse(r);
+  }
+
+  // Convert the results for the problem from point 1 to point 2 to those for
+  // the problem from point 2 to point 1.
+  private static void Reverse(GeodesicData r) {
+    double t = r.azi1;
+    r.azi1 = GeoMath.AngNormalize(r.azi2 + 180);
+    r.azi2 = GeoMath.AngNormalize(t + 180);
+    t = r.M12; r.M12 = r.M21; r.M21 = t;
+    r.S12 = 0 - r.S12;
+  }
+
+  // Pack the grid indices of a point into a long.  The indices fit into 32
+  // bits because the resolution is at least 1e-7.
+  private static long Pack(long ilat, long ilon) {
+    return (ilat << 32) | (ilon & 0xffffffffL);
+  }
+
+  private double Lat(long p) {
+    // The grid may not include the poles
+    return Math.max(-90, Math.min(90, (p >> 32) * _res));
+  }
+  private double Lon(long p) { return GeoMath.AngNormalize((int)p * _res); }
+
+  // The grid index for a longitude in [-180, 180].  This treats 180 as -180
+  // and, if the grid wraps around the circle of latitude, reduces the index
+  // to [-nlon/2, nlon/2), so that each meridian has a single index.
+  private long LonIndex(double lon) {
+    long i = Math.round((lon == 180 ? -180 : lon) / _res);
+    if (_nlon != 0 && 2 * i >= _nlon) i -= _nlon;
+    return i;
+  }
+
+  // Hash a key; the top bits select the segment and the bottom bits the
+  // bucket.
+  static int Hash(long k1, long k2) {
+    long h = k1 * 0x9e3779b97f4a7c15L + k2;
+    h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+    h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return (int)(h ^ (h >>> 33));
+  }
+}
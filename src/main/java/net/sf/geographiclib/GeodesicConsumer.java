@@ -0,0 +1,40 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicConsumer interface
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * A receiver for a sequence of geodesic results.
+ * <p>
+ * This is used by the routines which generate many results, e.g., {@link
+ * GeodesicLine#Waypoints(boolean, double, double, int, int, GeodesicConsumer)
+ * GeodesicLine.Waypoints}, to pass each result as primitive values instead
+ * of allocating a {@link GeodesicData} for each one.  Results which were not
+ * requested are passed as Double.NaN.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * final double lat[] = new double[n], lon[] = new double[n];
+ * line.Waypoints(false, 0, ds, n,
+ *                GeodesicMask.LATITUDE | GeodesicMask.LONGITUDE,
+ *                (i, lat2, lon2, azi2, s12) -> {
+ *                  lat[i] = lat2; lon[i] = lon2;
+ *                });}</pre>
+ **********************************************************************/
+public interface GeodesicConsumer {
+  /**
+   * Receive a result.
+   * <p>
+   * @param i the index of the result.
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @param azi2 (forward) azimuth at point 2 (degrees).
+   * @param s12 distance from point 1 to point 2 (meters).
+   **********************************************************************/
+  void Accept(int i, double lat2, double lon2, double azi2, double s12);
+}
@@ -72,7 +72,21 @@ public class GeodesicData {
    * Initialize all the fields to Double.NaN.
    **********************************************************************/
   public GeodesicData() {
+    Clear();
+  }
+
+  // Reset all the fields to Double.NaN (so that the object can be reused).
+  void Clear() {
     lat1 = lon1 = azi1 = lat2 = lon2 = azi2 =
       s12 = a12 = m12 = M12 = M21 = S12 = Double.NaN;
   }
+  // Pass lat2, lon2, azi2, s12 to c.  Quantities not included in outmask
+  // are passed as Double.NaN.
+  void Send(GeodesicConsumer c, int i, int outmask) {
+    c.Accept(i,
+             (outmask & GeodesicMask.LATITUDE) != 0 ? lat2 : Double.NaN,
+             (outmask & GeodesicMask.LONGITUDE) != 0 ? lon2 : Double.NaN,
+             (outmask & GeodesicMask.AZIMUTH) != 0 ? azi2 : Double.NaN,
+             (outmask & GeodesicMask.DISTANCE) != 0 ? s12 : Double.NaN);
+  }
 }
@@ -0,0 +1,177 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicFloatArrays class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * The inputs and results of a batch of geodesic calculations held in single
+ * precision.
+ * <p>
+ * This is the same as {@link GeodesicArrays} except that the columns are
+ * float[] instead of double[], which halves the memory (and the memory
+ * bandwidth) needed for large batches.  It is used by the batch routines
+ * {@link Geodesic#Inverse(GeodesicFloatArrays, int, int, int)
+ * Geodesic.Inverse} and {@link Geodesic#Direct(GeodesicFloatArrays, int, int,
+ * boolean, int) Geodesic.Direct}, which read and write the arrays in the same
+ * way as the corresponding routines for GeodesicArrays.
+ * <p>
+ * The calculations are carried out in double precision, a block at a time,
+ * starting with the float inputs (which are exactly representable as
+ * doubles).  So the only additional error is that incurred in rounding the
+ * results to float, i.e., a relative error of at most
+ * 2<sup>&minus;24</sup> = 6 &times; 10<sup>&minus;8</sup>.  For example, the
+ * error in <i>s12</i> is at most 1.2 m for a distance of 20000 km, and the
+ * error in <i>lon2</i> is at most 7.7 &times; 10<sup>&minus;6</sup>&deg;
+ * (about 0.85 m on the earth).  The inputs, of course, are only given to
+ * this precision.  In particular, the difference in the longitudes of two
+ * points with longitudes near &plusmn;180&deg; is only given to about 1 m;
+ * for this reason, the coordinates of nearby points should be given
+ * relative to a nearby origin if sub-meter accuracy is required.  The
+ * double-precision routines should be used if the full accuracy of the
+ * geodesic calculations is needed.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicFloatArrays g = new GeodesicFloatArrays();
+ * g.lat1 = lat1; g.lon1 = lon1; g.lat2 = lat2; g.lon2 = lon2;
+ * g.s12 = new float[n];
+ * Geodesic.WGS84.Inverse(g, 0, n, GeodesicMask.DISTANCE); }</pre>
+ **********************************************************************/
+public class GeodesicFloatArrays {
+  /**
+   * latitudes of point 1 (degrees).
+   **********************************************************************/
+  public float lat1[];
+  /**
+   * longitudes of point 1 (degrees).
+   **********************************************************************/
+  public float lon1[];
+  /**
+   * azimuths at point 1 (degrees).
+   **********************************************************************/
+  public float azi1[];
+  /**
+   * latitudes of point 2 (degrees).
+   **********************************************************************/
+  public float lat2[];
+  /**
+   * longitudes of point 2 (degrees).
+   **********************************************************************/
+  public float lon2[];
+  /**
+   * azimuths at point 2 (degrees).
+   **********************************************************************/
+  public float azi2[];
+  /**
+   * distances between point 1 and point 2 (meters).
+   **********************************************************************/
+  public float s12[];
+  /**
+   * arc lengths on the auxiliary sphere between point 1 and point 2
+   *   (degrees).
+   **********************************************************************/
+  public float a12[];
+  /**
+   * reduced lengths of geodesics (meters).
+   **********************************************************************/
+  public float m12[];
+  /**
+   * geodesic scales of point 2 relative to point 1 (dimensionless).
+   **********************************************************************/
+  public float M12[];
+  /**
+   * geodesic scales of point 1 relative to point 2 (dimensionless).
+   **********************************************************************/
+  public float M21[];
+  /**
+   * areas under the geodesics (meters<sup>2</sup>).
+   **********************************************************************/
+  public float S12[];
+  /**
+   * Constructor with all the arrays set to null.
+   **********************************************************************/
+  public GeodesicFloatArrays() {}
+
+  // The number of geodesics converted to double at a time
+  static final int BLOCK = GeodesicBlock.BLOCK;
+
+  // Check that the column x can hold elements [off, off + len).
+  static void Check(float x[], String name, int off, int len) {
+    if (x == null)
+      throw new GeographicErr("Array " + name + " is missing");
+    if (!(off >= 0 && len >= 0 && off <= x.length - len))
+      throw new GeographicErr("Array " + name + " is too short");
+  }
+
+  // Check the inputs and outputs for the inverse problem.
+  void CheckInverse(int off, int len, int outmask) {
+    Check(lat1, "lat1", off, len); Check(lon1, "lon1", off, len);
+    Check(lat2, "lat2", off, len); Check(lon2, "lon2", off, len);
+    if ((outmask & GeodesicMask.AZIMUTH) != 0)
+      Check(azi1, "azi1", off, len);
+    CheckOut(off, len, outmask & ~(GeodesicMask.LATITUDE |
+                                   GeodesicMask.LONGITUDE));
+  }
+
+  // Check the inputs and outputs for the direct problem.
+  void CheckDirect(int off, int len, boolean arcmode, int outmask) {
+    Check(lat1, "lat1", off, len); Check(lon1, "lon1", off, len);
+    Check(azi1, "azi1", off, len);
+    if (arcmode)
+      Check(a12, "a12", off, len);
+    else
+      Check(s12, "s12", off, len);
+    CheckOut(off, len, outmask);
+  }
+
+  // Check the arrays for the quantities selected by outmask.
+  void CheckOut(int off, int len, int outmask) {
+    if ((outmask & GeodesicMask.LATITUDE) != 0)
+      Check(lat2, "lat2", off, len);
+    if ((outmask & GeodesicMask.LONGITUDE) != 0)
+      Check(lon2, "lon2", off, len);
+    if ((outmask & GeodesicMask.AZIMUTH) != 0)
+      Check(azi2, "azi2", off, len);
+    if ((outmask & GeodesicMask.DISTANCE) != 0)
+      Check(s12, "s12", off, len);
+    if ((outmask & GeodesicMask.REDUCEDLENGTH) != 0)
+      Check(m12, "m12", off, len);
+    if ((outmask & GeodesicMask.GEODESICSCALE) != 0) {
+      Check(M12, "M12", off, len); Check(M21, "M21", off, len);
+    }
+    if ((outmask & GeodesicMask.AREA) != 0)
+      Check(S12, "S12", off, len);
+    if (a12 != null)
+      Check(a12, "a12", off, len);
+  }
+
+  // A GeodesicArrays object with columns of length BLOCK in the places where
+  // this object has columns.
+  GeodesicArrays Scratch() {
+    GeodesicArrays d = new GeodesicArrays();
+    d.lat1 = Column(lat1); d.lon1 = Column(lon1); d.azi1 = Column(azi1);
+    d.lat2 = Column(lat2); d.lon2 = Column(lon2); d.azi2 = Column(azi2);
+    d.s12 = Column(s12); d.a12 = Column(a12); d.m12 = Column(m12);
+    d.M12 = Column(M12); d.M21 = Column(M21); d.S12 = Column(S12);
+    return d;
+  }
+
+  private static double[] Column(float x[]) {
+    return x == null ? null : new double[BLOCK];
+  }
+
+  // Copy elements [off, off + n) of x to elements [0, n) of y.
+  static void Load(float x[], int off, double y[], int n) {
+    for (int k = 0; k < n; ++k) y[k] = x[off + k];
+  }
+
+  // Copy elements [0, n) of y to elements [off, off + n) of x.
+  static void Store(double y[], float x[], int off, int n) {
+    for (int k = 0; k < n; ++k) x[off + k] = (float)y[k];
+  }
+}
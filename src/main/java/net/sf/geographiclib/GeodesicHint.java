@@ -0,0 +1,131 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicHint class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * A warm start for a sequence of related inverse geodesic problems.
+ * <p>
+ * In the general case, the inverse problem is solved by Newton's method
+ * starting from an estimate of the azimuth at point 1 computed by
+ * approximating the ellipsoid by a sphere.  If a sequence of inverse problems
+ * differ only slightly, e.g., the distance and bearing from a moving vehicle
+ * to a fixed target, the azimuths from the previous solution are a better
+ * starting point.  A GeodesicHint holds these azimuths; pass it to {@link
+ * Geodesic#Inverse(GeodesicData, GeodesicWorkspace, GeodesicHint, double,
+ * double, double, double, int) Geodesic.Inverse} which uses it to start
+ * Newton's method and then updates it with the new solution.
+ * <p>
+ * The starting point only affects the number of iterations.  The iteration
+ * is terminated with the same test as before, so the results have the same
+ * accuracy as those from {@link Geodesic#Inverse(double, double, double,
+ * double, int) Geodesic.Inverse}; however they may differ from these in the
+ * last bit.  A poor hint (e.g., for an unrelated inverse problem) does no
+ * harm beyond possibly increasing the number of iterations.
+ * <p>
+ * The hint keeps count of the number of iterations of Newton's method.  If
+ * it is constructed with <i>compare</i> = true, each problem is also solved
+ * without the hint in order to count the number of iterations saved; this
+ * doubles the cost and is intended for assessing the benefit of the warm
+ * start.  A GeodesicHint holds mutable state and so must not be used by more
+ * than one thread at a time.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicHint hint = new GeodesicHint();
+ * GeodesicWorkspace w = new GeodesicWorkspace();
+ * GeodesicData g = new GeodesicData();
+ * while (tracking) {
+ *   ... // update lat, lon for the vehicle
+ *   Geodesic.WGS84.Inverse(g, w, hint, lat, lon, lat0, lon0,
+ *                          GeodesicMask.DISTANCE | GeodesicMask.AZIMUTH);
+ *   System.out.println(g.s12 + " " + g.azi1);
+ * }}</pre>
+ **********************************************************************/
+public class GeodesicHint {
+  // The azimuths at the end points of the previous solution
+  double salp1, calp1, salp2, calp2;
+  private final boolean _compare;
+  private long _calls, _iterations, _saved;
+
+  /**
+   * Constructor for a GeodesicHint which doesn't count the iterations saved.
+   **********************************************************************/
+  public GeodesicHint() { this(false); }
+
+  /**
+   * Constructor for a GeodesicHint.
+   * <p>
+   * @param compare if true, solve each problem without the hint too in order
+   *   to count the number of iterations saved.
+   **********************************************************************/
+  public GeodesicHint(boolean compare) {
+    _compare = compare;
+    Clear();
+  }
+
+  /**
+   * Set the azimuths of the hint.
+   * <p>
+   * @param azi1 azimuth at point 1 (degrees).
+   * @param azi2 azimuth at point 2 (degrees).
+   * <p>
+   * This is only needed to supply a hint for the first problem in a sequence
+   * (otherwise this is done by Geodesic.Inverse).  If only <i>azi1</i> is
+   * known, <i>azi2</i> = <i>azi1</i> is a reasonable estimate for short
+   * geodesics.
+   **********************************************************************/
+  public void Set(double azi1, double azi2) {
+    Pair p = new Pair();
+    GeoMath.sincosd(p, azi1); salp1 = p.first; calp1 = p.second;
+    GeoMath.sincosd(p, azi2); salp2 = p.first; calp2 = p.second;
+  }
+
+  /**
+   * Clear the hint, so that the next problem is solved without a warm start.
+   * The counts are not reset.
+   **********************************************************************/
+  public void Clear() {
+    salp1 = calp1 = salp2 = calp2 = Double.NaN;
+  }
+
+  /**
+   * Reset the counts to zero.
+   **********************************************************************/
+  public void Reset() { _calls = _iterations = _saved = 0; }
+
+  // Record the solution (the azimuths are in w) for use as the next hint.
+  void Update(GeodesicWorkspace w, int numit, int coldnumit) {
+    salp1 = w.salp1; calp1 = w.calp1;
+    salp2 = w.salp2; calp2 = w.calp2;
+    ++_calls;
+    _iterations += numit;
+    if (_compare) _saved += coldnumit - numit;
+  }
+
+  boolean Compare() { return _compare; }
+
+  /**
+   * @return the number of inverse problems solved with this hint.
+   **********************************************************************/
+  public long Calls() { return _calls; }
+
+  /**
+   * @return the total number of iterations of Newton's method (including any
+   *   bisections) for these problems.
+   **********************************************************************/
+  public long Iterations() { return _iterations; }
+
+  /**
+   * @return the number of iterations saved by the warm start, i.e., the
+   *   number of iterations without the hint minus those with the hint (this
+   *   may be negative if the hint was poor).  This is zero if the hint was
+   *   constructed with <i>compare</i> = false.
+   **********************************************************************/
+  public long Saved() { return _saved; }
+}
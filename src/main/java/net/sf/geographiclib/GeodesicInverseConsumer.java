@@ -0,0 +1,39 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicInverseConsumer
+ * interface
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * A receiver for the results of inverse geodesic problems.
+ * <p>
+ * This is the counterpart of {@link GeodesicConsumer} for the inverse
+ * problem.  It is used by {@link Geodesic#Inverse(GeodesicInverseConsumer,
+ * int, GeodesicWorkspace, double, double, double, double, int)
+ * Geodesic.Inverse} and {@link Geodesic#Inverse(GeodesicArrays, int, int,
+ * int, GeodesicInverseConsumer) its batch version} to pass the results as
+ * primitive values instead of in a {@link GeodesicData}.  Results which
+ * were not requested are passed as Double.NaN.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * final float s12[] = new float[n];
+ * Geodesic.WGS84.Inverse(g, 0, n, GeodesicMask.DISTANCE,
+ *                        (i, azi1, azi2, s) -> { s12[i] = (float)s; });}</pre>
+ **********************************************************************/
+public interface GeodesicInverseConsumer {
+  /**
+   * Receive a result.
+   * <p>
+   * @param i the index of the result.
+   * @param azi1 azimuth at point 1 (degrees).
+   * @param azi2 (forward) azimuth at point 2 (degrees).
+   * @param s12 distance from point 1 to point 2 (meters).
+   **********************************************************************/
+  void Accept(int i, double azi1, double azi2, double s12);
+}
@@ -0,0 +1,108 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicKernel class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * The series evaluations for a block of geodesics.
+ * <p>
+ * Each routine here carries out one of the series evaluations of {@link
+ * Geodesic} (the polynomials in &epsilon; giving the coefficients A1, C1,
+ * etc., and the Clenshaw summation of SinCosSeries) for <i>n</i> geodesics at
+ * once.  The quantities for geodesic <i>k</i> are stored in element <i>k</i>
+ * of the arrays; the <i>l</i>th coefficient in a Fourier series for geodesic
+ * <i>k</i> is stored in element <i>l</i> &times; <i>n</i> + <i>k</i>.  The
+ * operations for each geodesic are carried out in exactly the same order as
+ * in the scalar routines of Geodesic, so the results are identical.
+ * <p>
+ * This class gives a straightforward implementation; on JDK 17 and later, the
+ * multi-release jar supplies a subclass which uses the incubating vector API
+ * to advance several geodesics in lockstep.  This is used if the module
+ * jdk.incubator.vector is available (e.g., with the java option --add-modules
+ * jdk.incubator.vector) and the system property
+ * geographiclib.vector is not set to false.
+ **********************************************************************/
+class GeodesicKernel {
+
+  // The kernel used by GeodesicBlock.
+  static final GeodesicKernel kernel_ = VectorSupport.Kernel();
+
+  GeodesicKernel() {}
+
+  // A short name for the implementation.
+  String Name() { return "scalar"; }
+
+  // y[k] = polyval(m, coeff, 0, x[k])
+  void Polyval(int m, double coeff[], double x[], double y[], int n) {
+    for (int k = 0; k < n; ++k)
+      y[k] = GeoMath.polyval(m, coeff, 0, x[k]);
+  }
+
+  // y[k] = A1m1f(eps[k]) using the coefficients coeff (A1m1coeff_) with a
+  // polynomial of order m in eps^2.
+  void A1m1f(int m, double coeff[], double eps[], double y[], int n) {
+    for (int k = 0; k < n; ++k) {
+      double e = eps[k],
+        t = GeoMath.polyval(m, coeff, 0, GeoMath.sq(e)) / coeff[m + 1];
+      y[k] = (t + e) / (1 - e);
+    }
+  }
+
+  // The coefficients c[l] for l in [1, nc] of a series whose coefficients
+  // are given by eps^l times a polynomial in eps^2 divided by a constant.
+  // This is the pattern for C1f, C1pf, and C2f.
+  void C1f(int nc, double coeff[], double eps[], double c[], int n) {
+    for (int k = 0; k < n; ++k) {
+      double e = eps[k], eps2 = GeoMath.sq(e), d = e;
+      int o = 0;
+      for (int l = 1; l <= nc; ++l) {
+        int m = (nc - l) / 2;
+        c[l * n + k] = d * GeoMath.polyval(m, coeff, o, eps2) / coeff[o + m + 1];
+        o += m + 2;
+        d *= e;
+      }
+    }
+  }
+
+  // The coefficients c[l] for l in [1, nc) of a series whose coefficients
+  // are given by eps^l times a polynomial in eps.  This is the pattern for
+  // C3f.
+  void C3f(int nc, double coeff[], double eps[], double c[], int n) {
+    for (int k = 0; k < n; ++k) {
+      double e = eps[k], mult = 1;
+      int o = 0;
+      for (int l = 1; l < nc; ++l) {
+        int m = nc - l - 1;
+        mult *= e;
+        c[l * n + k] = mult * GeoMath.polyval(m, coeff, o, e);
+        o += m + 1;
+      }
+    }
+  }
+
+  // y[k] = SinCosSeries(sinp, sinx[k], cosx[k], c_k) where c_k is the array
+  // of length len whose lth element is c[l * n + k].
+  void SinCosSeries(boolean sinp, double sinx[], double cosx[],
+                    double c[], int len, double y[], int n) {
+    for (int k = 0; k < n; ++k) {
+      int
+        j = len,                // Point to one beyond last element
+        nn = j - (sinp ? 1 : 0);
+      double s = sinx[k], t = cosx[k],
+        ar = 2 * (t - s) * (t + s), // 2 * cos(2 * x)
+        y0 = (nn & 1) != 0 ? c[--j * n + k] : 0, y1 = 0;
+      nn /= 2;
+      while (nn-- != 0) {
+        y1 = ar * y0 - y1 + c[--j * n + k];
+        y0 = ar * y1 - y0 + c[--j * n + k];
+      }
+      y[k] = sinp
+        ? 2 * s * t * y0    // sin(2 * x) * y0
+        : t * (y0 - y1);    // cos(x) * (y0 - y1)
+    }
+  }
+}
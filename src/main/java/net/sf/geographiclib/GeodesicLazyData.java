@@ -0,0 +1,252 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicLazyData class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * The results of a geodesic calculation with the optional quantities computed
+ * on demand.
+ * <p>
+ * This is returned by {@link Geodesic#InverseLazy Geodesic.InverseLazy},
+ * {@link Geodesic#DirectLazy Geodesic.DirectLazy}, and {@link
+ * Geodesic#ArcDirectLazy Geodesic.ArcDirectLazy}.  These solve the geodesic
+ * problem for the "standard" quantities, {@link GeodesicMask#STANDARD}, which
+ * are stored in the public fields of this object.  The reduced length
+ * <i>m12</i>, the geodesic scales <i>M12</i> and <i>M21</i>, and the area
+ * <i>S12</i> are only computed when they are first requested with {@link
+ * #m12()}, {@link #M12()}, {@link #M21()}, or {@link #S12()}.  This allows
+ * code which might need these quantities to avoid the cost of computing them
+ * (i.e., summing the <i>C</i><sub>2</sub> and <i>C</i><sub>4</sub> series)
+ * when they turn out not to be needed.
+ * <p>
+ * The state kept for this is small: the parameter &epsilon; for the series,
+ * the arc lengths &sigma;<sub>1</sub> and &sigma;<sub>2</sub> on the
+ * auxiliary sphere (measured from the equator crossing), and the azimuth
+ * &alpha;<sub>0</sub> at the equator crossing.  From these, the deferred
+ * quantities are computed in the same way as by {@link GeodesicLine}.  So
+ * their values agree with those returned by {@link Geodesic#Direct(double,
+ * double, double, double, int) Geodesic.Direct} and {@link
+ * Geodesic#Inverse(double, double, double, double, int) Geodesic.Inverse}
+ * with <i>outmask</i> = {@link GeodesicMask#ALL} to within roundoff (and they
+ * have the same accuracy).  The other fields have identical values.
+ * <p>
+ * A GeodesicLazyData object should not be shared between threads without
+ * synchronization, since the deferred quantities are stored on their first
+ * evaluation.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicLazyData g = Geodesic.WGS84.InverseLazy(lat1, lon1, lat2, lon2);
+ * double s12 = g.s12;
+ * if (s12 > 1000e3)
+ *   System.out.println(g.S12()); // the C4 series is summed only here }</pre>
+ **********************************************************************/
+public class GeodesicLazyData {
+  /**
+   * latitude of point 1 (degrees).
+   **********************************************************************/
+  public final double lat1;
+  /**
+   * longitude of point 1 (degrees).
+   **********************************************************************/
+  public final double lon1;
+  /**
+   * azimuth at point 1 (degrees).
+   **********************************************************************/
+  public final double azi1;
+  /**
+   * latitude of point 2 (degrees).
+   **********************************************************************/
+  public final double lat2;
+  /**
+   * longitude of point 2 (degrees).
+   **********************************************************************/
+  public final double lon2;
+  /**
+   * azimuth at point 2 (degrees).
+   **********************************************************************/
+  public final double azi2;
+  /**
+   * distance between point 1 and point 2 (meters).
+   **********************************************************************/
+  public final double s12;
+  /**
+   * arc length on the auxiliary sphere between point 1 and point 2
+   *   (degrees).
+   **********************************************************************/
+  public final double a12;
+
+  private final Geodesic _g;
+  // The state for the deferred quantities: eps, sig1, sig2, sig12 = sig2 -
+  // sig1, alp0, alp1, and alp2.
+  private final double _eps, _ssig1, _csig1, _ssig2, _csig2,
+    _sig12, _ssig12, _csig12, _salp0, _calp0, _salp1, _calp1, _salp2, _calp2;
+  // Whether to find alp12 as alp2 - alp1 in the area calculation
+  private final boolean _alpdiff;
+  // The deferred quantities; NaN until evaluated
+  private double _m12, _M12, _M21, _S12;
+  private boolean _lengths, _area;
+
+  // Set the state given the standard results r and the sine and cosine of
+  // azi1 (as computed by Geodesic.InverseInt or GeodesicLine.LineInit) and
+  // azi2.  If salp2 is NaN, alp2 is found from alp0 and sig2 as in
+  // GeodesicLine.Position.  This is used for the direct problem; the inverse
+  // problem supplies alp2 and, like Geodesic.InverseInt, uses alp12 = alp2 -
+  // alp1 for the area if an end point is at a pole (the geodesic is then a
+  // meridian) or if the geodesic is long (the formula in
+  // GeodesicLine.Position is then less accurate if point 2 is close to a
+  // pole).  p is scratch space.
+  GeodesicLazyData(Geodesic g, GeodesicData r,
+                   double salp1, double calp1, double salp2, double calp2,
+                   Pair p) {
+    lat1 = r.lat1; lon1 = r.lon1; azi1 = r.azi1;
+    lat2 = r.lat2; lon2 = r.lon2; azi2 = r.azi2;
+    s12 = r.s12; a12 = r.a12;
+    _g = g;
+    _salp1 = salp1; _calp1 = calp1;
+    // The following follows GeodesicLine.LineInit.
+    double sbet1, cbet1;
+    GeoMath.sincosd(p, GeoMath.AngRound(GeoMath.LatFix(lat1)));
+    sbet1 = g._f1 * p.first; cbet1 = p.second;
+    GeoMath.norm(p, sbet1, cbet1);
+    sbet1 = p.first; cbet1 = Math.max(Geodesic.tiny_, p.second);
+    _salp0 = salp1 * cbet1;
+    _calp0 = Math.hypot(calp1, salp1 * sbet1);
+    GeoMath.norm(p, sbet1, sbet1 != 0 || calp1 != 0 ? cbet1 * calp1 : 1);
+    _ssig1 = p.first; _csig1 = p.second;
+    double k2 = GeoMath.sq(_calp0) * g._ep2;
+    _eps = k2 / (2 * (1 + Math.sqrt(1 + k2)) + k2);
+    // And this follows GeodesicLine.Position with arcmode = true.
+    _sig12 = Math.toRadians(a12);
+    GeoMath.sincosd(p, a12); _ssig12 = p.first; _csig12 = p.second;
+    _ssig2 = _ssig1 * _csig12 + _csig1 * _ssig12;
+    _csig2 = _csig1 * _csig12 - _ssig1 * _ssig12;
+    if (Double.isNaN(salp2)) {
+      // No need to normalize
+      _salp2 = _salp0; _calp2 = _calp0 * _csig2;
+      _alpdiff = _calp0 == 0 || _salp0 == 0;
+    } else {
+      _salp2 = salp2; _calp2 = calp2;
+      _alpdiff = _calp0 == 0 || _salp0 == 0 || _csig12 <= 0 ||
+        Math.abs(lat1) == 90 || Math.abs(lat2) == 90;
+    }
+    _m12 = _M12 = _M21 = _S12 = Double.NaN;
+    _lengths = _area = false;
+  }
+
+  /**
+   * @return <i>m12</i> the reduced length of geodesic (meters).
+   **********************************************************************/
+  public double m12() {
+    if (!_lengths) Lengths();
+    return _m12;
+  }
+
+  /**
+   * @return <i>M12</i> the geodesic scale of point 2 relative to point 1
+   *   (dimensionless).
+   **********************************************************************/
+  public double M12() {
+    if (!_lengths) Lengths();
+    return _M12;
+  }
+
+  /**
+   * @return <i>M21</i> the geodesic scale of point 1 relative to point 2
+   *   (dimensionless).
+   **********************************************************************/
+  public double M21() {
+    if (!_lengths) Lengths();
+    return _M21;
+  }
+
+  /**
+   * @return <i>S12</i> the area under the geodesic (meters<sup>2</sup>).
+   **********************************************************************/
+  public double S12() {
+    if (!_area) Area();
+    return _S12;
+  }
+
+  /**
+   * @return a {@link GeodesicData} object with all the fields set (this
+   *   evaluates any deferred quantities which haven't been computed yet).
+   **********************************************************************/
+  public GeodesicData Data() {
+    GeodesicData r = new GeodesicData();
+    r.lat1 = lat1; r.lon1 = lon1; r.azi1 = azi1;
+    r.lat2 = lat2; r.lon2 = lon2; r.azi2 = azi2;
+    r.s12 = s12; r.a12 = a12;
+    r.m12 = m12(); r.M12 = M12(); r.M21 = M21();
+    r.S12 = S12();
+    return r;
+  }
+
+  // Compute m12, M12, M21.  The C1 series is summed again; this is cheaper
+  // than storing it.
+  private void Lengths() {
+    Geodesic g = _g;
+    GeodesicWorkspace w = GeodesicWorkspace.Local();
+    double C1a[] = w.C1a, C2a[] = w.C2a;
+    int n = g._order + 1;
+    Geodesic.C1f(_eps, C1a, g._order);
+    Geodesic.C2f(_eps, C2a, g._order);
+    double
+      A1m1 = Geodesic.A1m1f(_eps, g._order),
+      A2m1 = Geodesic.A2m1f(_eps, g._order),
+      AB1 = (1 + A1m1) *
+      (Geodesic.SinCosSeries(true, _ssig2, _csig2, C1a, n) -
+       Geodesic.SinCosSeries(true, _ssig1, _csig1, C1a, n)),
+      AB2 = (1 + A2m1) *
+      (Geodesic.SinCosSeries(true, _ssig2, _csig2, C2a, n) -
+       Geodesic.SinCosSeries(true, _ssig1, _csig1, C2a, n)),
+      J12 = (A1m1 - A2m1) * _sig12 + (AB1 - AB2),
+      k2 = GeoMath.sq(_calp0) * g._ep2,
+      dn1 = Math.sqrt(1 + k2 * GeoMath.sq(_ssig1)),
+      dn2 = Math.sqrt(1 + k2 * GeoMath.sq(_ssig2));
+    _m12 = g._b * ((dn2 * (_csig1 * _ssig2) - dn1 * (_ssig1 * _csig2))
+                   - _csig1 * _csig2 * J12);
+    double t = k2 * (_ssig2 - _ssig1) * (_ssig2 + _ssig1) / (dn1 + dn2);
+    _M12 = _csig12 + (t *  _ssig2 -  _csig2 * J12) * _ssig1 / dn1;
+    _M21 = _csig12 - (t * _ssig1 - _csig1 * J12) *  _ssig2 /  dn2;
+    _lengths = true;
+  }
+
+  // Compute S12.
+  private void Area() {
+    Geodesic g = _g;
+    double B4 = 0;
+    if (g._e2 != 0) {
+      double C4a[] = GeodesicWorkspace.Local().C4a;
+      g.C4f(_eps, C4a);
+      // Multiplier = a^2 * e^2 * cos(alpha0) * sin(alpha0)
+      B4 = GeoMath.sq(g._a) * _calp0 * _salp0 * g._e2 *
+        (Geodesic.SinCosSeries(false, _ssig2, _csig2, C4a, g._order) -
+         Geodesic.SinCosSeries(false, _ssig1, _csig1, C4a, g._order));
+    }
+    double salp12, calp12;
+    if (_alpdiff) {
+      // alp12 = alp2 - alp1, used in atan2 so no need to normalize
+      salp12 = _salp2 * _calp1 - _calp2 * _salp1;
+      calp12 = _calp2 * _calp1 + _salp2 * _salp1;
+      // See Geodesic.InverseInt
+      if (salp12 == 0 && calp12 < 0) {
+        salp12 = Geodesic.tiny_ * _calp1;
+        calp12 = -1;
+      }
+    } else {
+      // See GeodesicLine.Position
+      salp12 = _calp0 * _salp0 *
+        (_csig12 <= 0 ? _csig1 * (1 - _csig12) + _ssig12 * _ssig1 :
+         _ssig12 * (_csig1 * _ssig12 / (1 + _csig12) + _ssig1));
+      calp12 = GeoMath.sq(_salp0) + GeoMath.sq(_calp0) * _csig1 * _csig2;
+    }
+    _S12 = g._c2 * Math.atan2(salp12, calp12) + B4;
+    _area = true;
+  }
+}
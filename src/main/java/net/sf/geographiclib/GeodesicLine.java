@@ -7,6 +7,10 @@
  **********************************************************************/
 package net.sf.geographiclib;
 
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * A geodesic line.
  * <p>
@@ -17,7 +21,13 @@ package net.sf.geographiclib;
  * {@link #Position Position} returns the location of point 2 a distance
  * <i>s12</i> along the geodesic.  Alternatively {@link #ArcPosition
  * ArcPosition} gives the position of point 2 an arc length <i>a12</i> along
- * the geodesic.
+ * the geodesic.  {@link #Waypoints(boolean, double, double, int, int,
+ * GeodesicConsumer) Waypoints} efficiently computes a sequence of equally
+ * spaced points along the geodesic and {@link #Positions(boolean, double,
+ * double, int, int) Positions} and {@link #Values(int, boolean, double,
+ * double, int) Values} return these points as streams.  {@link #Reset Reset}
+ * and {@link #ResetInverse ResetInverse} reinitialize a GeodesicLine in place
+ * (without allocating memory) so that it can be reused for another geodesic.
  * <p>
  * You can register the position of a reference point 3 a distance (arc
  * length), <i>s13</i> (<i>a13</i>) along the geodesic with the
@@ -92,12 +102,6 @@ package net.sf.geographiclib;
  **********************************************************************/
 public class GeodesicLine {
 
-  private static final int nC1_ = Geodesic.nC1_;
-  private static final int nC1p_ = Geodesic.nC1p_;
-  private static final int nC2_ = Geodesic.nC2_;
-  private static final int nC3_ = Geodesic.nC3_;
-  private static final int nC4_ = Geodesic.nC4_;
-
   private double _lat1, _lon1, _azi1;
   private double _a, _f, _b, _c2, _f1, _salp0, _calp0, _k2,
     _salp1, _calp1, _ssig1, _csig1, _dn1, _stau1, _ctau1, _somg1, _comg1,
@@ -177,19 +181,58 @@ public class GeodesicLine {
   public GeodesicLine(Geodesic g,
                       double lat1, double lon1, double azi1,
                       int caps) {
+    LineInit(g, lat1, lon1, azi1, caps, new Pair());
+  }
+
+  // Set up the line given lat1, lon1, azi1 using p as scratch space.  This
+  // is also used to reinitialize a GeodesicLine so that its coefficient
+  // arrays can be reused.
+  void LineInit(Geodesic g, double lat1, double lon1, double azi1,
+                int caps, Pair p) {
     azi1 = GeoMath.AngNormalize(azi1);
     double salp1, calp1;
-    Pair p = new Pair();
     // Guard against underflow in salp0
     GeoMath.sincosd(p, GeoMath.AngRound(azi1));
     salp1 = p.first; calp1 = p.second;
     LineInit(g, lat1, lon1, azi1, salp1, calp1, caps, p);
   }
 
+  // Set up the line given point i of o (whose reduced latitude, etc., have
+  // already been computed) and azi1.  This gives the same results as
+  // LineInit(g, o.lat[i], o.lon[i], azi1, caps, p).
+  void LineInit(Geodesic g, GeodesicPoints o, int i, double azi1,
+                int caps, Pair p) {
+    azi1 = GeoMath.AngNormalize(azi1);
+    double salp1, calp1;
+    GeoMath.sincosd(p, GeoMath.AngRound(azi1));
+    salp1 = p.first; calp1 = p.second;
+    LineInit(g, o.lat[i], o.lon[i], azi1, salp1, calp1,
+             o.sbet[i], o.cbet[i], o.dn[i], caps, p);
+  }
+
   private void LineInit(Geodesic g,
                         double lat1, double lon1,
                         double azi1, double salp1, double calp1,
                         int caps, Pair p) {
+    lat1 = GeoMath.LatFix(lat1);
+    double cbet1, sbet1;
+    GeoMath.sincosd(p, GeoMath.AngRound(lat1));
+    sbet1 = g._f1 * p.first; cbet1 = p.second;
+    // Ensure cbet1 = +epsilon at poles
+    GeoMath.norm(p, sbet1, cbet1);
+    sbet1 = p.first; cbet1 = Math.max(Geodesic.tiny_, p.second);
+    LineInit(g, lat1, lon1, azi1, salp1, calp1,
+             sbet1, cbet1, Math.sqrt(1 + g._ep2 * GeoMath.sq(sbet1)),
+             caps, p);
+  }
+
+  // The rest of LineInit given the sine and cosine of the reduced latitude
+  // of point 1 and dn1.
+  private void LineInit(Geodesic g,
+                        double lat1, double lon1,
+                        double azi1, double salp1, double calp1,
+                        double sbet1, double cbet1, double dn1,
+                        int caps, Pair p) {
     _a = g._a;
     _f = g._f;
     _b = g._b;
@@ -199,16 +242,10 @@ public class GeodesicLine {
     _caps = caps | GeodesicMask.LATITUDE | GeodesicMask.AZIMUTH |
       GeodesicMask.LONG_UNROLL;
 
-    _lat1 = GeoMath.LatFix(lat1);
+    _lat1 = lat1;
     _lon1 = lon1;
     _azi1 = azi1; _salp1 = salp1; _calp1 = calp1;
-    double cbet1, sbet1;
-    GeoMath.sincosd(p, GeoMath.AngRound(_lat1));
-    sbet1 = _f1 * p.first; cbet1 = p.second;
-    // Ensure cbet1 = +epsilon at poles
-    GeoMath.norm(p, sbet1, cbet1);
-    sbet1 = p.first; cbet1 = Math.max(Geodesic.tiny_, p.second);
-    _dn1 = Math.sqrt(1 + g._ep2 * GeoMath.sq(sbet1));
+    _dn1 = dn1;
 
     // Evaluate alp0 from sin(alp1) * cos(bet1) = sin(alp0),
     _salp0 = _salp1 * cbet1; // alp0 in [0, pi/2 - |bet1|]
@@ -233,10 +270,32 @@ public class GeodesicLine {
     _k2 = GeoMath.sq(_calp0) * g._ep2;
     double eps = _k2 / (2 * (1 + Math.sqrt(1 + _k2)) + _k2);
 
+    if (_f == 0) {
+      // A sphere, so eps = 0.  The Fourier coefficients vanish, A1 = A2 = A3
+      // = 1, and the area term A4 vanishes (because e2 = 0).  There's no
+      // need to evaluate the series; arrays of length 1 (holding 0) are used
+      // so that the sums in Position are trivial.  The results are the same
+      // as for the general case.
+      _A1m1 = _A2m1 = _B11 = _B21 = _B31 = _B41 = _A4 = 0;
+      _A3c = -_f * _salp0;
+      _stau1 = _ssig1; _ctau1 = _csig1;
+      if (_C1a == null || _C1a.length != 1) _C1a = new double[1];
+      if (_C1pa == null || _C1pa.length != 1) _C1pa = new double[1];
+      if (_C2a == null || _C2a.length != 1) _C2a = new double[1];
+      if (_C3a == null || _C3a.length != 1) _C3a = new double[1];
+      if (_C4a == null || _C4a.length != 1) _C4a = new double[1];
+      return;
+    }
+
+    // The coefficient arrays are only allocated the first time they are
+    // needed (or if the order of the series changes); thereafter they are
+    // overwritten in place.  Their lengths are set by the order, so that
+    // SinCosSeries sums just the terms which are computed.
     if ((_caps & GeodesicMask.CAP_C1) != 0) {
-      _A1m1 = Geodesic.A1m1f(eps);
-      _C1a = new double[nC1_ + 1];
-      Geodesic.C1f(eps, _C1a);
+      _A1m1 = Geodesic.A1m1f(eps, g._order);
+      if (_C1a == null || _C1a.length != g._order + 1)
+        _C1a = new double[g._order + 1];
+      Geodesic.C1f(eps, _C1a, g._order);
       _B11 = Geodesic.SinCosSeries(true, _ssig1, _csig1, _C1a);
       double s = Math.sin(_B11), c = Math.cos(_B11);
       // tau1 = sig1 + B11
@@ -247,26 +306,30 @@ public class GeodesicLine {
     }
 
     if ((_caps & GeodesicMask.CAP_C1p) != 0) {
-      _C1pa = new double[nC1p_ + 1];
-      Geodesic.C1pf(eps, _C1pa);
+      if (_C1pa == null || _C1pa.length != g._order + 1)
+        _C1pa = new double[g._order + 1];
+      Geodesic.C1pf(eps, _C1pa, g._order);
     }
 
     if ((_caps & GeodesicMask.CAP_C2) != 0) {
-      _C2a = new double[nC2_ + 1];
-      _A2m1 = Geodesic.A2m1f(eps);
-      Geodesic.C2f(eps, _C2a);
+      if (_C2a == null || _C2a.length != g._order + 1)
+        _C2a = new double[g._order + 1];
+      _A2m1 = Geodesic.A2m1f(eps, g._order);
+      Geodesic.C2f(eps, _C2a, g._order);
       _B21 = Geodesic.SinCosSeries(true, _ssig1, _csig1, _C2a);
     }
 
     if ((_caps & GeodesicMask.CAP_C3) != 0) {
-      _C3a = new double[nC3_];
+      if (_C3a == null || _C3a.length != g._order)
+        _C3a = new double[g._order];
       g.C3f(eps, _C3a);
       _A3c = -_f * _salp0 * g.A3f(eps);
       _B31 = Geodesic.SinCosSeries(true, _ssig1, _csig1, _C3a);
     }
 
     if ((_caps & GeodesicMask.CAP_C4) != 0) {
-      _C4a = new double[nC4_];
+      if (_C4a == null || _C4a.length != g._order)
+        _C4a = new double[g._order];
       g.C4f(eps, _C4a);
       // Multiplier = a^2 * e^2 * cos(alpha0) * sin(alpha0)
       _A4 = GeoMath.sq(_a) * _calp0 * _salp0 * g._e2;
@@ -286,12 +349,77 @@ public class GeodesicLine {
   /**
    * A default constructor.  If GeodesicLine.Position is called on the
    * resulting object, it returns immediately (without doing any calculations).
-   * The object can be set with a call to {@link Geodesic.Line}.  Use {@link
-   * Init()} to test whether object is still in this uninitialized state.
-   * (This constructor was useful in C++, e.g., to allow vectors of
-   * GeodesicLine objects.  It may not be needed in Java, so make it private.)
+   * The object can be set with a call to {@link #Reset Reset} or {@link
+   * #ResetInverse ResetInverse}.  This allows a single GeodesicLine to be
+   * reused, e.g., by each thread in an application which samples a large
+   * number of paths.
+   **********************************************************************/
+  public GeodesicLine() { _caps = 0; }
+
+  /**
+   * Reinitialize the line to start at latitude <i>lat1</i>, longitude
+   * <i>lon1</i>, and azimuth <i>azi1</i> (all in degrees) with a subset of the
+   * capabilities included.
+   * <p>
+   * @param g A {@link Geodesic} object used to compute the necessary
+   *   information about the GeodesicLine.
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param azi1 azimuth at point 1 (degrees).
+   * @param caps bitor'ed combination of {@link GeodesicMask} values
+   *   specifying the capabilities the GeodesicLine object should possess.
+   * <p>
+   * The line is then the same as that given by the constructor {@link
+   * #GeodesicLine(Geodesic, double, double, double, int)
+   * GeodesicLine}(<i>g</i>, <i>lat1</i>, <i>lon1</i>, <i>azi1</i>,
+   * <i>caps</i>); in particular, <i>s13</i> and <i>a13</i> are set to NaNs.
+   * The coefficient arrays of the line are overwritten in place (they are
+   * only reallocated if the order of the series, see {@link Geodesic#Order},
+   * changes), so no memory is allocated.  A GeodesicLine must not be used by
+   * another thread while it is being reset.
    **********************************************************************/
-  private GeodesicLine() { _caps = 0; }
+  public void Reset(Geodesic g, double lat1, double lon1, double azi1,
+                    int caps) {
+    LineInit(g, lat1, lon1, azi1, caps, GeodesicWorkspace.Local().p);
+    _a13 = _s13 = Double.NaN;
+  }
+
+  /**
+   * Reinitialize the line in terms of the inverse geodesic problem with a
+   * subset of the capabilities included.
+   * <p>
+   * @param g A {@link Geodesic} object used to compute the necessary
+   *   information about the GeodesicLine.
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @param caps bitor'ed combination of {@link GeodesicMask} values
+   *   specifying the capabilities the GeodesicLine object should possess.
+   * <p>
+   * The line is then the same as that given by {@link Geodesic#InverseLine(
+   * double, double, double, double, int) Geodesic.InverseLine}(<i>lat1</i>,
+   * <i>lon1</i>, <i>lat2</i>, <i>lon2</i>, <i>caps</i>); in particular, point
+   * 3 is set to point 2 of the inverse problem.  As with {@link #Reset
+   * Reset}, no memory is allocated.
+   **********************************************************************/
+  public void ResetInverse(Geodesic g, double lat1, double lon1,
+                           double lat2, double lon2, int caps) {
+    GeodesicWorkspace w = GeodesicWorkspace.Local();
+    GeodesicData r = w.g;
+    g.Inverse(r, w, lat1, lon1, lat2, lon2, GeodesicMask.NONE);
+    double salp1 = w.salp1, calp1 = w.calp1, a12 = r.a12;
+    // Ensure that a12 can be converted to a distance
+    if ((caps & (GeodesicMask.OUT_MASK & GeodesicMask.DISTANCE_IN)) != 0)
+      caps |= GeodesicMask.DISTANCE;
+    LineInit(g, lat1, lon1, GeoMath.atan2d(salp1, calp1), salp1, calp1,
+             caps, w.p);
+    // The same as SetArc(a12) but using r to hold the result.
+    _a13 = a12;
+    r.Clear();
+    Position(r, w.p, true, _a13, GeodesicMask.DISTANCE);
+    _s13 = r.s12;
+  }
 
   /**
    * Compute the position of point 2 which is a distance <i>s12</i> (meters)
@@ -424,25 +552,389 @@ public class GeodesicLine {
    **********************************************************************/
   public GeodesicData Position(boolean arcmode, double s12_a12,
                                int outmask) {
-    outmask &= _caps & GeodesicMask.OUT_MASK;
     GeodesicData r = new GeodesicData();
+    Position(r, new Pair(), arcmode, s12_a12, outmask);
+    return r;
+  }
+
+  /**
+   * Compute a sequence of equally spaced waypoints along the geodesic and
+   * pass them to a consumer.
+   * <p>
+   * @param arcmode boolean flag determining the meaning of the second and
+   *   third parameters; if arcmode is false, then the GeodesicLine object
+   *   must have been constructed with <i>caps</i> |= {@link
+   *   GeodesicMask#DISTANCE_IN}.
+   * @param s12_a12 the distance (meters) or arc length (degrees) from point
+   *   1 to the first waypoint.
+   * @param ds12_da12 the distance (meters) or arc length (degrees) between
+   *   successive waypoints; it can be negative.
+   * @param num the number of waypoints.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @param c a {@link GeodesicConsumer} whose Accept method is called with
+   *   index <i>i</i> = 0, 1, &hellip;, <i>num</i> &minus; 1 for the waypoint
+   *   at <i>s12_a12</i> + <i>i</i> &times; <i>ds12_da12</i>.
+   * <p>
+   * This gives the same results as calling {@link #Position(boolean, double,
+   * int) Position} for each waypoint (to within roundoff; the differences
+   * are comparable to those caused by changing <i>s12_a12</i> by 1 ulp), but
+   * it is faster because the sines and cosines of the arc lengths (or, if
+   * <i>arcmode</i> is false, of the distances scaled to the auxiliary
+   * sphere) are found with the angle-addition formulas.  These are only
+   * computed from scratch for every 32nd waypoint (the "anchor"); the
+   * waypoints in between are found by adding multiples of the step to the
+   * preceding anchor, so that roundoff errors don't accumulate.  No objects
+   * are allocated per waypoint.
+   **********************************************************************/
+  public void Waypoints(boolean arcmode, double s12_a12, double ds12_da12,
+                        int num, int outmask, GeodesicConsumer c) {
+    Waypoints(arcmode, s12_a12, ds12_da12, num, outmask, c, null, 0);
+  }
+
+  /**
+   * Compute a sequence of equally spaced waypoints along the geodesic and
+   * store them in arrays.
+   * <p>
+   * @param arcmode boolean flag determining the meaning of the second and
+   *   third parameters; if arcmode is false, then the GeodesicLine object
+   *   must have been constructed with <i>caps</i> |= {@link
+   *   GeodesicMask#DISTANCE_IN}.
+   * @param s12_a12 the distance (meters) or arc length (degrees) from point
+   *   1 to the first waypoint.
+   * @param ds12_da12 the distance (meters) or arc length (degrees) between
+   *   successive waypoints; it can be negative.
+   * @param num the number of waypoints.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @param g a {@link GeodesicArrays} object holding the output arrays for
+   *   the results specified by <i>outmask</i> (<i>lat2</i>, <i>lon2</i>,
+   *   <i>azi2</i>, <i>s12</i>, <i>m12</i>, <i>M12</i>, <i>M21</i>,
+   *   <i>S12</i>) and, optionally, <i>a12</i>.
+   * @param off the element of the arrays for the first waypoint.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * Element <i>off</i> + <i>i</i> of the arrays holds the waypoint at
+   * <i>s12_a12</i> + <i>i</i> &times; <i>ds12_da12</i>.  See {@link
+   * #Waypoints(boolean, double, double, int, int, GeodesicConsumer)} for
+   * details.
+   **********************************************************************/
+  public void Waypoints(boolean arcmode, double s12_a12, double ds12_da12,
+                        int num, int outmask, GeodesicArrays g, int off) {
+    g.CheckOut(off, num, outmask & GeodesicMask.OUT_MASK);
+    Waypoints(arcmode, s12_a12, ds12_da12, num, outmask, null, g, off);
+  }
+
+  /**
+   * A stream of equally spaced points along the geodesic.
+   * <p>
+   * @param arcmode boolean flag determining the meaning of the second and
+   *   third parameters; if arcmode is false, then the GeodesicLine object
+   *   must have been constructed with <i>caps</i> |= {@link
+   *   GeodesicMask#DISTANCE_IN}.
+   * @param s12_a12 the distance (meters) or arc length (degrees) from point
+   *   1 to the first point.
+   * @param ds12_da12 the distance (meters) or arc length (degrees) between
+   *   successive points; it can be negative.
+   * @param num the number of points.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @return a sequential, ordered stream of <i>num</i> {@link GeodesicData}
+   *   objects; element <i>i</i> is the point at <i>s12_a12</i> + <i>i</i>
+   *   &times; <i>ds12_da12</i>.
+   * @exception GeographicErr if <i>num</i> is negative.
+   * <p>
+   * The points are computed as they are consumed, in the same way as by
+   * {@link #Waypoints(boolean, double, double, int, int, GeodesicConsumer)
+   * Waypoints}, and the results are identical.  The spliterator for the
+   * stream is SIZED and SUBSIZED; when it is split, each piece starts from
+   * the anchor preceding its first point (which it computes independently
+   * with the same formulas as Position).  So the stream can be processed in
+   * parallel (with {@link java.util.stream.BaseStream#parallel() parallel()})
+   * without changing the results.  The GeodesicLine must not be reset while
+   * the stream is in use.
+   **********************************************************************/
+  public Stream<GeodesicData> Positions(boolean arcmode, double s12_a12,
+                                        double ds12_da12, int num,
+                                        int outmask) {
+    if (num < 0)
+      throw new GeographicErr("Number of points is negative");
+    return StreamSupport.stream
+      (new GeodesicSpliterator.Data(this, arcmode, s12_a12, ds12_da12, null,
+                                    num, outmask, 0, num), false);
+  }
+
+  /**
+   * A stream of points at given distances or arc lengths along the geodesic.
+   * <p>
+   * @param arcmode boolean flag determining the meaning of the second
+   *   parameter; if arcmode is false, then the GeodesicLine object must have
+   *   been constructed with <i>caps</i> |= {@link GeodesicMask#DISTANCE_IN}.
+   * @param s12_a12 the distances (meters) or arc lengths (degrees) from
+   *   point 1 to the points.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @return a sequential, ordered stream of {@link GeodesicData} objects;
+   *   element <i>i</i> is the point at <i>s12_a12</i>[<i>i</i>].
+   * @exception GeographicErr if <i>s12_a12</i> is null.
+   * <p>
+   * Each point is computed with {@link #Position(boolean, double, int)
+   * Position}.  The spliterator for the stream is SIZED and SUBSIZED, so
+   * the stream can be processed in parallel.  The array must not be
+   * modified while the stream is in use.
+   **********************************************************************/
+  public Stream<GeodesicData> Positions(boolean arcmode, double s12_a12[],
+                                        int outmask) {
+    if (s12_a12 == null)
+      throw new GeographicErr("Array s12_a12 is missing");
+    return StreamSupport.stream
+      (new GeodesicSpliterator.Data(this, arcmode, 0, 0, s12_a12,
+                                    s12_a12.length, outmask,
+                                    0, s12_a12.length), false);
+  }
+
+  /**
+   * A stream of a single quantity at equally spaced points along the
+   * geodesic.
+   * <p>
+   * @param quantity the quantity to return, one of {@link
+   *   GeodesicMask#LATITUDE} (<i>lat2</i>), {@link GeodesicMask#LONGITUDE}
+   *   (<i>lon2</i>, in which case {@link GeodesicMask#LONG_UNROLL} can be
+   *   included), {@link GeodesicMask#AZIMUTH} (<i>azi2</i>), {@link
+   *   GeodesicMask#DISTANCE} (<i>s12</i>), {@link
+   *   GeodesicMask#REDUCEDLENGTH} (<i>m12</i>), {@link
+   *   GeodesicMask#GEODESICSCALE} (<i>M12</i>), or {@link GeodesicMask#AREA}
+   *   (<i>S12</i>).
+   * @param arcmode boolean flag determining the meaning of the third and
+   *   fourth parameters.
+   * @param s12_a12 the distance (meters) or arc length (degrees) from point
+   *   1 to the first point.
+   * @param ds12_da12 the distance (meters) or arc length (degrees) between
+   *   successive points; it can be negative.
+   * @param num the number of points.
+   * @return a sequential, ordered stream of <i>num</i> values.
+   * @exception GeographicErr if <i>quantity</i> is not one of the values
+   *   listed or if <i>num</i> is negative.
+   * <p>
+   * This is the same as {@link #Positions(boolean, double, double, int, int)
+   * Positions} with <i>outmask</i> = <i>quantity</i>, except that no objects
+   * are allocated per point.
+   **********************************************************************/
+  public DoubleStream Values(int quantity, boolean arcmode, double s12_a12,
+                             double ds12_da12, int num) {
+    GeodesicSpliterator.Values.Check(quantity);
+    if (num < 0)
+      throw new GeographicErr("Number of points is negative");
+    return StreamSupport.doubleStream
+      (new GeodesicSpliterator.Values(this, arcmode, s12_a12, ds12_da12, null,
+                                      num, quantity, 0, num), false);
+  }
+
+  /**
+   * A stream of a single quantity at points at given distances or arc
+   * lengths along the geodesic.
+   * <p>
+   * @param quantity the quantity to return; see {@link #Values(int, boolean,
+   *   double, double, int)}.
+   * @param arcmode boolean flag determining the meaning of the third
+   *   parameter.
+   * @param s12_a12 the distances (meters) or arc lengths (degrees) from
+   *   point 1 to the points.
+   * @return a sequential, ordered stream of values; element <i>i</i> is for
+   *   the point at <i>s12_a12</i>[<i>i</i>].
+   * @exception GeographicErr if <i>quantity</i> is not a valid value or if
+   *   <i>s12_a12</i> is null.
+   **********************************************************************/
+  public DoubleStream Values(int quantity, boolean arcmode,
+                             double s12_a12[]) {
+    GeodesicSpliterator.Values.Check(quantity);
+    if (s12_a12 == null)
+      throw new GeographicErr("Array s12_a12 is missing");
+    return StreamSupport.doubleStream
+      (new GeodesicSpliterator.Values(this, arcmode, 0, 0, s12_a12,
+                                      s12_a12.length, quantity,
+                                      0, s12_a12.length), false);
+  }
+
+  // The number of waypoints between recomputations of the sines and cosines
+  static final int anchor_ = 32;
+
+  private void Waypoints(boolean arcmode, double s12_a12, double ds12_da12,
+                         int num, int outmask,
+                         GeodesicConsumer c, GeodesicArrays g, int off) {
+    GeodesicData r = new GeodesicData();
+    Stepper t = new Stepper(arcmode, s12_a12, ds12_da12, null, num, outmask);
+    int out = outmask & GeodesicMask.OUT_MASK;
+    for (int i = 0; i < num; ++i) {
+      t.Set(r, i);
+      Store(r, i, out, c, g, off);
+    }
+  }
+
+  // The calculation of the points s12_a12 + i * ds12_da12 (or, if x is not
+  // null, of the points x[i]) for Waypoints and the streams.  For equally
+  // spaced points, the sines and cosines of the arc lengths (or of the
+  // distances scaled to the auxiliary sphere) are computed from scratch for
+  // the anchors, i = 0, anchor_, 2 * anchor_, ..., and with the
+  // angle-addition formulas for the points in between.  The result for
+  // point i doesn't depend on which points were computed previously, so the
+  // points can be computed in any order (e.g., by the pieces of a split
+  // stream).  A Stepper must not be used by more than one thread at a time.
+  final class Stepper {
+    private final boolean _arcmode, _direct;
+    private final double _x0, _dx, _x[], _scale, _sm[], _cm[];
+    private final int _outmask;
+    private final Pair _p;
+    private int _anchor;        // the index of the current anchor
+    private double _sa, _ca;    // the sine and cosine for the anchor
+
+    Stepper(boolean arcmode, double s12_a12, double ds12_da12,
+            double x[], int num, int outmask) {
+      _arcmode = arcmode;
+      _x0 = s12_a12; _dx = ds12_da12; _x = x;
+      _outmask = outmask & _caps & GeodesicMask.OUT_MASK;
+      _p = new Pair();
+      _anchor = -1; _sa = _ca = Double.NaN;
+      _direct = x == null &&
+        Init() &&
+        (arcmode ||
+         (_caps & (GeodesicMask.OUT_MASK & GeodesicMask.DISTANCE_IN)) != 0) &&
+        // Position does a Newton iteration for the distance in this case
+        !(!arcmode && Math.abs(_f) > 0.01);
+      if (!_direct) {
+        // Let Position handle the unusual cases
+        _scale = 0; _sm = _cm = null;
+        return;
+      }
+      // In distance mode, steps are taken in tau (the distance scaled to the
+      // auxiliary sphere).  sm[j], cm[j] are the sine and cosine of j steps.
+      _scale = arcmode ? 1 : _b * (1 + _A1m1);
+      int m = Math.max(1, Math.min(num, anchor_));
+      _sm = new double[m]; _cm = new double[m];
+      for (int j = 0; j < m; ++j) {
+        if (arcmode) {
+          GeoMath.sincosd(_p, j * ds12_da12);
+          _sm[j] = _p.first; _cm[j] = _p.second;
+        } else {
+          double t = j * (ds12_da12 / _scale);
+          _sm[j] = Math.sin(t); _cm[j] = Math.cos(t);
+        }
+      }
+    }
+
+    // Set r to point i.  Only the quantities in outmask are set.
+    void Set(GeodesicData r, int i) {
+      if (!_direct) {
+        Position(r, _p, _arcmode, _x == null ? _x0 + i * _dx : _x[i],
+                 _outmask);
+        return;
+      }
+      SetPoint1(r, _outmask);
+      int j = i % anchor_;
+      if (i - j != _anchor) {
+        _anchor = i - j;
+        double xa = _x0 + _anchor * _dx;
+        if (_arcmode) {
+          GeoMath.sincosd(_p, xa); _sa = _p.first; _ca = _p.second;
+        } else {
+          double tau12 = xa / _scale;
+          _sa = Math.sin(tau12); _ca = Math.cos(tau12);
+        }
+      }
+      double x = _x0 + i * _dx;
+      // x = anchor + j steps (this is exact for j = 0)
+      double
+        s = _sa * _cm[j] + _ca * _sm[j],
+        cs = _ca * _cm[j] - _sa * _sm[j];
+      if (_arcmode) {
+        r.a12 = x;
+        Position(r, true, Math.toRadians(x), s, cs, 0, _outmask);
+      } else {
+        r.s12 = x;
+        // tau2 = tau1 + tau12
+        double
+          B12 = - Geodesic.SinCosSeries(true,
+                                        _stau1 * cs + _ctau1 * s,
+                                        _ctau1 * cs - _stau1 * s,
+                                        _C1pa),
+          sig12 = x / _scale - (B12 - _B11);
+        r.a12 = Math.toDegrees(sig12);
+        Position(r, false, sig12, Math.sin(sig12), Math.cos(sig12), B12,
+                 _outmask);
+      }
+    }
+  }
+
+  // Pass waypoint i in r to c or store it in g.  Quantities not included in
+  // outmask are passed as NaN.
+  private static void Store(GeodesicData r, int i, int outmask,
+                            GeodesicConsumer c, GeodesicArrays g, int off) {
+    if (c != null) {
+      r.Send(c, i, outmask);
+      return;
+    }
+    int k = off + i;
+    if ((outmask & GeodesicMask.LATITUDE) != 0) g.lat2[k] = r.lat2;
+    if ((outmask & GeodesicMask.LONGITUDE) != 0) g.lon2[k] = r.lon2;
+    if ((outmask & GeodesicMask.AZIMUTH) != 0) g.azi2[k] = r.azi2;
+    if ((outmask & GeodesicMask.DISTANCE) != 0) g.s12[k] = r.s12;
+    if ((outmask & GeodesicMask.REDUCEDLENGTH) != 0) g.m12[k] = r.m12;
+    if ((outmask & GeodesicMask.GEODESICSCALE) != 0) {
+      g.M12[k] = r.M12; g.M21[k] = r.M21;
+    }
+    if ((outmask & GeodesicMask.AREA) != 0) g.S12[k] = r.S12;
+    if (g.a12 != null) g.a12[k] = r.a12;
+  }
+
+  /**
+   * Compute the position of point 2 and pass it to a consumer.
+   * <p>
+   * @param c a {@link GeodesicConsumer} which receives the results.
+   * @param i the index passed to <i>c</i>.
+   * @param w a {@link GeodesicWorkspace} object providing the scratch storage
+   *   for the calculation.
+   * @param arcmode boolean flag determining the meaning of the next
+   *   parameter.
+   * @param s12_a12 if <i>arcmode</i> is false, this is the distance between
+   *   point 1 and point 2 (meters); otherwise it is the arc length between
+   *   point 1 and point 2 (degrees); it can be negative.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * <p>
+   * This gives the same results as {@link #Position(boolean, double, int)
+   * Position}; <i>lat2</i>, <i>lon2</i>, <i>azi2</i>, and <i>s12</i> are
+   * passed to <i>c</i> with Double.NaN for the quantities not specified by
+   * <i>outmask</i> (or which the GeodesicLine is not capable of computing).
+   * No memory is allocated; however <i>w</i> must not be used by another
+   * thread at the same time.
+   **********************************************************************/
+  public void Position(GeodesicConsumer c, int i, GeodesicWorkspace w,
+                       boolean arcmode, double s12_a12, int outmask) {
+    GeodesicData r = w.g;
+    r.Clear();
+    Position(r, w.p, arcmode, s12_a12, outmask);
+    r.Send(c, i, outmask & GeodesicMask.OUT_MASK);
+  }
+
+  // The implementation of Position which stores the results in r (which
+  // should have been cleared by the caller) and uses p as scratch space.
+  void Position(GeodesicData r, Pair p, boolean arcmode, double s12_a12,
+                int outmask) {
+    outmask &= _caps & GeodesicMask.OUT_MASK;
     if (!( Init() &&
            (arcmode ||
             (_caps & (GeodesicMask.OUT_MASK & GeodesicMask.DISTANCE_IN)) != 0)
            ))
       // Uninitialized or impossible distance calculation requested
-      return r;
-    r.lat1 = _lat1; r.azi1 = _azi1;
-    r.lon1 = ((outmask & GeodesicMask.LONG_UNROLL) != 0) ? _lon1 :
-      GeoMath.AngNormalize(_lon1);
+      return;
+    SetPoint1(r, outmask);
 
     // Avoid warning about uninitialized B12.
-    double sig12, ssig12, csig12, B12 = 0, AB1 = 0;
+    double sig12, ssig12, csig12, B12 = 0;
     if (arcmode) {
       // Interpret s12_a12 as spherical arc length
       r.a12 = s12_a12;
       sig12 = Math.toRadians(s12_a12);
-      Pair p = new Pair();
       GeoMath.sincosd(p, s12_a12); ssig12 = p.first; csig12 = p.second;
     } else {
       // Interpret s12_a12 as distance
@@ -492,7 +984,23 @@ public class GeodesicLine {
       }
       r.a12 = Math.toDegrees(sig12);
     }
+    Position(r, arcmode, sig12, ssig12, csig12, B12, outmask);
+  }
 
+  // Set the quantities for point 1 in r.
+  private void SetPoint1(GeodesicData r, int outmask) {
+    r.lat1 = _lat1; r.azi1 = _azi1;
+    r.lon1 = ((outmask & GeodesicMask.LONG_UNROLL) != 0) ? _lon1 :
+      GeoMath.AngNormalize(_lon1);
+  }
+
+  // The rest of Position given sig12 and its sine and cosine (and B12 if
+  // !arcmode and |f| <= 0.01).  outmask has been reduced to the capabilities
+  // of the line.
+  private void Position(GeodesicData r, boolean arcmode,
+                        double sig12, double ssig12, double csig12,
+                        double B12, int outmask) {
+    double AB1 = 0;
     double ssig2, csig2, sbet2, cbet2, salp2, calp2;
     // sig2 = sig1 + sig12
     ssig2 = _ssig1 * csig12 + _csig1 * ssig12;
@@ -584,8 +1092,6 @@ public class GeodesicLine {
       }
       r.S12 = _c2 * Math.atan2(salp12, calp12) + _A4 * (B42 - _B41);
     }
-
-    return r;
   }
 
   /**
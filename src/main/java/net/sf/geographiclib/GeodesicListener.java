@@ -0,0 +1,94 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicListener interface
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * A listener for the solutions of the inverse geodesic problem.
+ * <p>
+ * The solution of the inverse problem takes one of several paths whose costs
+ * differ by more than a factor of 10:
+ * <ul>
+ * <li>
+ *   {@link #MERIDIAN}: both points lie on a meridian; no iteration is
+ *   needed.
+ * <li>
+ *   {@link #EQUATORIAL}: both points lie on the equator and the geodesic
+ *   runs along the equator; no iteration is needed.
+ * <li>
+ *   {@link #SHORT}: the points are sufficiently close that the short line
+ *   approximation in the calculation of the starting point is accurate; no
+ *   iteration is needed.
+ * <li>
+ *   {@link #NEWTON}: the general case; Newton's method is used to find the
+ *   azimuth at point 1, falling back to bisection if Newton's method fails to
+ *   make progress.
+ * <li>
+ *   {@link #SPHERICAL}: the ellipsoid is a sphere (<i>f</i> = 0), the
+ *   geodesic is neither meridional nor equatorial, and the solution is given
+ *   in closed form.
+ * </ul>
+ * <p>
+ * Once a listener has been registered with {@link Geodesic#SetListener
+ * Geodesic.SetListener}, its {@link #Inverse Inverse} method is called at the
+ * end of each inverse calculation.  It is called by the thread which carried
+ * out the calculation, so an implementation must be thread safe if the
+ * geodesic routines are called from several threads.  It is also called
+ * synchronously, so it should do as little work as possible.  {@link
+ * GeodesicStatistics} accumulates counts and histograms of the calls and
+ * GeodesicEvents (in the Java 11 section of the multi-release jar) records
+ * them as JDK Flight Recorder events.
+ **********************************************************************/
+public interface GeodesicListener {
+  /**
+   * The path for meridional geodesics.
+   **********************************************************************/
+  public static final int MERIDIAN   = 0;
+  /**
+   * The path for equatorial geodesics.
+   **********************************************************************/
+  public static final int EQUATORIAL = 1;
+  /**
+   * The path for short geodesics.
+   **********************************************************************/
+  public static final int SHORT      = 2;
+  /**
+   * The path for the general case (Newton's method and bisection).
+   **********************************************************************/
+  public static final int NEWTON     = 3;
+  /**
+   * The path for the general case on a sphere.
+   **********************************************************************/
+  public static final int SPHERICAL  = 4;
+  /**
+   * The number of paths.
+   **********************************************************************/
+  public static final int PATHS      = 5;
+
+  /**
+   * Called at the end of the solution of an inverse geodesic problem.
+   * <p>
+   * @param lat1 latitude of point 1 (degrees).
+   * @param lon1 longitude of point 1 (degrees).
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @param path the path taken, one of {@link #MERIDIAN}, {@link
+   *   #EQUATORIAL}, {@link #SHORT}, {@link #NEWTON}, or {@link #SPHERICAL}.
+   * @param numit the number of iterations; this is 0 unless <i>path</i> =
+   *   {@link #NEWTON}.
+   * @param bisections the number of these iterations which used bisection
+   *   instead of Newton's method.
+   * @param nanos the time taken for the solution (nanoseconds).
+   * <p>
+   * The coordinates are as returned in {@link GeodesicData}, i.e., the
+   * latitudes are reduced to [&minus;90&deg;, 90&deg;] and the longitudes
+   * are normalized unless {@link GeodesicMask#LONG_UNROLL} was specified.
+   * <i>nanos</i> excludes the preliminary reduction of the coordinates.
+   **********************************************************************/
+  void Inverse(double lat1, double lon1, double lat2, double lon2,
+               int path, int numit, int bisections, long nanos);
+}
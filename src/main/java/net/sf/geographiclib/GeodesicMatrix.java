@@ -0,0 +1,319 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicMatrix class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Matrices of geodesic distances.
+ * <p>
+ * This computes the distances <i>s12</i> between each of a set of <i>N</i>
+ * points (<i>lat1</i>[<i>i</i>], <i>lon1</i>[<i>i</i>]) and each of a set of
+ * <i>M</i> points (<i>lat2</i>[<i>j</i>], <i>lon2</i>[<i>j</i>]).  The
+ * results are stored in row-major order, i.e., the distance between point
+ * <i>i</i> of the first set and point <i>j</i> of the second set is stored in
+ * element <i>i</i> &times; <i>M</i> + <i>j</i> of the output.  The output can
+ * be a double[], a float[], or a {@link DoubleBuffer} (e.g., a view of a
+ * memory-mapped file for matrices which are too big to fit on the heap).
+ * <p>
+ * The calculation is organized as follows:
+ * <ul>
+ * <li>
+ *   the terms in the solution of the inverse problem which depend on just one
+ *   point (the reduced latitude, etc.) are computed once for each point;
+ * <li>
+ *   the matrix is divided into square tiles of <i>tile</i> &times;
+ *   <i>tile</i> elements so that the per-point terms for the points of a tile
+ *   stay in the cache while the tile is computed;
+ * <li>
+ *   the rows of tiles are distributed over the threads of a {@link
+ *   ForkJoinPool};
+ * <li>
+ *   for a single set of points (the symmetric <i>N</i> &times; <i>N</i>
+ *   case), only the elements above the diagonal are computed; these are
+ *   copied to the corresponding elements below the diagonal and the diagonal
+ *   elements are set to zero.
+ * </ul>
+ * <p>
+ * The distances are identical to those returned by {@link
+ * Geodesic#Inverse(double, double, double, double, int) Geodesic.Inverse}.
+ * For matrices with more than 2<sup>31</sup> &minus; 1 elements, compute the
+ * matrix in blocks of rows by passing successive pieces of <i>lat1</i> and
+ * <i>lon1</i> to the <i>N</i> &times; <i>M</i> routines.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicMatrix mat = new GeodesicMatrix(Geodesic.WGS84);
+ * double s12[] = new double[n * n];
+ * mat.Distances(lat, lon, s12);
+ * // s12[i * n + j] is the distance between points i and j }</pre>
+ **********************************************************************/
+public class GeodesicMatrix {
+
+  /**
+   * The default value of the tile size.
+   **********************************************************************/
+  public static final int DEFAULT_TILE = 64;
+
+  private final Geodesic _earth;
+  private final ForkJoinPool _pool;
+  private final int _tile;
+
+  /**
+   * Constructor using the common pool and the default tile size.
+   * <p>
+   * @param earth the {@link Geodesic} object to use for the calculations.
+   **********************************************************************/
+  public GeodesicMatrix(Geodesic earth) {
+    this(earth, ForkJoinPool.commonPool(), DEFAULT_TILE);
+  }
+
+  /**
+   * Constructor for a GeodesicMatrix.
+   * <p>
+   * @param earth the {@link Geodesic} object to use for the calculations.
+   * @param pool the {@link ForkJoinPool} which executes the calculations.
+   * @param tile the number of rows and columns in a tile.
+   * @exception GeographicErr if <i>earth</i> or <i>pool</i> is null or if
+   *   <i>tile</i> is not positive.
+   **********************************************************************/
+  public GeodesicMatrix(Geodesic earth, ForkJoinPool pool, int tile) {
+    if (earth == null)
+      throw new GeographicErr("Geodesic object is missing");
+    if (pool == null)
+      throw new GeographicErr("ForkJoinPool is missing");
+    if (!(tile > 0))
+      throw new GeographicErr("Tile size is not positive");
+    _earth = earth;
+    _pool = pool;
+    _tile = tile;
+  }
+
+  /**
+   * Compute the <i>N</i> &times; <i>M</i> matrix of distances between two
+   * sets of points.
+   * <p>
+   * @param lat1 the latitudes of the first set of points (degrees).
+   * @param lon1 the longitudes of the first set of points (degrees).
+   * @param lat2 the latitudes of the second set of points (degrees).
+   * @param lon2 the longitudes of the second set of points (degrees).
+   * @param s12 the array of length at least <i>N</i> &times; <i>M</i> in
+   *   which the distances (meters) are stored.
+   * @exception GeographicErr if the arrays are null or have inconsistent
+   *   lengths.
+   **********************************************************************/
+  public void Distances(double lat1[], double lon1[],
+                        double lat2[], double lon2[], double s12[]) {
+    if (s12 == null) throw new GeographicErr("Array s12 is missing");
+    Run(lat1, lon1, lat2, lon2, s12.length, new DoubleSink(s12));
+  }
+
+  /**
+   * Compute the <i>N</i> &times; <i>M</i> matrix of distances between two
+   * sets of points with the results stored as floats.
+   * <p>
+   * @param lat1 the latitudes of the first set of points (degrees).
+   * @param lon1 the longitudes of the first set of points (degrees).
+   * @param lat2 the latitudes of the second set of points (degrees).
+   * @param lon2 the longitudes of the second set of points (degrees).
+   * @param s12 the array of length at least <i>N</i> &times; <i>M</i> in
+   *   which the distances (meters) are stored.
+   * @exception GeographicErr if the arrays are null or have inconsistent
+   *   lengths.
+   * <p>
+   * The distances are computed in double precision and rounded to float.
+   **********************************************************************/
+  public void Distances(double lat1[], double lon1[],
+                        double lat2[], double lon2[], float s12[]) {
+    if (s12 == null) throw new GeographicErr("Array s12 is missing");
+    Run(lat1, lon1, lat2, lon2, s12.length, new FloatSink(s12));
+  }
+
+  /**
+   * Compute the <i>N</i> &times; <i>M</i> matrix of distances between two
+   * sets of points with the results stored in a DoubleBuffer.
+   * <p>
+   * @param lat1 the latitudes of the first set of points (degrees).
+   * @param lon1 the longitudes of the first set of points (degrees).
+   * @param lat2 the latitudes of the second set of points (degrees).
+   * @param lon2 the longitudes of the second set of points (degrees).
+   * @param s12 the buffer in which the distances (meters) are stored.
+   * @exception GeographicErr if the arrays are null or have inconsistent
+   *   lengths or if <i>s12</i> has fewer than <i>N</i> &times; <i>M</i>
+   *   elements remaining.
+   * <p>
+   * The element with index <i>k</i> in the matrix is stored at the absolute
+   * position <i>s12</i>.position() + <i>k</i> of the buffer; the position of
+   * the buffer is not changed.
+   **********************************************************************/
+  public void Distances(double lat1[], double lon1[],
+                        double lat2[], double lon2[], DoubleBuffer s12) {
+    if (s12 == null) throw new GeographicErr("Buffer s12 is missing");
+    Run(lat1, lon1, lat2, lon2, s12.remaining(), new BufferSink(s12));
+  }
+
+  /**
+   * Compute the symmetric <i>N</i> &times; <i>N</i> matrix of distances
+   * between the points in a set.
+   * <p>
+   * @param lat the latitudes of the points (degrees).
+   * @param lon the longitudes of the points (degrees).
+   * @param s12 the array of length at least <i>N</i> &times; <i>N</i> in
+   *   which the distances (meters) are stored.
+   * @exception GeographicErr if the arrays are null or have inconsistent
+   *   lengths.
+   **********************************************************************/
+  public void Distances(double lat[], double lon[], double s12[]) {
+    if (s12 == null) throw new GeographicErr("Array s12 is missing");
+    Run(lat, lon, null, null, s12.length, new DoubleSink(s12));
+  }
+
+  /**
+   * Compute the symmetric <i>N</i> &times; <i>N</i> matrix of distances
+   * between the points in a set with the results stored as floats.
+   * <p>
+   * @param lat the latitudes of the points (degrees).
+   * @param lon the longitudes of the points (degrees).
+   * @param s12 the array of length at least <i>N</i> &times; <i>N</i> in
+   *   which the distances (meters) are stored.
+   * @exception GeographicErr if the arrays are null or have inconsistent
+   *   lengths.
+   **********************************************************************/
+  public void Distances(double lat[], double lon[], float s12[]) {
+    if (s12 == null) throw new GeographicErr("Array s12 is missing");
+    Run(lat, lon, null, null, s12.length, new FloatSink(s12));
+  }
+
+  /**
+   * Compute the symmetric <i>N</i> &times; <i>N</i> matrix of distances
+   * between the points in a set with the results stored in a DoubleBuffer.
+   * <p>
+   * @param lat the latitudes of the points (degrees).
+   * @param lon the longitudes of the points (degrees).
+   * @param s12 the buffer in which the distances (meters) are stored.
+   * @exception GeographicErr if the arrays are null or have inconsistent
+   *   lengths or if <i>s12</i> has fewer than <i>N</i> &times; <i>N</i>
+   *   elements remaining.
+   **********************************************************************/
+  public void Distances(double lat[], double lon[], DoubleBuffer s12) {
+    if (s12 == null) throw new GeographicErr("Buffer s12 is missing");
+    Run(lat, lon, null, null, s12.remaining(), new BufferSink(s12));
+  }
+
+  /**
+   * @return the number of rows and columns in a tile.
+   **********************************************************************/
+  public int Tile() { return _tile; }
+
+  // Where the results go.  The index k is relative to the start of the
+  // matrix.
+  private static abstract class Sink {
+    abstract void Set(int k, double s12);
+  }
+
+  private static class DoubleSink extends Sink {
+    private final double _s12[];
+    DoubleSink(double s12[]) { _s12 = s12; }
+    @Override void Set(int k, double s12) { _s12[k] = s12; }
+  }
+
+  private static class FloatSink extends Sink {
+    private final float _s12[];
+    FloatSink(float s12[]) { _s12 = s12; }
+    @Override void Set(int k, double s12) { _s12[k] = (float)s12; }
+  }
+
+  private static class BufferSink extends Sink {
+    private final DoubleBuffer _s12;
+    private final int _pos;
+    BufferSink(DoubleBuffer s12) { _s12 = s12; _pos = s12.position(); }
+    // Absolute puts don't change the state of the buffer, so these can be
+    // done by several threads at once.
+    @Override void Set(int k, double s12) { _s12.put(_pos + k, s12); }
+  }
+
+  // lat2 == null signifies the symmetric case.
+  private void Run(double lat1[], double lon1[],
+                   double lat2[], double lon2[], int size, Sink sink) {
+    if (lat1 == null || lon1 == null ||
+        (lat2 == null) != (lon2 == null))
+      throw new GeographicErr("Array of coordinates is missing");
+    if (lat1.length != lon1.length ||
+        (lat2 != null && lat2.length != lon2.length))
+      throw new GeographicErr("Arrays of coordinates have different lengths");
+    boolean sym = lat2 == null;
+    int n = lat1.length, m = sym ? n : lat2.length;
+    if ((long)n * m > size)
+      throw new GeographicErr("Output for matrix is too short");
+    if (n == 0 || m == 0) return;
+    Pair p = new Pair();
+    GeodesicPoints a = new GeodesicPoints(n);
+    a.Set(_earth, lat1, lon1, 0, p);
+    GeodesicPoints b = a;
+    if (!sym) {
+      b = new GeodesicPoints(m);
+      b.Set(_earth, lat2, lon2, 0, p);
+    }
+    int rows = (n + _tile - 1) / _tile;
+    if (rows == 1)
+      Solve(a, b, sym, sink, 0, n);
+    else
+      _pool.invoke(new Task(a, b, sym, sink, 0, rows));
+  }
+
+  // Compute the rows [i0, i1) of the matrix; i0 is a multiple of _tile.
+  private void Solve(GeodesicPoints a, GeodesicPoints b, boolean sym,
+                     Sink sink, int i0, int i1) {
+    GeodesicWorkspace w = GeodesicWorkspace.Local();
+    GeodesicData r = w.g;
+    int m = b.lat.length;
+    for (int j0 = sym ? i0 : 0; j0 < m; j0 += _tile) {
+      int j1 = Math.min(j0 + _tile, m);
+      for (int i = i0; i < i1; ++i) {
+        for (int j = sym ? Math.max(j0, i + 1) : j0; j < j1; ++j) {
+          _earth.InverseInt(r, w, a, i, b, j,
+                            GeodesicMask.DISTANCE | Geodesic.NOENDS_);
+          sink.Set(i * m + j, r.s12);
+          if (sym) sink.Set(j * m + i, r.s12);
+        }
+      }
+    }
+    if (sym) {
+      for (int i = i0; i < i1; ++i)
+        sink.Set(i * m + i, 0);
+    }
+  }
+
+  // A task which computes the rows of tiles [lo, hi).
+  private class Task extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final GeodesicPoints _a, _b;
+    private final boolean _sym;
+    private final Sink _sink;
+    private final int _lo, _hi;
+
+    Task(GeodesicPoints a, GeodesicPoints b, boolean sym, Sink sink,
+         int lo, int hi) {
+      _a = a; _b = b; _sym = sym; _sink = sink; _lo = lo; _hi = hi;
+    }
+
+    @Override protected void compute() {
+      if (_hi - _lo == 1)
+        Solve(_a, _b, _sym, _sink,
+              _lo * _tile, Math.min((_lo + 1) * _tile, _a.lat.length));
+      else {
+        int mid = _lo + (_hi - _lo) / 2;
+        invokeAll(new Task(_a, _b, _sym, _sink, _lo, mid),
+                  new Task(_a, _b, _sym, _sink, mid, _hi));
+      }
+    }
+  }
+}
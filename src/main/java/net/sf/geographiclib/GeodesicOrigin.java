@@ -0,0 +1,146 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicOrigin class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * Inverse geodesic problems from a fixed point.
+ * <p>
+ * GeodesicOrigin facilitates the solution of many inverse problems which
+ * share the same point 1, (<i>lat1</i>, <i>lon1</i>), e.g., finding the
+ * distances and bearings from a depot to a large number of destinations.  Just
+ * as {@link GeodesicLine} saves the quantities which depend only on point 1
+ * and the azimuth, this class saves the quantities which depend only on point
+ * 1 (its reduced latitude, etc.).  These are then reused for each call to
+ * {@link #InverseTo(double, double, int) InverseTo}.  Use {@link
+ * Geodesic#InverseFrom Geodesic.InverseFrom} to create a GeodesicOrigin.
+ * <p>
+ * The results are identical to those returned by {@link
+ * Geodesic#Inverse(double, double, double, double, int) Geodesic.Inverse}.
+ * A GeodesicOrigin is immutable and may be shared between threads.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicOrigin depot = Geodesic.WGS84.InverseFrom(lat0, lon0);
+ * GeodesicWorkspace w = new GeodesicWorkspace();
+ * GeodesicData g = new GeodesicData();
+ * for (int i = 0; i < n; ++i) {
+ *   depot.InverseTo(g, w, lat[i], lon[i], GeodesicMask.DISTANCE |
+ *                   GeodesicMask.AZIMUTH);
+ *   System.out.println(g.s12 + " " + g.azi1);
+ * }}</pre>
+ **********************************************************************/
+public class GeodesicOrigin {
+
+  private final Geodesic _earth;
+  private final double _lat1, _lon1;
+  private final GeodesicPoints _o;
+
+  /**
+   * Constructor for a GeodesicOrigin (called by {@link Geodesic#InverseFrom
+   * Geodesic.InverseFrom}).
+   **********************************************************************/
+  GeodesicOrigin(Geodesic g, double lat1, double lon1) {
+    _earth = g;
+    _lat1 = lat1; _lon1 = lon1;
+    _o = new GeodesicPoints(1);
+    _o.Set(g, 0, lat1, lon1, new Pair());
+  }
+
+  /**
+   * Solve the inverse geodesic problem from point 1 to point 2.
+   * <p>
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @return a {@link GeodesicData} object with the following fields:
+   *   <i>lat1</i>, <i>lon1</i>, <i>azi1</i>, <i>lat2</i>, <i>lon2</i>,
+   *   <i>azi2</i>, <i>s12</i>, <i>a12</i>.
+   **********************************************************************/
+  public GeodesicData InverseTo(double lat2, double lon2) {
+    return InverseTo(lat2, lon2, GeodesicMask.STANDARD);
+  }
+
+  /**
+   * Solve the inverse geodesic problem from point 1 to point 2 with a subset
+   * of the geodesic results returned.
+   * <p>
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @return a {@link GeodesicData} object with the fields specified by
+   *   <i>outmask</i> computed.
+   * <p>
+   * See {@link Geodesic#Inverse(double, double, double, double, int)
+   * Geodesic.Inverse} for the allowed values of <i>outmask</i>.
+   **********************************************************************/
+  public GeodesicData InverseTo(double lat2, double lon2, int outmask) {
+    GeodesicData r = new GeodesicData();
+    InverseTo(r, new GeodesicWorkspace(), lat2, lon2, outmask);
+    return r;
+  }
+
+  /**
+   * Solve the inverse geodesic problem from point 1 to point 2 using
+   * caller-supplied storage.
+   * <p>
+   * @param r a {@link GeodesicData} object in which the results are returned.
+   * @param w a {@link GeodesicWorkspace} object providing the scratch storage
+   *   for the calculation.
+   * @param lat2 latitude of point 2 (degrees).
+   * @param lon2 longitude of point 2 (degrees).
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * <p>
+   * This is the counterpart of {@link Geodesic#Inverse(GeodesicData,
+   * GeodesicWorkspace, double, double, double, double, int)
+   * Geodesic.Inverse}; no memory is allocated.
+   **********************************************************************/
+  public void InverseTo(GeodesicData r, GeodesicWorkspace w,
+                        double lat2, double lon2, int outmask) {
+    outmask &= GeodesicMask.OUT_MASK;
+    r.Clear();
+    _earth.InverseInt(r, w, _o, 0, lat2, lon2, outmask);
+    if ((outmask & GeodesicMask.AZIMUTH) != 0) {
+      r.azi1 = GeoMath.atan2d(w.salp1, w.calp1);
+      r.azi2 = GeoMath.atan2d(w.salp2, w.calp2);
+    }
+  }
+
+  /**
+   * Solve a batch of inverse geodesic problems from point 1.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input arrays
+   *   <i>lat2</i>, <i>lon2</i> and the output arrays for the results
+   *   specified by <i>outmask</i>.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of inverse problems to solve.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * This is the same as {@link Geodesic#Inverse(GeodesicArrays, int, int,
+   * int) Geodesic.Inverse} except that point 1 is fixed; the arrays
+   * <i>lat1</i> and <i>lon1</i> are not used.
+   **********************************************************************/
+  public void InverseTo(GeodesicArrays g, int off, int len, int outmask) {
+    outmask &= GeodesicMask.OUT_MASK;
+    g.CheckInverseFrom(off, len, outmask);
+    _earth.InverseBatch(g, off, len, outmask, new GeodesicWorkspace(), _o);
+  }
+
+  /**
+   * @return <i>lat1</i> the latitude of point 1 (degrees).
+   **********************************************************************/
+  public double Latitude() { return _lat1; }
+
+  /**
+   * @return <i>lon1</i> the longitude of point 1 (degrees).
+   **********************************************************************/
+  public double Longitude() { return _lon1; }
+}
@@ -0,0 +1,211 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicParallel class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel solution of batches of geodesic problems.
+ * <p>
+ * This splits the batch routines of {@link Geodesic}, {@link
+ * Geodesic#Inverse(GeodesicArrays, int, int, int) Inverse}, {@link
+ * Geodesic#Direct(GeodesicArrays, int, int, int) Direct}, and {@link
+ * Geodesic#ArcDirect(GeodesicArrays, int, int, int) ArcDirect}, across the
+ * threads of a {@link ForkJoinPool}.  The range of indices of the batch is
+ * recursively halved until the pieces contain no more than <i>grain</i>
+ * elements; each piece is then solved serially by a worker thread using its
+ * own {@link GeodesicWorkspace}, so that no memory is allocated in the inner
+ * loop.
+ * <p>
+ * The result for element <i>i</i> is always stored in element <i>i</i> of the
+ * output arrays and it is identical to the result of the serial batch routine
+ * (and of the scalar routines of Geodesic).  Thus the output is independent
+ * of the number of threads and the way the work is scheduled.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicParallel par = new GeodesicParallel(Geodesic.WGS84);
+ * GeodesicArrays g = new GeodesicArrays();
+ * g.lat1 = lat1; g.lon1 = lon1; g.lat2 = lat2; g.lon2 = lon2;
+ * g.s12 = new double[n];
+ * par.Inverse(g, 0, n, GeodesicMask.DISTANCE); }</pre>
+ **********************************************************************/
+public class GeodesicParallel {
+
+  /**
+   * The default value of the grain size.
+   **********************************************************************/
+  public static final int DEFAULT_GRAIN = 1024;
+
+  private static final int INVERSE = 0, DIRECT = 1, ARCDIRECT = 2;
+
+  private final Geodesic _earth;
+  private final ForkJoinPool _pool;
+  private final int _grain;
+
+  /**
+   * Constructor using the common pool and the default grain size.
+   * <p>
+   * @param earth the {@link Geodesic} object to use for the calculations.
+   **********************************************************************/
+  public GeodesicParallel(Geodesic earth) {
+    this(earth, ForkJoinPool.commonPool(), DEFAULT_GRAIN);
+  }
+
+  /**
+   * Constructor for a GeodesicParallel.
+   * <p>
+   * @param earth the {@link Geodesic} object to use for the calculations.
+   * @param pool the {@link ForkJoinPool} which executes the calculations.
+   * @param grain the maximum number of geodesic problems solved by a single
+   *   task.
+   * @exception GeographicErr if <i>earth</i> or <i>pool</i> is null or if
+   *   <i>grain</i> is not positive.
+   **********************************************************************/
+  public GeodesicParallel(Geodesic earth, ForkJoinPool pool, int grain) {
+    if (earth == null)
+      throw new GeographicErr("Geodesic object is missing");
+    if (pool == null)
+      throw new GeographicErr("ForkJoinPool is missing");
+    if (!(grain > 0))
+      throw new GeographicErr("Grain size is not positive");
+    _earth = earth;
+    _pool = pool;
+    _grain = grain;
+  }
+
+  /**
+   * Solve a batch of inverse geodesic problems in parallel.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input and output
+   *   arrays.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of inverse problems to solve.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * See {@link Geodesic#Inverse(GeodesicArrays, int, int, int)
+   * Geodesic.Inverse} for details.
+   **********************************************************************/
+  public void Inverse(GeodesicArrays g, int off, int len, int outmask) {
+    outmask &= GeodesicMask.OUT_MASK;
+    g.CheckInverse(off, len, outmask);
+    Run(INVERSE, g, off, len, outmask);
+  }
+
+  /**
+   * Solve a batch of direct geodesic problems in parallel where the lengths
+   * of the geodesics are specified in terms of distance.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input and output
+   *   arrays.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of direct problems to solve.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * See {@link Geodesic#Direct(GeodesicArrays, int, int, boolean, int)
+   * Geodesic.Direct} for details.
+   **********************************************************************/
+  public void Direct(GeodesicArrays g, int off, int len, int outmask) {
+    Direct(g, off, len, false, outmask);
+  }
+
+  /**
+   * Solve a batch of direct geodesic problems in parallel where the lengths
+   * of the geodesics are specified in terms of arc length.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input and output
+   *   arrays.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of direct problems to solve.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * See {@link Geodesic#Direct(GeodesicArrays, int, int, boolean, int)
+   * Geodesic.Direct} for details.
+   **********************************************************************/
+  public void ArcDirect(GeodesicArrays g, int off, int len, int outmask) {
+    Direct(g, off, len, true, outmask);
+  }
+
+  /**
+   * The general parallel batch direct geodesic problem.
+   * <p>
+   * @param g a {@link GeodesicArrays} object holding the input and output
+   *   arrays.
+   * @param off the index of the first element of the arrays to use.
+   * @param len the number of direct problems to solve.
+   * @param arcmode boolean flag determining whether the lengths of the
+   *   geodesics are given by <i>s12</i> or <i>a12</i>.
+   * @param outmask a bitor'ed combination of {@link GeodesicMask} values
+   *   specifying which results should be returned.
+   * @exception GeographicErr if a required array is null or is too short.
+   * <p>
+   * See {@link Geodesic#Direct(GeodesicArrays, int, int, boolean, int)
+   * Geodesic.Direct} for details.
+   **********************************************************************/
+  public void Direct(GeodesicArrays g, int off, int len,
+                     boolean arcmode, int outmask) {
+    g.CheckDirect(off, len, arcmode, outmask & GeodesicMask.OUT_MASK);
+    Run(arcmode ? ARCDIRECT : DIRECT, g, off, len, outmask);
+  }
+
+  /**
+   * @return the maximum number of geodesic problems solved by a single task.
+   **********************************************************************/
+  public int Grain() { return _grain; }
+
+  private void Run(int type, GeodesicArrays g, int off, int len,
+                   int outmask) {
+    if (len <= _grain)
+      // Not worth the overhead of going through the pool
+      Solve(type, g, off, len, outmask);
+    else
+      _pool.invoke(new Task(type, g, off, off + len, outmask));
+  }
+
+  // Solve elements [off, off + len) serially on the current thread.
+  private void Solve(int type, GeodesicArrays g, int off, int len,
+                     int outmask) {
+    GeodesicWorkspace w = GeodesicWorkspace.Local();
+    if (type == INVERSE)
+      _earth.InverseBatch(g, off, len, outmask, w, null);
+    else
+      _earth.DirectBatch(g, off, len, type == ARCDIRECT, outmask, w);
+  }
+
+  // A task which solves elements [lo, hi).  The range is split in half (as
+  // with Spliterator.trySplit) until it contains no more than _grain
+  // elements.  Since each element is written only to its own slot, the
+  // order in which the pieces are executed doesn't matter.
+  private class Task extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final int _type, _lo, _hi, _outmask;
+    private final GeodesicArrays _g;
+
+    Task(int type, GeodesicArrays g, int lo, int hi, int outmask) {
+      _type = type; _g = g; _lo = lo; _hi = hi; _outmask = outmask;
+    }
+
+    @Override protected void compute() {
+      if (_hi - _lo <= _grain)
+        Solve(_type, _g, _lo, _hi - _lo, _outmask);
+      else {
+        int mid = _lo + (_hi - _lo) / 2;
+        invokeAll(new Task(_type, _g, _lo, mid, _outmask),
+                  new Task(_type, _g, mid, _hi, _outmask));
+      }
+    }
+  }
+}
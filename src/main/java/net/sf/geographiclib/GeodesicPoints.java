@@ -0,0 +1,58 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicPoints class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * The per-point terms used in the solution of the inverse problem.
+ * <p>
+ * Geodesic.InverseInt starts by transforming the latitude and longitude of
+ * each point into the reduced latitude, etc.  When the same point enters into
+ * many inverse problems, these terms can be computed once and stored here.
+ * Since the canonicalization of the inverse problem may reflect the points in
+ * the equator, the terms for &minus;<i>lat</i> are stored as well as those
+ * for <i>lat</i>.  This is an internal class which is used by {@link
+ * GeodesicMatrix}.
+ **********************************************************************/
+class GeodesicPoints {
+  // lat = LatFix(lat) and latr = AngRound(lat); lonr = IEEEremainder(lon, 360)
+  final double lat[], latr[], lon[], lonr[];
+  // sin and cos of the reduced latitude and dn for latr and -latr
+  final double sbet[], cbet[], dn[], sbetn[], cbetn[], dnn[];
+
+  GeodesicPoints(int n) {
+    lat = new double[n]; latr = new double[n];
+    lon = new double[n]; lonr = new double[n];
+    sbet = new double[n]; cbet = new double[n]; dn = new double[n];
+    sbetn = new double[n]; cbetn = new double[n]; dnn = new double[n];
+  }
+
+  // Set the terms for point i to be (lat, lon) on the ellipsoid g.  The
+  // calculation of sbet, cbet, dn mirrors that in Geodesic.InverseInt.
+  void Set(Geodesic g, int i, double lat, double lon, Pair p) {
+    this.lat[i] = lat = GeoMath.LatFix(lat);
+    latr[i] = lat = GeoMath.AngRound(lat);
+    this.lon[i] = lon; lonr[i] = Math.IEEEremainder(lon, 360.0);
+    double sbet1, cbet1;
+    GeoMath.sincosd(p, lat);
+    sbet1 = g._f1 * p.first; cbet1 = p.second;
+    GeoMath.norm(p, sbet1, cbet1); sbet1 = p.first; cbet1 = p.second;
+    sbet[i] = sbet1; cbet[i] = Math.max(Geodesic.tiny_, cbet1);
+    dn[i] = Math.sqrt(1 + g._ep2 * GeoMath.sq(sbet1));
+    GeoMath.sincosd(p, -lat);
+    sbet1 = g._f1 * p.first; cbet1 = p.second;
+    GeoMath.norm(p, sbet1, cbet1); sbet1 = p.first; cbet1 = p.second;
+    sbetn[i] = sbet1; cbetn[i] = Math.max(Geodesic.tiny_, cbet1);
+    dnn[i] = Math.sqrt(1 + g._ep2 * GeoMath.sq(sbet1));
+  }
+
+  // Set the terms for points [0, n) from the arrays lat[off + i], lon[off + i].
+  void Set(Geodesic g, double lat[], double lon[], int off, Pair p) {
+    for (int i = 0; i < this.lat.length; ++i)
+      Set(g, i, lat[off + i], lon[off + i], p);
+  }
+}
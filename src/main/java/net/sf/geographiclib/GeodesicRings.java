@@ -0,0 +1,256 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicRings class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Range rings about a point.
+ * <p>
+ * A range ring of radius <i>s</i> about a center (<i>lat0</i>, <i>lon0</i>)
+ * is the polygon whose vertices are the end points of the geodesics of length
+ * <i>s</i> from the center with <i>count</i> equally spaced azimuths,
+ * <i>azi</i><sub><i>j</i></sub> = 360&deg; &times; <i>j</i> /
+ * <i>count</i> for <i>j</i> = 0, 1, &hellip;, <i>count</i> &minus; 1.  The
+ * rings for several radii are computed together.  The vertex <i>j</i> of the
+ * ring <i>k</i> (with radius <i>radii</i>[<i>k</i>]) is stored in element
+ * <i>k</i> &times; <i>count</i> + <i>j</i> of the output arrays.
+ * <p>
+ * The calculation is organized as follows:
+ * <ul>
+ * <li>
+ *   the terms which depend only on the center (its reduced latitude, etc.)
+ *   are computed once;
+ * <li>
+ *   for each azimuth, a {@link GeodesicLine} is set up and the vertices for
+ *   all the radii are found as positions on this line;
+ * <li>
+ *   the azimuths are distributed over the threads of a {@link ForkJoinPool}
+ *   in pieces with no more than <i>grain</i> vertices (but at least one
+ *   azimuth);
+ * <li>
+ *   optionally the areas of the rings are computed with {@link PolygonArea};
+ *   the rings are distributed over the threads of the pool.
+ * </ul>
+ * <p>
+ * The vertices are identical to those returned by {@link
+ * Geodesic#Direct(double, double, double, double) Geodesic.Direct} and the
+ * areas are identical to those given by {@link PolygonArea#Compute(boolean,
+ * boolean) PolygonArea.Compute}(true, true) for the vertices of a ring.  The
+ * vertices are traversed clockwise, so the area is positive for a radius less
+ * than about half the distance to the antipode of the center.  The cost of
+ * computing the areas is several times that of computing the vertices (since
+ * PolygonArea solves an inverse problem for each edge).
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicRings rings = new GeodesicRings(Geodesic.WGS84);
+ * double radii[] = {10e3, 20e3, 50e3};
+ * int count = 360;
+ * double lat[] = new double[radii.length * count],
+ *   lon[] = new double[radii.length * count], area[] = new double[3];
+ * rings.Rings(lat0, lon0, radii, count, lat, lon, area); }</pre>
+ **********************************************************************/
+public class GeodesicRings {
+
+  /**
+   * The default value of the grain size.
+   **********************************************************************/
+  public static final int DEFAULT_GRAIN = 1024;
+
+  // The capabilities of the lines
+  private static final int caps_ = GeodesicMask.LATITUDE |
+    GeodesicMask.LONGITUDE | GeodesicMask.DISTANCE_IN;
+
+  private final Geodesic _earth;
+  private final ForkJoinPool _pool;
+  private final int _grain;
+
+  /**
+   * Constructor using the common pool and the default grain size.
+   * <p>
+   * @param earth the {@link Geodesic} object to use for the calculations.
+   **********************************************************************/
+  public GeodesicRings(Geodesic earth) {
+    this(earth, ForkJoinPool.commonPool(), DEFAULT_GRAIN);
+  }
+
+  /**
+   * Constructor for a GeodesicRings.
+   * <p>
+   * @param earth the {@link Geodesic} object to use for the calculations.
+   * @param pool the {@link ForkJoinPool} which executes the calculations.
+   * @param grain the maximum number of vertices computed by a single task.
+   * @exception GeographicErr if <i>earth</i> or <i>pool</i> is null or if
+   *   <i>grain</i> is not positive.
+   **********************************************************************/
+  public GeodesicRings(Geodesic earth, ForkJoinPool pool, int grain) {
+    if (earth == null)
+      throw new GeographicErr("Geodesic object is missing");
+    if (pool == null)
+      throw new GeographicErr("ForkJoinPool is missing");
+    if (!(grain > 0))
+      throw new GeographicErr("Grain size is not positive");
+    _earth = earth;
+    _pool = pool;
+    _grain = grain;
+  }
+
+  /**
+   * Compute the vertices of range rings.
+   * <p>
+   * @param lat0 latitude of the center (degrees).
+   * @param lon0 longitude of the center (degrees).
+   * @param radii the radii of the rings (meters).
+   * @param count the number of vertices in each ring.
+   * @param lat the array of length at least <i>radii</i>.length &times;
+   *   <i>count</i> in which the latitudes of the vertices (degrees) are
+   *   stored.
+   * @param lon the array of length at least <i>radii</i>.length &times;
+   *   <i>count</i> in which the longitudes of the vertices (degrees) are
+   *   stored.
+   * @exception GeographicErr if an array is null or too short or if
+   *   <i>count</i> is not positive.
+   **********************************************************************/
+  public void Rings(double lat0, double lon0, double radii[], int count,
+                    double lat[], double lon[]) {
+    Rings(lat0, lon0, radii, count, lat, lon, null);
+  }
+
+  /**
+   * Compute the vertices and the areas of range rings.
+   * <p>
+   * @param lat0 latitude of the center (degrees).
+   * @param lon0 longitude of the center (degrees).
+   * @param radii the radii of the rings (meters).
+   * @param count the number of vertices in each ring.
+   * @param lat the array of length at least <i>radii</i>.length &times;
+   *   <i>count</i> in which the latitudes of the vertices (degrees) are
+   *   stored.
+   * @param lon the array of length at least <i>radii</i>.length &times;
+   *   <i>count</i> in which the longitudes of the vertices (degrees) are
+   *   stored.
+   * @param area the array of length at least <i>radii</i>.length in which
+   *   the areas of the rings (meters<sup>2</sup>) are stored; if this is
+   *   null, the areas are not computed.
+   * @exception GeographicErr if an array (other than <i>area</i>) is null,
+   *   if an array is too short, or if <i>count</i> is not positive.
+   **********************************************************************/
+  public void Rings(double lat0, double lon0, double radii[], int count,
+                    double lat[], double lon[], double area[]) {
+    if (radii == null) throw new GeographicErr("Array radii is missing");
+    if (lat == null) throw new GeographicErr("Array lat is missing");
+    if (lon == null) throw new GeographicErr("Array lon is missing");
+    if (!(count > 0))
+      throw new GeographicErr("Number of vertices is not positive");
+    int n = radii.length;
+    if ((long)n * count > Math.min(lat.length, lon.length))
+      throw new GeographicErr("Output for vertices is too short");
+    if (area != null && area.length < n)
+      throw new GeographicErr("Output for areas is too short");
+    if (n == 0) return;
+    GeodesicPoints o = new GeodesicPoints(1);
+    o.Set(_earth, 0, lat0, lon0, new Pair());
+    // The number of azimuths in a piece
+    int piece = Math.max(1, _grain / n);
+    if (count <= piece)
+      Solve(o, radii, count, lat, lon, 0, count);
+    else
+      _pool.invoke(new Task(o, radii, count, lat, lon, piece,
+                            0, (count + piece - 1) / piece));
+    if (area == null) return;
+    if (n == 1 || n * count <= _grain)
+      Area(count, lat, lon, area, 0, n);
+    else
+      _pool.invoke(new AreaTask(count, lat, lon, area, 0, n));
+  }
+
+  /**
+   * @return the maximum number of vertices computed by a single task.
+   **********************************************************************/
+  public int Grain() { return _grain; }
+
+  // Compute the vertices for the azimuths [j0, j1).
+  private void Solve(GeodesicPoints o, double radii[], int count,
+                     double lat[], double lon[], int j0, int j1) {
+    GeodesicWorkspace w = GeodesicWorkspace.Local();
+    GeodesicLine l = w.line;
+    GeodesicData r = w.g;
+    int n = radii.length;
+    for (int j = j0; j < j1; ++j) {
+      l.LineInit(_earth, o, 0, 360.0 * j / count, caps_, w.p);
+      for (int k = 0; k < n; ++k) {
+        l.Position(r, w.p, false, radii[k],
+                   GeodesicMask.LATITUDE | GeodesicMask.LONGITUDE);
+        lat[k * count + j] = r.lat2; lon[k * count + j] = r.lon2;
+      }
+    }
+  }
+
+  // Compute the areas of the rings [k0, k1).
+  private void Area(int count, double lat[], double lon[], double area[],
+                    int k0, int k1) {
+    PolygonArea poly = new PolygonArea(_earth, false);
+    for (int k = k0; k < k1; ++k) {
+      poly.Clear();
+      for (int j = 0; j < count; ++j)
+        poly.AddPoint(lat[k * count + j], lon[k * count + j]);
+      area[k] = poly.Compute(true, true).area;
+    }
+  }
+
+  // A task which computes the vertices for the pieces of azimuths [lo, hi).
+  private class Task extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final GeodesicPoints _o;
+    private final double _radii[], _lat[], _lon[];
+    private final int _count, _piece, _lo, _hi;
+
+    Task(GeodesicPoints o, double radii[], int count,
+         double lat[], double lon[], int piece, int lo, int hi) {
+      _o = o; _radii = radii; _count = count; _lat = lat; _lon = lon;
+      _piece = piece; _lo = lo; _hi = hi;
+    }
+
+    @Override protected void compute() {
+      if (_hi - _lo == 1)
+        Solve(_o, _radii, _count, _lat, _lon,
+              _lo * _piece, Math.min((_lo + 1) * _piece, _count));
+      else {
+        int mid = _lo + (_hi - _lo) / 2;
+        invokeAll(new Task(_o, _radii, _count, _lat, _lon, _piece, _lo, mid),
+                  new Task(_o, _radii, _count, _lat, _lon, _piece, mid, _hi));
+      }
+    }
+  }
+
+  // A task which computes the areas of the rings [lo, hi).
+  private class AreaTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final double _lat[], _lon[], _area[];
+    private final int _count, _lo, _hi;
+
+    AreaTask(int count, double lat[], double lon[], double area[],
+             int lo, int hi) {
+      _count = count; _lat = lat; _lon = lon; _area = area;
+      _lo = lo; _hi = hi;
+    }
+
+    @Override protected void compute() {
+      if (_hi - _lo == 1)
+        Area(_count, _lat, _lon, _area, _lo, _hi);
+      else {
+        int mid = _lo + (_hi - _lo) / 2;
+        invokeAll(new AreaTask(_count, _lat, _lon, _area, _lo, mid),
+                  new AreaTask(_count, _lat, _lon, _area, mid, _hi));
+      }
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicSpliterator class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+// The spliterators behind GeodesicLine.Positions and GeodesicLine.Values.
+// These traverse the points i in [lo, hi) at s12_a12 + i * ds12_da12 (or, if
+// x is not null, at x[i]) on a GeodesicLine.  Each piece computes its points
+// with its own GeodesicLine.Stepper, which finds point i independently of
+// the points computed before it (the anchors are at fixed indices).  So the
+// results don't depend on how the stream is split and the pieces can be
+// processed by different threads.  The splits are made at anchors (for
+// equally spaced points) so that no anchor is computed twice.
+abstract class GeodesicSpliterator {
+  // Pieces smaller than this are not split
+  static final int MIN_SPLIT = 2 * GeodesicLine.anchor_;
+
+  final GeodesicLine _line;
+  final boolean _arcmode;
+  final double _x0, _dx, _x[];
+  final int _num, _outmask, _hi;
+  int _lo;
+  private GeodesicLine.Stepper _t;
+
+  GeodesicSpliterator(GeodesicLine line, boolean arcmode,
+                      double s12_a12, double ds12_da12, double x[],
+                      int num, int outmask, int lo, int hi) {
+    _line = line; _arcmode = arcmode;
+    _x0 = s12_a12; _dx = ds12_da12; _x = x;
+    _num = num; _outmask = outmask; _lo = lo; _hi = hi;
+    _t = null;
+  }
+
+  // Set r to point i.
+  final void Set(GeodesicData r, int i) {
+    // The stepper is created when the piece is first traversed (so that
+    // it's created by the thread which uses it).
+    if (_t == null)
+      _t = _line.new Stepper(_arcmode, _x0, _dx, _x, _num, _outmask);
+    _t.Set(r, i);
+  }
+
+  // The index at which to split [lo, hi) or -1 if the piece is too small.
+  final int Mid() {
+    if (_hi - _lo < MIN_SPLIT) return -1;
+    int mid = _lo + (_hi - _lo) / 2;
+    if (_x == null) {
+      // Round to the nearest anchor; since hi - lo >= 2 * anchor_, this
+      // leaves lo < mid < hi.
+      mid += GeodesicLine.anchor_ / 2;
+      mid -= mid % GeodesicLine.anchor_;
+    }
+    return mid;
+  }
+
+  public long estimateSize() { return _hi - _lo; }
+
+  // Not IMMUTABLE, since the line can be reset and the array x modified.
+  public int characteristics() {
+    return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED |
+      Spliterator.NONNULL;
+  }
+
+  // A Spliterator<GeodesicData> returning a new GeodesicData for each point.
+  static final class Data extends GeodesicSpliterator
+    implements Spliterator<GeodesicData> {
+
+    Data(GeodesicLine line, boolean arcmode,
+         double s12_a12, double ds12_da12, double x[],
+         int num, int outmask, int lo, int hi) {
+      super(line, arcmode, s12_a12, ds12_da12, x, num, outmask, lo, hi);
+    }
+
+    @Override public boolean tryAdvance(Consumer<? super GeodesicData> c) {
+      if (_lo >= _hi) return false;
+      GeodesicData r = new GeodesicData();
+      Set(r, _lo++);
+      c.accept(r);
+      return true;
+    }
+
+    @Override public void forEachRemaining(Consumer<? super GeodesicData> c) {
+      int hi = _hi;
+      for (int i = _lo; i < hi; ++i) {
+        GeodesicData r = new GeodesicData();
+        Set(r, i);
+        c.accept(r);
+      }
+      _lo = hi;
+    }
+
+    @Override public Spliterator<GeodesicData> trySplit() {
+      int mid = Mid();
+      if (mid < 0) return null;
+      Data prefix = new Data(_line, _arcmode, _x0, _dx, _x, _num, _outmask,
+                             _lo, mid);
+      _lo = mid;
+      return prefix;
+    }
+  }
+
+  // A Spliterator.OfDouble returning a single quantity for each point.
+  static final class Values extends GeodesicSpliterator
+    implements Spliterator.OfDouble {
+    // The quantity without LONG_UNROLL
+    private final int _quantity;
+    // Scratch space for the results
+    private final GeodesicData _r;
+
+    Values(GeodesicLine line, boolean arcmode,
+           double s12_a12, double ds12_da12, double x[],
+           int num, int quantity, int lo, int hi) {
+      super(line, arcmode, s12_a12, ds12_da12, x, num, quantity, lo, hi);
+      _quantity = quantity & ~GeodesicMask.LONG_UNROLL;
+      _r = new GeodesicData();
+    }
+
+    // Check that quantity specifies a single result (optionally with
+    // LONG_UNROLL).
+    static void Check(int quantity) {
+      switch (quantity & ~GeodesicMask.LONG_UNROLL) {
+      case GeodesicMask.LATITUDE:
+      case GeodesicMask.LONGITUDE:
+      case GeodesicMask.AZIMUTH:
+      case GeodesicMask.DISTANCE:
+      case GeodesicMask.REDUCEDLENGTH:
+      case GeodesicMask.GEODESICSCALE:
+      case GeodesicMask.AREA:
+        return;
+      default:
+        throw new GeographicErr("Quantity is not a single result");
+      }
+    }
+
+    private double Value(int i) {
+      GeodesicData r = _r;
+      Set(r, i);
+      switch (_quantity) {
+      case GeodesicMask.LATITUDE: return r.lat2;
+      case GeodesicMask.LONGITUDE: return r.lon2;
+      case GeodesicMask.AZIMUTH: return r.azi2;
+      case GeodesicMask.DISTANCE: return r.s12;
+      case GeodesicMask.REDUCEDLENGTH: return r.m12;
+      case GeodesicMask.GEODESICSCALE: return r.M12;
+      default: return r.S12;
+      }
+    }
+
+    @Override public boolean tryAdvance(DoubleConsumer c) {
+      if (_lo >= _hi) return false;
+      c.accept(Value(_lo++));
+      return true;
+    }
+
+    @Override public void forEachRemaining(DoubleConsumer c) {
+      int hi = _hi;
+      for (int i = _lo; i < hi; ++i)
+        c.accept(Value(i));
+      _lo = hi;
+    }
+
+    @Override public Spliterator.OfDouble trySplit() {
+      int mid = Mid();
+      if (mid < 0) return null;
+      Values prefix = new Values(_line, _arcmode, _x0, _dx, _x, _num,
+                                 _outmask, _lo, mid);
+      _lo = mid;
+      return prefix;
+    }
+  }
+}
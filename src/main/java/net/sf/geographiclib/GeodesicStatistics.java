@@ -0,0 +1,167 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicStatistics class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts and histograms of the paths taken by the inverse geodesic problem.
+ * <p>
+ * This {@link GeodesicListener} accumulates, for each of the paths, the
+ * number of calls and the total and maximum time taken, together with a
+ * histogram of the number of iterations and the number of times that the
+ * iteration fell back to bisection.  The counters may be updated by several
+ * threads at once.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicStatistics stats = new GeodesicStatistics();
+ * Geodesic.SetListener(stats);
+ * ... // carry out some geodesic calculations
+ * Geodesic.SetListener(null);
+ * System.out.println(stats);}</pre>
+ **********************************************************************/
+public class GeodesicStatistics implements GeodesicListener {
+
+  /**
+   * The number of bins in the histogram of the number of iterations.  The
+   * last bin also counts any larger numbers of iterations.
+   **********************************************************************/
+  public static final int BINS = Geodesic.maxit2_ + 1;
+
+  private final LongAdder _calls[], _nanos[], _numit[];
+  private final LongAccumulator _maxnanos[];
+  private final LongAdder _fallbacks, _bisections;
+
+  /**
+   * Constructor for a GeodesicStatistics with all the counters set to 0.
+   **********************************************************************/
+  public GeodesicStatistics() {
+    _calls = new LongAdder[PATHS]; _nanos = new LongAdder[PATHS];
+    _maxnanos = new LongAccumulator[PATHS];
+    for (int i = 0; i < PATHS; ++i) {
+      _calls[i] = new LongAdder(); _nanos[i] = new LongAdder();
+      _maxnanos[i] = new LongAccumulator(Math::max, 0);
+    }
+    _numit = new LongAdder[BINS];
+    for (int i = 0; i < BINS; ++i)
+      _numit[i] = new LongAdder();
+    _fallbacks = new LongAdder(); _bisections = new LongAdder();
+  }
+
+  /**
+   * Record the solution of an inverse problem (see {@link
+   * GeodesicListener#Inverse GeodesicListener.Inverse}).
+   **********************************************************************/
+  @Override
+  public void Inverse(double lat1, double lon1, double lat2, double lon2,
+                      int path, int numit, int bisections, long nanos) {
+    _calls[path].increment();
+    _nanos[path].add(nanos);
+    _maxnanos[path].accumulate(nanos);
+    if (path == NEWTON)
+      _numit[Math.min(numit, BINS - 1)].increment();
+    if (bisections > 0) {
+      _fallbacks.increment();
+      _bisections.add(bisections);
+    }
+  }
+
+  /**
+   * Reset all the counters to 0.
+   * <p>
+   * This should be called when no other thread is updating the counters.
+   **********************************************************************/
+  public void Reset() {
+    for (int i = 0; i < PATHS; ++i) {
+      _calls[i].reset(); _nanos[i].reset(); _maxnanos[i].reset();
+    }
+    for (int i = 0; i < BINS; ++i)
+      _numit[i].reset();
+    _fallbacks.reset(); _bisections.reset();
+  }
+
+  /**
+   * @param path one of the paths given in {@link GeodesicListener}.
+   * @return the number of inverse problems solved via <i>path</i>.
+   **********************************************************************/
+  public long Calls(int path) { return _calls[path].sum(); }
+
+  /**
+   * @return the total number of inverse problems solved.
+   **********************************************************************/
+  public long Calls() {
+    long n = 0;
+    for (int i = 0; i < PATHS; ++i) n += Calls(i);
+    return n;
+  }
+
+  /**
+   * @param path one of the paths given in {@link GeodesicListener}.
+   * @return the total time spent on inverse problems solved via <i>path</i>
+   *   (nanoseconds).
+   **********************************************************************/
+  public long Nanos(int path) { return _nanos[path].sum(); }
+
+  /**
+   * @param path one of the paths given in {@link GeodesicListener}.
+   * @return the maximum time spent on an inverse problem solved via
+   *   <i>path</i> (nanoseconds).
+   **********************************************************************/
+  public long MaxNanos(int path) { return _maxnanos[path].get(); }
+
+  /**
+   * @return the histogram of the number of iterations for the {@link
+   *   GeodesicListener#NEWTON} path; element <i>i</i> is the number of
+   *   problems needing <i>i</i> iterations.  This array has length {@link
+   *   #BINS}.
+   **********************************************************************/
+  public long[] Numit() {
+    long h[] = new long[BINS];
+    for (int i = 0; i < BINS; ++i) h[i] = _numit[i].sum();
+    return h;
+  }
+
+  /**
+   * @return the number of inverse problems in which Newton's method fell
+   *   back to bisection.
+   **********************************************************************/
+  public long Fallbacks() { return _fallbacks.sum(); }
+
+  /**
+   * @return the total number of bisection steps.
+   **********************************************************************/
+  public long Bisections() { return _bisections.sum(); }
+
+  /**
+   * @return a summary of the statistics.
+   **********************************************************************/
+  @Override
+  public String toString() {
+    final String names[] = {"meridian", "equatorial", "short", "newton",
+                            "spherical"};
+    StringBuilder s = new StringBuilder();
+    for (int i = 0; i < PATHS; ++i) {
+      long n = Calls(i);
+      s.append(String.format("%-10s calls %d mean %.0f ns max %d ns%n",
+                             names[i], n,
+                             n > 0 ? Nanos(i) / (double)n : 0.0,
+                             MaxNanos(i)));
+    }
+    s.append(String.format("bisection fallbacks %d steps %d%nnumit",
+                           Fallbacks(), Bisections()));
+    long h[] = Numit();
+    int last = BINS - 1;
+    while (last > 0 && h[last] == 0) --last;
+    for (int i = 0; i <= last; ++i)
+      s.append(' ').append(h[i]);
+    return s.append(String.format("%n")).toString();
+  }
+}
@@ -0,0 +1,98 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicWGS84 class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ *
+ * This file was generated by GeodesicGenerator; do not edit.
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * Geodesic calculations for the ellipsoid with <i>a</i> = 6378137.0 m and
+ * <i>f</i> = 0.0033528106647474805.
+ * <p>
+ * The coefficients of the series A3, C3, and C4 are compile-time constants.
+ * The results are identical to those of Geodesic.
+ **********************************************************************/
+final class GeodesicWGS84 extends Geodesic {
+
+  static final double a_ = 6378137.0, f_ = 0.0033528106647474805;
+
+  GeodesicWGS84() { super(a_, f_); }
+
+  @Override protected double A3f(double eps) {
+    double y;
+    y = -0.0234375;
+    y = y * eps - 0.046927475637074494;
+    y = y * eps - 0.06281503005876607;
+    y = y * eps - 0.2502088451303832;
+    y = y * eps - 0.49916038980680816;
+    y = y * eps + 1.0;
+    return y;
+  }
+
+  @Override protected void C3f(double eps, double c[]) {
+    double mult = eps, y;
+    y = 0.0234375;
+    y = y * eps + 0.03908873781853724;
+    y = y * eps + 0.04695366939653196;
+    y = y * eps + 0.12499964752736174;
+    y = y * eps + 0.24958019490340408;
+    c[1] = mult * y;
+    mult *= eps;
+    y = 0.01953125;
+    y = y * eps + 0.02345061890926862;
+    y = y * eps + 0.046822392185686165;
+    y = y * eps + 0.062342661206936094;
+    c[2] = mult * y;
+    mult *= eps;
+    y = 0.013671875;
+    y = y * eps + 0.023393770302437927;
+    y = y * eps + 0.025963026642854565;
+    c[3] = mult * y;
+    mult *= eps;
+    y = 0.013671875;
+    y = y * eps + 0.01362595881755982;
+    c[4] = mult * y;
+    mult *= eps;
+    y = 0.008203125;
+    c[5] = mult * y;
+  }
+
+  @Override protected void C4f(double eps, double c[]) {
+    double mult = eps, y;
+    y = 0.00646020646020646;
+    y = y * eps + 0.0035037627212872787;
+    y = y * eps + 0.034742279454780166;
+    y = y * eps - 0.01921732223244865;
+    y = y * eps - 0.19923321555984239;
+    y = y * eps + 0.6662190894642603;
+    c[0] = y;
+    y = 1.11000111000111E-4;
+    y = y * eps + 0.003426620602971002;
+    y = y * eps - 0.009510765372597735;
+    y = y * eps - 0.01893413691235592;
+    y = y * eps + 0.0221370239510936;
+    c[1] = mult * y;
+    mult *= eps;
+    y = 7.459207459207459E-4;
+    y = y * eps - 0.004142006291321442;
+    y = y * eps - 0.00504225176309005;
+    y = y * eps + 0.007584982177746079;
+    c[2] = mult * y;
+    mult *= eps;
+    y = -0.0021565735851450138;
+    y = y * eps - 0.001962613370670692;
+    y = y * eps + 0.0036104265913438913;
+    c[3] = mult * y;
+    mult *= eps;
+    y = -9.472009472009472E-4;
+    y = y * eps + 0.0020416649913317735;
+    c[4] = mult * y;
+    mult *= eps;
+    y = 0.0012916376552740189;
+    c[5] = mult * y;
+  }
+}
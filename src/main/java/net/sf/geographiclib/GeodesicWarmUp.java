@@ -0,0 +1,208 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicWarmUp class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+import java.util.Random;
+
+/**
+ * Warm up the just-in-time compiler for the geodesic routines.
+ * <p>
+ * When a JVM starts, the geodesic routines are interpreted and then compiled
+ * in stages; until the optimizing compiler has compiled the main routines
+ * (the solution of the inverse problem, Lambda12, Lengths, SinCosSeries,
+ * etc.), the calculations can be several times slower than in the steady
+ * state.  A server can avoid these slow calls by running a synthetic workload
+ * before accepting requests.  This class supplies such a workload.  Each
+ * round of the workload solves inverse problems which take each of the paths
+ * listed in {@link GeodesicListener} (meridional, equatorial, short, nearly
+ * antipodal, Newton's method, and, using a very oblate ellipsoid, the
+ * bisection fallback), computes the distance alone, solves the direct
+ * problem, computes positions on a {@link GeodesicLine}, and computes the
+ * area of a {@link PolygonArea}.  Exercising the rare paths is important
+ * because the optimizing compiler uses the profile gathered up to that point
+ * and code which has never been executed is compiled as a trap back to the
+ * interpreter.
+ * <p>
+ * The time taken by each round is measured and the rounds are repeated until
+ * the shortest time for a round has not improved by more than 5% over the
+ * last 500 rounds, at which point the compilation is taken to have reached
+ * the steady state.  (There is no portable way to ask the JVM directly
+ * whether a method has been compiled by the optimizing compiler.)  This
+ * typically takes about 1 s.  A time limit bounds the cost if the steady
+ * state is not reached, e.g., because the machine is busy.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicWarmUp warm = Geodesic.WGS84.WarmUp();
+ * System.out.println("Warm up " + (warm.Converged() ? "done" : "timed out")
+ *                    + " after " + warm.Rounds() + " rounds; "
+ *                    + warm.RoundNanos() + " ns per round"); }</pre>
+ **********************************************************************/
+public class GeodesicWarmUp {
+
+  /**
+   * The default time limit for {@link #Run Run} (nanoseconds), 10 s.
+   **********************************************************************/
+  public static final long DEFAULT_TIMEOUT = 10000000000L;
+
+  // The number of rounds without an improvement of more than tol_ in the
+  // best time for a round which signals the steady state
+  private static final int window_ = 500;
+  private static final double tol_ = 0.05;
+  // The number of random inverse problems in a round
+  private static final int random_ = 32;
+
+  private final Geodesic _earth, _oblate, _sphere;
+  // The inverse problems: lat1, lon1, lat2, lon2
+  private final double _cases[][];
+  private final GeodesicWorkspace _w;
+  private final GeodesicData _r;
+  private int _rounds;
+  private long _nanos, _roundnanos;
+  private boolean _converged;
+  // Accumulate the results so that the calculations are not optimized away
+  private double _sink;
+
+  /**
+   * Constructor for a GeodesicWarmUp.
+   * <p>
+   * @param earth the {@link Geodesic} object which is used by the
+   *   application.
+   * @exception GeographicErr if <i>earth</i> is null.
+   **********************************************************************/
+  public GeodesicWarmUp(Geodesic earth) {
+    if (earth == null)
+      throw new GeographicErr("Geodesic object is missing");
+    _earth = earth;
+    _oblate = Geodesic.of(earth.EquatorialRadius(), 1/2.0);
+    _sphere = Geodesic.of(earth.EquatorialRadius(), 0);
+    _w = new GeodesicWorkspace();
+    _r = new GeodesicData();
+    final double special[][] = {
+      {10, 20, 30, 20},                   // meridian
+      {-90, 0, 90, 33},                   // meridian through the poles
+      {0, 10, 0, 40},                     // equatorial
+      {40, 20, 40.00000001, 20.00000001}, // short
+      {-30, 0, 29.5, 179.5},              // Newton
+      {0, 0, 0.5, 179.7},                 // nearly antipodal
+      {-30, 0, 30, 179.9999},             // nearly antipodal
+    };
+    _cases = new double[special.length + random_][];
+    System.arraycopy(special, 0, _cases, 0, special.length);
+    Random random = new Random(20260109L);
+    for (int i = special.length; i < _cases.length; ++i)
+      _cases[i] = new double[] {
+        Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)),
+        360 * random.nextDouble() - 180,
+        Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)),
+        360 * random.nextDouble() - 180 };
+    Reset();
+  }
+
+  /**
+   * Run the workload until the steady state is reached.
+   * <p>
+   * @param timeout the time limit (nanoseconds).
+   * @return whether the steady state was reached (i.e., the value of {@link
+   *   #Converged Converged}).
+   * <p>
+   * This may be called again, e.g., with a longer time limit, to continue the
+   * warm up.  The calculations are carried out in the calling thread.
+   **********************************************************************/
+  public boolean Run(long timeout) {
+    long start = System.nanoTime();
+    long best = _roundnanos == 0 ? Long.MAX_VALUE : _roundnanos;
+    int since = 0;          // rounds since the last significant improvement
+    _converged = false;
+    while (System.nanoTime() - start < timeout) {
+      long t = System.nanoTime();
+      Round();
+      t = System.nanoTime() - t;
+      ++_rounds;
+      if (t < (1 - tol_) * best) {
+        best = t; since = 0;
+      } else {
+        best = Math.min(best, t);
+        if (++since >= window_) {
+          _converged = true;
+          break;
+        }
+      }
+    }
+    _roundnanos = best;
+    _nanos += System.nanoTime() - start;
+    return _converged;
+  }
+
+  /**
+   * Reset the counts and times.
+   **********************************************************************/
+  public void Reset() {
+    _rounds = 0; _nanos = _roundnanos = 0; _converged = false;
+  }
+
+  /**
+   * @return whether the last call to {@link #Run Run} reached the steady
+   *   state.
+   **********************************************************************/
+  public boolean Converged() { return _converged; }
+
+  /**
+   * @return the number of rounds of the workload carried out.
+   **********************************************************************/
+  public int Rounds() { return _rounds; }
+
+  /**
+   * @return the total time spent in {@link #Run Run} (nanoseconds).
+   **********************************************************************/
+  public long Nanos() { return _nanos; }
+
+  /**
+   * @return the shortest time for a round (nanoseconds); in the steady state
+   *   this is the cost of the workload with compiled code.
+   **********************************************************************/
+  public long RoundNanos() { return _roundnanos; }
+
+  // One round of the workload
+  private void Round() {
+    GeodesicWorkspace w = _w;
+    GeodesicData r = _r;
+    double sum = 0;
+    for (double c[] : _cases) {
+      GeodesicData g = _earth.Inverse(c[0], c[1], c[2], c[3],
+                                      GeodesicMask.ALL);
+      sum += g.s12 + g.azi1 + g.m12 + g.M12 + g.S12;
+      _earth.Inverse(r, w, c[0], c[1], c[2], c[3], GeodesicMask.STANDARD);
+      sum += r.s12;
+      sum += _earth.Distance(w, c[0], c[1], c[2], c[3]);
+      g = _earth.Direct(c[0], c[1], g.azi1, g.s12, GeodesicMask.ALL);
+      sum += g.lat2 + g.lon2 + g.S12;
+      g = _earth.ArcDirect(c[0], c[1], c[2], c[3], GeodesicMask.STANDARD);
+      sum += g.lat2 + g.lon2;
+      GeodesicLine l = _earth.InverseLine(c[0], c[1], c[2], c[3],
+                                          GeodesicMask.ALL);
+      g = l.Position(l.Distance() / 2, GeodesicMask.STANDARD);
+      sum += g.lat2 + g.lon2;
+      g = l.ArcPosition(l.Arc() / 3, GeodesicMask.ALL);
+      sum += g.lat2 + g.m12;
+      sum += _sphere.Inverse(c[0], c[1], c[2], c[3]).s12;
+    }
+    // The bisection fallback
+    sum += _oblate.Inverse(41.5, 0, -41.7, 178.4).s12;
+    // A polygon with the first points of the random cases as vertices
+    PolygonArea poly = new PolygonArea(_earth, false);
+    for (int i = _cases.length - random_; i < _cases.length; ++i)
+      poly.AddPoint(_cases[i][0], _cases[i][1]);
+    PolygonResult p = poly.Compute(false, true);
+    sum += p.area + p.perimeter;
+    p = poly.TestPoint(_cases[0][2], _cases[0][3], false, true);
+    sum += p.area;
+    _sink += sum;
+  }
+}
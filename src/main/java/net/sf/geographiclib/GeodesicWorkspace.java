@@ -0,0 +1,88 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicWorkspace class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * Scratch storage for geodesic calculations.
+ * <p>
+ * The solution of the inverse geodesic problem needs a number of temporary
+ * objects and coefficient arrays.  {@link Geodesic#Inverse(double, double,
+ * double, double, int) Geodesic.Inverse} allocates these afresh on each call.
+ * A GeodesicWorkspace holds this storage so that it can be reused from one
+ * call to the next by passing it to {@link Geodesic#Inverse(GeodesicData,
+ * GeodesicWorkspace, double, double, double, double, int) Geodesic.Inverse};
+ * in the steady state, no memory is then allocated.
+ * <p>
+ * A GeodesicWorkspace may be used with any {@link Geodesic} object.  It holds
+ * mutable state and so must not be used by more than one thread at a time;
+ * the usual pattern is to give each worker thread its own workspace.
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * GeodesicWorkspace w = new GeodesicWorkspace();
+ * GeodesicData g = new GeodesicData();
+ * for (int i = 0; i < n; ++i) {
+ *   Geodesic.WGS84.Inverse(g, w, lat1[i], lon1[i], lat2[i], lon2[i],
+ *                          GeodesicMask.DISTANCE);
+ *   s12[i] = g.s12;
+ * }}</pre>
+ **********************************************************************/
+public class GeodesicWorkspace {
+  // The workspaces used by the worker threads of the parallel routines; these
+  // don't depend on the ellipsoid, so they are shared by all instances.
+  private static final ThreadLocal<GeodesicWorkspace> local_ =
+    new ThreadLocal<GeodesicWorkspace>() {
+      @Override protected GeodesicWorkspace initialValue() {
+        return new GeodesicWorkspace();
+      }
+    };
+
+  final Pair p;
+  final Geodesic.LengthsV v;
+  final Geodesic.InverseStartV s;
+  final Geodesic.Lambda12V l;
+  // index zero elements of C1a and C2a are unused
+  final double C1a[], C2a[], C3a[], C4a[];
+  // Scratch results and a reusable line for the batch routines
+  final GeodesicData g;
+  final GeodesicLine line;
+  // The azimuths at the end points and the number of iterations returned by
+  // Geodesic.InverseInt
+  double salp1, calp1, salp2, calp2;
+  int numit;
+  // The warm start for Geodesic.InverseInt (if not null)
+  GeodesicHint hint;
+  // Scratch space for the blocked direct solution; allocated when needed
+  private GeodesicBlock _block;
+
+  /**
+   * Constructor for a GeodesicWorkspace.
+   **********************************************************************/
+  public GeodesicWorkspace() {
+    p = new Pair();
+    v = new Geodesic.LengthsV();
+    s = new Geodesic.InverseStartV();
+    l = new Geodesic.Lambda12V();
+    C1a = new double[Geodesic.nC1_ + 1];
+    C2a = new double[Geodesic.nC2_ + 1];
+    C3a = new double[Geodesic.nC3_];
+    C4a = new double[Geodesic.nC4_];
+    g = new GeodesicData();
+    line = new GeodesicLine();
+    salp1 = calp1 = salp2 = calp2 = Double.NaN;
+  }
+
+  GeodesicBlock Block() {
+    if (_block == null) _block = new GeodesicBlock();
+    return _block;
+  }
+
+  // The workspace for the current thread.
+  static GeodesicWorkspace Local() { return local_.get(); }
+}
@@ -0,0 +1,22 @@
+/**
+ * Implementation of the net.sf.geographiclib.VectorSupport class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * Select the implementation of {@link GeodesicKernel}.
+ * <p>
+ * This version is used with Java 8 through 16 and always returns the scalar
+ * kernel.  The multi-release jar contains a replacement for this class (in
+ * META-INF/versions/17) which returns a kernel using the vector API, if it
+ * is available.
+ **********************************************************************/
+final class VectorSupport {
+  private VectorSupport() {}
+
+  static GeodesicKernel Kernel() { return new GeodesicKernel(); }
+}
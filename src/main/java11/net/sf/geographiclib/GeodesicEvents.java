@@ -0,0 +1,85 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicEvents class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Record the solutions of the inverse geodesic problem as JDK Flight
+ * Recorder events.
+ * <p>
+ * This {@link GeodesicListener} emits a net.sf.geographiclib.Inverse event
+ * for each inverse problem giving the end points, the path taken, the number
+ * of iterations, and the time taken.  The event is disabled by default; it
+ * is enabled with, e.g.,
+ * <pre>
+ * {@code
+ * java -XX:StartFlightRecording:net.sf.geographiclib.Inverse#enabled=true ...}</pre>
+ * or by enabling it in a {@link jdk.jfr.Recording}.  The event is created
+ * after the solution is complete, so its own duration is meaningless (and
+ * JFR thresholds should not be used); the time taken is given by its
+ * <i>elapsed</i> field.
+ * <p>
+ * This class uses the jdk.jfr module, so it is kept in a separate source tree
+ * (src/main/java11) which is compiled into the Java 11 section of the
+ * multi-release jar.  It is only available when running on Java 11 or later
+ * and when the jar has been built with JDK 17 or later (the java17 profile).
+ * <p>
+ * Example of use:
+ * <pre>
+ * {@code
+ * Geodesic.SetListener(new GeodesicEvents());}</pre>
+ **********************************************************************/
+public class GeodesicEvents implements GeodesicListener {
+
+  @Name("net.sf.geographiclib.Inverse")
+  @Label("Geodesic Inverse")
+  @Description("Solution of the inverse geodesic problem")
+  @Category("GeographicLib")
+  @Enabled(false)
+  static class InverseEvent extends Event {
+    @Label("Latitude 1") double lat1;
+    @Label("Longitude 1") double lon1;
+    @Label("Latitude 2") double lat2;
+    @Label("Longitude 2") double lon2;
+    @Label("Path") String path;
+    @Label("Iterations") int numit;
+    @Label("Bisections") int bisections;
+    @Label("Elapsed") @Timespan(Timespan.NANOSECONDS) long elapsed;
+  }
+
+  private static final String names_[] =
+  { "meridian", "equatorial", "short", "newton", "spherical" };
+
+  /**
+   * Constructor for a GeodesicEvents.
+   **********************************************************************/
+  public GeodesicEvents() {}
+
+  /**
+   * Record the solution of an inverse problem (see {@link
+   * GeodesicListener#Inverse GeodesicListener.Inverse}).
+   **********************************************************************/
+  @Override
+  public void Inverse(double lat1, double lon1, double lat2, double lon2,
+                      int path, int numit, int bisections, long nanos) {
+    InverseEvent e = new InverseEvent();
+    if (e.shouldCommit()) {
+      e.lat1 = lat1; e.lon1 = lon1; e.lat2 = lat2; e.lon2 = lon2;
+      e.path = names_[path]; e.numit = numit; e.bisections = bisections;
+      e.elapsed = nanos;
+      e.commit();
+    }
+  }
+}
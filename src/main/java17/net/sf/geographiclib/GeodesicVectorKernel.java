@@ -0,0 +1,120 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicVectorKernel class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The series evaluations for a block of geodesics using the vector API.
+ * <p>
+ * This advances {@link DoubleVector#SPECIES_PREFERRED}.length() geodesics in
+ * lockstep through each of the routines of {@link GeodesicKernel}.  Only
+ * lanewise addition, subtraction, multiplication, and division are used and
+ * these are carried out in the same order as in the scalar routines, so the
+ * results are identical.  The trailing partial vector is handled with a mask.
+ **********************************************************************/
+class GeodesicVectorKernel extends GeodesicKernel {
+
+  private static final VectorSpecies<Double> S = DoubleVector.SPECIES_PREFERRED;
+
+  GeodesicVectorKernel() {
+    // Fail here (and so fall back to the scalar kernel) if the vector API
+    // can't be used.
+    S.length();
+  }
+
+  @Override String Name() { return "vector" + S.length(); }
+
+  // The polynomial p[s..s+m] evaluated for x.
+  private static DoubleVector polyval(int m, double p[], int s,
+                                      DoubleVector x) {
+    DoubleVector y = DoubleVector.broadcast(S, m < 0 ? 0 : p[s++]);
+    while (--m >= 0) y = y.mul(x).add(p[s++]);
+    return y;
+  }
+
+  @Override
+  void Polyval(int m, double coeff[], double x[], double y[], int n) {
+    for (int k = 0; k < n; k += S.length()) {
+      VectorMask<Double> w = S.indexInRange(k, n);
+      polyval(m, coeff, 0, DoubleVector.fromArray(S, x, k, w))
+        .intoArray(y, k, w);
+    }
+  }
+
+  @Override
+  void A1m1f(int m, double coeff[], double eps[], double y[], int n) {
+    for (int k = 0; k < n; k += S.length()) {
+      VectorMask<Double> w = S.indexInRange(k, n);
+      DoubleVector e = DoubleVector.fromArray(S, eps, k, w),
+        t = polyval(m, coeff, 0, e.mul(e)).div(coeff[m + 1]);
+      t.add(e).div(DoubleVector.broadcast(S, 1).sub(e)).intoArray(y, k, w);
+    }
+  }
+
+  @Override
+  void C1f(int nc, double coeff[], double eps[], double c[], int n) {
+    for (int k = 0; k < n; k += S.length()) {
+      VectorMask<Double> w = S.indexInRange(k, n);
+      DoubleVector e = DoubleVector.fromArray(S, eps, k, w),
+        eps2 = e.mul(e), d = e;
+      int o = 0;
+      for (int l = 1; l <= nc; ++l) {
+        int m = (nc - l) / 2;
+        d.mul(polyval(m, coeff, o, eps2)).div(coeff[o + m + 1])
+          .intoArray(c, l * n + k, w);
+        o += m + 2;
+        d = d.mul(e);
+      }
+    }
+  }
+
+  @Override
+  void C3f(int nc, double coeff[], double eps[], double c[], int n) {
+    for (int k = 0; k < n; k += S.length()) {
+      VectorMask<Double> w = S.indexInRange(k, n);
+      DoubleVector e = DoubleVector.fromArray(S, eps, k, w),
+        mult = DoubleVector.broadcast(S, 1);
+      int o = 0;
+      for (int l = 1; l < nc; ++l) {
+        int m = nc - l - 1;
+        mult = mult.mul(e);
+        mult.mul(polyval(m, coeff, o, e)).intoArray(c, l * n + k, w);
+        o += m + 1;
+      }
+    }
+  }
+
+  @Override
+  void SinCosSeries(boolean sinp, double sinx[], double cosx[],
+                    double c[], int len, double y[], int n) {
+    for (int k = 0; k < n; k += S.length()) {
+      VectorMask<Double> w = S.indexInRange(k, n);
+      int
+        j = len,                // Point to one beyond last element
+        nn = j - (sinp ? 1 : 0);
+      DoubleVector s = DoubleVector.fromArray(S, sinx, k, w),
+        t = DoubleVector.fromArray(S, cosx, k, w),
+        ar = t.sub(s).mul(2).mul(t.add(s)), // 2 * cos(2 * x)
+        y0 = (nn & 1) != 0 ? DoubleVector.fromArray(S, c, --j * n + k, w) :
+        DoubleVector.zero(S),
+        y1 = DoubleVector.zero(S);
+      nn /= 2;
+      while (nn-- != 0) {
+        y1 = ar.mul(y0).sub(y1).add(DoubleVector.fromArray(S, c, --j * n + k, w));
+        y0 = ar.mul(y1).sub(y0).add(DoubleVector.fromArray(S, c, --j * n + k, w));
+      }
+      (sinp
+       ? s.mul(2).mul(t).mul(y0)    // sin(2 * x) * y0
+       : t.mul(y0.sub(y1)))         // cos(x) * (y0 - y1)
+        .intoArray(y, k, w);
+    }
+  }
+}
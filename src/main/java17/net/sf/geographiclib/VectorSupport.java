@@ -0,0 +1,34 @@
+/**
+ * Implementation of the net.sf.geographiclib.VectorSupport class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+/**
+ * Select the implementation of {@link GeodesicKernel}.
+ * <p>
+ * This version is used with Java 17 and later.  It returns {@link
+ * GeodesicVectorKernel} if the module jdk.incubator.vector has been resolved
+ * (e.g., with the java option --add-modules jdk.incubator.vector) and the
+ * system property geographiclib.vector is not set to false.  Otherwise it
+ * returns the scalar kernel.
+ **********************************************************************/
+final class VectorSupport {
+  private VectorSupport() {}
+
+  static GeodesicKernel Kernel() {
+    if (!"false".equals(System.getProperty("geographiclib.vector")) &&
+        ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+      try {
+        return new GeodesicVectorKernel();
+      }
+      catch (LinkageError | RuntimeException e) {
+        // Fall through to the scalar kernel
+      }
+    }
+    return new GeodesicKernel();
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Implementation of the net.sf.geographiclib.GeodesicGenerator class
+ *
+ * Copyright (c) Charles Karney (2026) <charles@karney.com> and licensed
+ * under the MIT/X11 License.  For more information, see
+ * https://geographiclib.sourceforge.io/
+ **********************************************************************/
+package net.sf.geographiclib;
+
+import java.io.PrintStream;
+
+/**
+ * Generate the source for a Geodesic class specialized to one ellipsoid.
+ * <p>
+ * The coefficients of the series A3, C3, and C4 depend on the flattening of
+ * the ellipsoid and are computed by the constructor of {@link Geodesic}.
+ * This class writes out a subclass of Geodesic, for given <i>a</i> and
+ * <i>f</i>, in which A3f, C3f, and C4f evaluate these polynomials with
+ * coefficients which are compile-time constants.  The literals are written
+ * with enough digits to reproduce the doubles exactly and the operations are
+ * carried out in the same order as in Geodesic, so the results are
+ * identical.  This is a build-time tool and is kept in the test tree so that
+ * it is not included in the library jar.  GeodesicWGS84.java was generated
+ * with (this is what "make generate" does)
+ * <pre>
+ * {@code
+ * mvn -q test-compile
+ * java -cp target/classes:target/test-classes \
+ *   net.sf.geographiclib.GeodesicGenerator \
+ *   GeodesicWGS84 6378137 298.257223563 \
+ *   > src/main/java/net/sf/geographiclib/GeodesicWGS84.java}</pre>
+ * As in the command line utilities of GeographicLib, a value of <i>f</i>
+ * greater than 1 is interpreted as the inverse flattening.
+ **********************************************************************/
+final class GeodesicGenerator {
+  private GeodesicGenerator() {}
+
+  public static void main(String[] args) {
+    if (args.length != 3) {
+      System.err.println("Usage: GeodesicGenerator classname a f");
+      System.exit(1);
+    }
+    double a = Double.parseDouble(args[1]), f = Double.parseDouble(args[2]);
+    if (f > 1) f = 1/f;
+    System.out.print(Source(args[0], a, f));
+  }
+
+  /**
+   * @param name the name of the class.
+   * @param a equatorial radius (meters).
+   * @param f flattening of ellipsoid.
+   * @return the source for the class.
+   **********************************************************************/
+  static String Source(String name, double a, double f) {
+    Geodesic g = new Geodesic(a, f);
+    java.io.ByteArrayOutputStream b = new java.io.ByteArrayOutputStream();
+    PrintStream s = new PrintStream(b);
+    s.print
+      ("/**\n" +
+       " * Implementation of the net.sf.geographiclib." + name + " class\n" +
+       " *\n" +
+       " * Copyright (c) Charles Karney (2026) <charles@karney.com> and " +
+       "licensed\n" +
+       " * under the MIT/X11 License.  For more information, see\n" +
+       " * https://geographiclib.sourceforge.io/\n" +
+       " *\n" +
+       " * This file was generated by GeodesicGenerator; do not edit.\n" +
+       " **********************************************************************/\n" +
+       "package net.sf.geographiclib;\n" +
+       "\n" +
+       "/**\n" +
+       " * Geodesic calculations for the ellipsoid with <i>a</i> = " +
+       a + " m and\n" +
+       " * <i>f</i> = " + f + ".\n" +
+       " * <p>\n" +
+       " * The coefficients of the series A3, C3, and C4 are compile-time " +
+       "constants.\n" +
+       " * The results are identical to those of Geodesic.\n" +
+       " **********************************************************************/\n" +
+       "final class " + name + " extends Geodesic {\n" +
+       "\n" +
+       "  static final double a_ = " + a + ", f_ = " + f + ";\n" +
+       "\n" +
+       "  " + name + "() { super(a_, f_); }\n");
+    // A3f
+    s.print("\n" +
+            "  @Override protected double A3f(double eps) {\n" +
+            "    double y;\n");
+    Polyval(s, Geodesic.nA3_ - 1, g._A3x, 0);
+    s.print("    return y;\n" +
+            "  }\n");
+    // C3f
+    s.print("\n" +
+            "  @Override protected void C3f(double eps, double c[]) {\n" +
+            "    double mult = eps, y;\n");
+    for (int l = 1, o = 0; l < Geodesic.nC3_; ++l) {
+      int m = Geodesic.nC3_ - l - 1;
+      if (l > 1) s.print("    mult *= eps;\n");
+      Polyval(s, m, g._C3x, o);
+      s.print("    c[" + l + "] = mult * y;\n");
+      o += m + 1;
+    }
+    s.print("  }\n");
+    // C4f
+    s.print("\n" +
+            "  @Override protected void C4f(double eps, double c[]) {\n" +
+            "    double mult = eps, y;\n");
+    for (int l = 0, o = 0; l < Geodesic.nC4_; ++l) {
+      int m = Geodesic.nC4_ - l - 1;
+      if (l > 1) s.print("    mult *= eps;\n");
+      Polyval(s, m, g._C4x, o);
+      // Geodesic.C4f multiplies c[0] by 1, which is exact
+      s.print("    c[" + l + "] = " + (l > 0 ? "mult * " : "") + "y;\n");
+      o += m + 1;
+    }
+    s.print("  }\n" +
+            "}\n");
+    s.flush();
+    return b.toString();
+  }
+
+  // Write out the statements evaluating GeoMath.polyval(m, p, o, eps) into
+  // y.
+  private static void Polyval(PrintStream s, int m, double p[], int o) {
+    s.print("    y = " + p[o] + ";\n");
+    for (int i = 1; i <= m; ++i) {
+      double c = p[o + i];
+      // y - c and y + (-c) are the same
+      s.print("    y = y * eps " + (c < 0 || (c == 0 && 1/c < 0) ?
+                                    "- " + (-c) : "+ " + c) + ";\n");
+    }
+  }
+}
@@ -2,6 +2,7 @@ package net.sf.geographiclib;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import java.util.Random;
 import org.junit.Test;
 
 public class GeodesicTest {
@@ -27,6 +28,17 @@ public class GeodesicTest {
     return polyline.Compute(false, true);
   }
 
+  // A random latitude such that the points are uniformly distributed on the
+  // sphere.
+  private static double RandomLat(Random r) {
+    return Math.toDegrees(Math.asin(2 * r.nextDouble() - 1));
+  }
+
+  // A random longitude in [-180, 180).
+  private static double RandomLon(Random r) {
+    return 360 * r.nextDouble() - 180;
+  }
+
   private static final double testcases[][] = {
     {35.60777, -139.44815, 111.098748429560326,
      -11.17491, -69.95921, 129.289270889708762,
@@ -176,6 +188,497 @@ public class GeodesicTest {
     }
   }
 
+  @Test
+  public void InverseWorkspaceCheck() {
+    // Check that reusing a GeodesicWorkspace and GeodesicData gives
+    // bit-for-bit the same results as the allocating version of Inverse.
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    GeodesicData inv = new GeodesicData();
+    int masks[] = {GeodesicMask.ALL | GeodesicMask.LONG_UNROLL,
+                   GeodesicMask.DISTANCE, GeodesicMask.AZIMUTH,
+                   GeodesicMask.AREA, GeodesicMask.STANDARD};
+    for (int mask : masks) {
+      for (int i = 0; i < testcases.length; ++i) {
+        double
+          lat1 = testcases[i][0], lon1 = testcases[i][1],
+          lat2 = testcases[i][3], lon2 = testcases[i][4];
+        GeodesicData ref = Geodesic.WGS84.Inverse(lat1, lon1, lat2, lon2,
+                                                  mask);
+        Geodesic.WGS84.Inverse(inv, w, lat1, lon1, lat2, lon2, mask);
+        assertEquals(ref.lat1, inv.lat1, 0);
+        assertEquals(ref.lon1, inv.lon1, 0);
+        assertEquals(ref.azi1, inv.azi1, 0);
+        assertEquals(ref.lat2, inv.lat2, 0);
+        assertEquals(ref.lon2, inv.lon2, 0);
+        assertEquals(ref.azi2, inv.azi2, 0);
+        assertEquals(ref.s12, inv.s12, 0);
+        assertEquals(ref.a12, inv.a12, 0);
+        assertEquals(ref.m12, inv.m12, 0);
+        assertEquals(ref.M12, inv.M12, 0);
+        assertEquals(ref.M21, inv.M21, 0);
+        assertEquals(ref.S12, inv.S12, 0);
+      }
+    }
+  }
+
+  @Test
+  public void InverseArraysCheck() {
+    // Check that the batch version of Inverse gives bit-for-bit the same
+    // results as the scalar version; start the batch at an offset of 1.
+    int n = testcases.length, off = 1;
+    GeodesicArrays g = new GeodesicArrays();
+    g.lat1 = new double[n + off]; g.lon1 = new double[n + off];
+    g.lat2 = new double[n + off]; g.lon2 = new double[n + off];
+    g.azi1 = new double[n + off]; g.azi2 = new double[n + off];
+    g.s12 = new double[n + off]; g.a12 = new double[n + off];
+    g.m12 = new double[n + off]; g.M12 = new double[n + off];
+    g.M21 = new double[n + off]; g.S12 = new double[n + off];
+    for (int i = 0; i < n; ++i) {
+      g.lat1[i + off] = testcases[i][0]; g.lon1[i + off] = testcases[i][1];
+      g.lat2[i + off] = testcases[i][3]; g.lon2[i + off] = testcases[i][4];
+    }
+    Geodesic.WGS84.Inverse(g, off, n, GeodesicMask.ALL);
+    for (int i = 0; i < n; ++i) {
+      GeodesicData ref = Geodesic.WGS84.Inverse(testcases[i][0],
+                                                testcases[i][1],
+                                                testcases[i][3],
+                                                testcases[i][4],
+                                                GeodesicMask.ALL);
+      assertEquals(ref.azi1, g.azi1[i + off], 0);
+      assertEquals(ref.azi2, g.azi2[i + off], 0);
+      assertEquals(ref.s12, g.s12[i + off], 0);
+      assertEquals(ref.a12, g.a12[i + off], 0);
+      assertEquals(ref.m12, g.m12[i + off], 0);
+      assertEquals(ref.M12, g.M12[i + off], 0);
+      assertEquals(ref.M21, g.M21[i + off], 0);
+      assertEquals(ref.S12, g.S12[i + off], 0);
+    }
+    // Only the distances are requested; the other outputs may be null.
+    GeodesicArrays h = new GeodesicArrays();
+    h.lat1 = g.lat1; h.lon1 = g.lon1; h.lat2 = g.lat2; h.lon2 = g.lon2;
+    h.s12 = new double[n + off];
+    Geodesic.WGS84.Inverse(h, off, n, GeodesicMask.DISTANCE);
+    for (int i = 0; i < n; ++i)
+      assertEquals(g.s12[i + off], h.s12[i + off], 0);
+  }
+
+  @Test
+  public void DirectArraysCheck() {
+    // Check that the batch versions of Direct and ArcDirect give bit-for-bit
+    // the same results as the scalar versions.
+    int n = testcases.length;
+    int masks[] = {GeodesicMask.ALL | GeodesicMask.LONG_UNROLL,
+                   GeodesicMask.ALL, GeodesicMask.STANDARD};
+    for (int mask : masks) {
+      for (int k = 0; k < 2; ++k) {
+        boolean arcmode = k == 1;
+        GeodesicArrays g = new GeodesicArrays();
+        g.lat1 = new double[n]; g.lon1 = new double[n];
+        g.azi1 = new double[n]; g.s12 = new double[n]; g.a12 = new double[n];
+        g.lat2 = new double[n]; g.lon2 = new double[n];
+        g.azi2 = new double[n]; g.m12 = new double[n];
+        g.M12 = new double[n]; g.M21 = new double[n]; g.S12 = new double[n];
+        for (int i = 0; i < n; ++i) {
+          g.lat1[i] = testcases[i][0]; g.lon1[i] = testcases[i][1];
+          g.azi1[i] = testcases[i][2];
+          g.s12[i] = testcases[i][6]; g.a12[i] = testcases[i][7];
+        }
+        if (arcmode)
+          Geodesic.WGS84.ArcDirect(g, 0, n, mask);
+        else
+          Geodesic.WGS84.Direct(g, 0, n, mask);
+        for (int i = 0; i < n; ++i) {
+          GeodesicData ref = Geodesic.WGS84.Direct(testcases[i][0],
+                                                   testcases[i][1],
+                                                   testcases[i][2], arcmode,
+                                                   testcases[i][arcmode ?
+                                                                7 : 6],
+                                                   mask);
+          assertEquals(ref.lat2, g.lat2[i], 0);
+          assertEquals(ref.lon2, g.lon2[i], 0);
+          assertEquals(ref.azi2, g.azi2[i], 0);
+          assertEquals(ref.s12, g.s12[i], 0);
+          assertEquals(ref.a12, g.a12[i], 0);
+          if ((mask & GeodesicMask.ALL) == GeodesicMask.ALL) {
+            assertEquals(ref.m12, g.m12[i], 0);
+            assertEquals(ref.M12, g.M12[i], 0);
+            assertEquals(ref.M21, g.M21[i], 0);
+            assertEquals(ref.S12, g.S12[i], 0);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void ParallelCheck() {
+    // Check that the parallel batch routines give the same results as the
+    // serial ones; use a small grain size to force lots of splitting.
+    int m = 50, n = m * testcases.length;
+    GeodesicArrays ser = new GeodesicArrays(), par = new GeodesicArrays();
+    ser.lat1 = new double[n]; ser.lon1 = new double[n];
+    ser.lat2 = new double[n]; ser.lon2 = new double[n];
+    for (int i = 0; i < n; ++i) {
+      double t[] = testcases[i % testcases.length];
+      ser.lat1[i] = t[0]; ser.lon1[i] = t[1] + i / testcases.length;
+      ser.lat2[i] = t[3]; ser.lon2[i] = t[4];
+    }
+    par.lat1 = ser.lat1; par.lon1 = ser.lon1;
+    par.lat2 = ser.lat2; par.lon2 = ser.lon2;
+    ser.azi1 = new double[n]; ser.azi2 = new double[n];
+    ser.s12 = new double[n]; ser.a12 = new double[n];
+    par.azi1 = new double[n]; par.azi2 = new double[n];
+    par.s12 = new double[n]; par.a12 = new double[n];
+    java.util.concurrent.ForkJoinPool pool =
+      new java.util.concurrent.ForkJoinPool(4);
+    GeodesicParallel engine = new GeodesicParallel(Geodesic.WGS84, pool, 7);
+    Geodesic.WGS84.Inverse(ser, 0, n, GeodesicMask.STANDARD);
+    engine.Inverse(par, 0, n, GeodesicMask.STANDARD);
+    for (int i = 0; i < n; ++i) {
+      assertEquals(ser.azi1[i], par.azi1[i], 0);
+      assertEquals(ser.azi2[i], par.azi2[i], 0);
+      assertEquals(ser.s12[i], par.s12[i], 0);
+      assertEquals(ser.a12[i], par.a12[i], 0);
+    }
+    // Now use the results to solve the direct problems
+    ser.lat2 = new double[n]; ser.lon2 = new double[n];
+    par.lat2 = new double[n]; par.lon2 = new double[n];
+    par.azi1 = ser.azi1; par.s12 = ser.s12;
+    Geodesic.WGS84.Direct(ser, 0, n, GeodesicMask.STANDARD);
+    engine.Direct(par, 0, n, GeodesicMask.STANDARD);
+    for (int i = 0; i < n; ++i) {
+      assertEquals(ser.lat2[i], par.lat2[i], 0);
+      assertEquals(ser.lon2[i], par.lon2[i], 0);
+      assertEquals(ser.azi2[i], par.azi2[i], 0);
+      assertEquals(ser.a12[i], par.a12[i], 0);
+    }
+    pool.shutdown();
+  }
+
+  @Test
+  public void MatrixCheck() {
+    // Check the distance matrices against Inverse.  Include some awkward
+    // points: poles, equator, signed zeros, and equivalent longitudes.
+    int n = testcases.length, k = 10;
+    double lat[] = new double[n + k], lon[] = new double[n + k],
+      lat2[] = new double[n], lon2[] = new double[n];
+    for (int i = 0; i < n; ++i) {
+      lat[i] = testcases[i][0]; lon[i] = testcases[i][1];
+      lat2[i] = testcases[i][3]; lon2[i] = testcases[i][4];
+    }
+    double extra[][] = {{90, 0}, {-90, 30}, {0, 0}, {-0.0, 180},
+                        {0, -0.0}, {0.0, 360}, {45, 540}, {-45, -180},
+                        {30, 0}, {-30, 179.5}};
+    for (int i = 0; i < k; ++i) {
+      lat[n + i] = extra[i][0]; lon[n + i] = extra[i][1];
+    }
+    java.util.concurrent.ForkJoinPool pool =
+      new java.util.concurrent.ForkJoinPool(3);
+    GeodesicMatrix mat = new GeodesicMatrix(Geodesic.WGS84, pool, 4);
+    int m = n + k;
+    double s12[] = new double[m * n];
+    float f12[] = new float[m * n];
+    java.nio.DoubleBuffer b12 = java.nio.DoubleBuffer.allocate(m * n + 1);
+    b12.position(1);
+    mat.Distances(lat, lon, lat2, lon2, s12);
+    mat.Distances(lat, lon, lat2, lon2, f12);
+    mat.Distances(lat, lon, lat2, lon2, b12);
+    for (int i = 0; i < m; ++i) {
+      for (int j = 0; j < n; ++j) {
+        double s = Geodesic.WGS84.Inverse(lat[i], lon[i], lat2[j], lon2[j],
+                                          GeodesicMask.DISTANCE).s12;
+        assertEquals(s, s12[i * n + j], 0);
+        assertEquals((float)s, f12[i * n + j], 0);
+        assertEquals(s, b12.get(1 + i * n + j), 0);
+      }
+    }
+    s12 = new double[m * m];
+    mat.Distances(lat, lon, s12);
+    for (int i = 0; i < m; ++i) {
+      for (int j = 0; j < m; ++j) {
+        double s = i == j ? 0 :
+          Geodesic.WGS84.Inverse(lat[i], lon[i], lat[j], lon[j],
+                                 GeodesicMask.DISTANCE).s12;
+        assertEquals(s, s12[i * m + j], 0);
+      }
+    }
+    pool.shutdown();
+  }
+
+  @Test
+  public void InverseFromCheck() {
+    // Check that GeodesicOrigin gives bit-for-bit the same results as
+    // Inverse, including for the points of testcases as origins and for
+    // awkward points as destinations.
+    double extra[][] = {{90, 0}, {-90, 30}, {0, 0}, {-0.0, 180},
+                        {0, -0.0}, {0.0, 360}, {45, 540}, {-45, -180}};
+    int n = testcases.length, mask = GeodesicMask.ALL;
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    GeodesicData inv = new GeodesicData();
+    for (int i = 0; i < n + extra.length; ++i) {
+      double
+        lat1 = i < n ? testcases[i][0] : extra[i - n][0],
+        lon1 = i < n ? testcases[i][1] : extra[i - n][1];
+      GeodesicOrigin o = Geodesic.WGS84.InverseFrom(lat1, lon1);
+      for (int j = 0; j < n + extra.length; ++j) {
+        double
+          lat2 = j < n ? testcases[j][3] : extra[j - n][0],
+          lon2 = j < n ? testcases[j][4] : extra[j - n][1];
+        GeodesicData ref = Geodesic.WGS84.Inverse(lat1, lon1, lat2, lon2,
+                                                  mask);
+        o.InverseTo(inv, w, lat2, lon2, mask);
+        assertEquals(ref.lat1, inv.lat1, 0);
+        assertEquals(ref.lon1, inv.lon1, 0);
+        assertEquals(ref.azi1, inv.azi1, 0);
+        assertEquals(ref.lat2, inv.lat2, 0);
+        assertEquals(ref.lon2, inv.lon2, 0);
+        assertEquals(ref.azi2, inv.azi2, 0);
+        assertEquals(ref.s12, inv.s12, 0);
+        assertEquals(ref.a12, inv.a12, 0);
+        assertEquals(ref.m12, inv.m12, 0);
+        assertEquals(ref.M12, inv.M12, 0);
+        assertEquals(ref.M21, inv.M21, 0);
+        assertEquals(ref.S12, inv.S12, 0);
+      }
+    }
+    // The batch version
+    GeodesicOrigin o = Geodesic.WGS84.InverseFrom(testcases[0][0],
+                                                  testcases[0][1]);
+    GeodesicArrays g = new GeodesicArrays();
+    g.lat2 = new double[n]; g.lon2 = new double[n];
+    g.azi1 = new double[n]; g.azi2 = new double[n]; g.s12 = new double[n];
+    for (int j = 0; j < n; ++j) {
+      g.lat2[j] = testcases[j][3]; g.lon2[j] = testcases[j][4];
+    }
+    o.InverseTo(g, 0, n, GeodesicMask.STANDARD);
+    for (int j = 0; j < n; ++j) {
+      GeodesicData ref = Geodesic.WGS84.Inverse(testcases[0][0],
+                                                testcases[0][1],
+                                                g.lat2[j], g.lon2[j]);
+      assertEquals(ref.azi1, g.azi1[j], 0);
+      assertEquals(ref.azi2, g.azi2[j], 0);
+      assertEquals(ref.s12, g.s12[j], 0);
+    }
+  }
+
+  @Test
+  public void DirectBlockCheck() {
+    // The batch direct routines handle simple outmasks in blocks; check
+    // these against the scalar routines for random and degenerate inputs
+    // (poles, meridians, the equator) and a length which isn't a multiple of
+    // the block size.  If the system property geographiclib.kernel is set
+    // (as it is when the tests are run against the multi-release jar), also
+    // check that the expected kernel is in use.
+    String kernel = System.getProperty("geographiclib.kernel");
+    if (kernel != null)
+      assertTrue(GeodesicKernel.kernel_.Name().startsWith(kernel));
+    int n = 1000;
+    Random random = new Random(20260101L);
+    GeodesicArrays g = new GeodesicArrays();
+    g.lat1 = new double[n]; g.lon1 = new double[n]; g.azi1 = new double[n];
+    g.s12 = new double[n]; g.a12 = new double[n];
+    for (int i = 0; i < n; ++i) {
+      g.lat1[i] = i % 10 == 0 ? 90 : i % 10 == 1 ? 0 : RandomLat(random);
+      g.lon1[i] = 1080 * random.nextDouble() - 540;
+      g.azi1[i] = i % 7 == 0 ? 180 : i % 7 == 1 ? 90 :
+        540 * random.nextDouble() - 270;
+      g.s12[i] = i % 5 == 0 ? Math.PI * 6356752.3142451793 :
+        4e7 * random.nextDouble() - 2e7;
+      g.a12[i] = i % 5 == 0 ? 90 : 720 * random.nextDouble() - 360;
+    }
+    int masks[] = {GeodesicMask.STANDARD,
+                   GeodesicMask.STANDARD | GeodesicMask.LONG_UNROLL,
+                   GeodesicMask.LATITUDE | GeodesicMask.LONGITUDE,
+                   GeodesicMask.AZIMUTH, GeodesicMask.DISTANCE};
+    int off = 3, len = n - 5;
+    for (int mask : masks) {
+      for (int k = 0; k < 2; ++k) {
+        boolean arcmode = k == 1;
+        g.lat2 = new double[n]; g.lon2 = new double[n]; g.azi2 = new double[n];
+        if (arcmode)
+          g.s12 = new double[n];
+        Geodesic.WGS84.Direct(g, off, len, arcmode, mask);
+        for (int i = off; i < off + len; ++i) {
+          GeodesicData ref = Geodesic.WGS84.Direct(g.lat1[i], g.lon1[i],
+                                                   g.azi1[i], arcmode,
+                                                   arcmode ? g.a12[i] :
+                                                   g.s12[i], mask);
+          if ((mask & GeodesicMask.LATITUDE & GeodesicMask.OUT_ALL) != 0)
+            assertEquals(ref.lat2, g.lat2[i], 0);
+          if ((mask & GeodesicMask.LONGITUDE & GeodesicMask.OUT_ALL) != 0)
+            assertEquals(ref.lon2, g.lon2[i], 0);
+          if ((mask & GeodesicMask.AZIMUTH & GeodesicMask.OUT_ALL) != 0)
+            assertEquals(ref.azi2, g.azi2[i], 0);
+          if ((mask & GeodesicMask.DISTANCE & GeodesicMask.OUT_ALL) != 0)
+            assertEquals(ref.s12, g.s12[i], 0);
+          assertEquals(ref.a12, g.a12[i], 0);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void InverseListenerCheck() {
+    // Check that the paths taken by the inverse solution are reported.
+    GeodesicStatistics stats = new GeodesicStatistics();
+    Geodesic.SetListener(stats);
+    try {
+      Geodesic.WGS84.Inverse(10, 20, 30, 20);       // meridian
+      Geodesic.WGS84.Inverse(0, 10, 0, 40);         // equatorial
+      // short (about 1 mm)
+      Geodesic.WGS84.Inverse(40, 20, 40.00000001, 20.00000001);
+      Geodesic.WGS84.Inverse(-30, 0, 29.5, 179.5);  // Newton
+      // Nearly antipodal on a very oblate ellipsoid needs bisection
+      Geodesic oblate = new Geodesic(6.4e6, 1/2.0);
+      oblate.Inverse(41.5, 0, -41.7, 178.4);
+    }
+    finally {
+      Geodesic.SetListener(null);
+    }
+    assertEquals(1, stats.Calls(GeodesicListener.MERIDIAN));
+    assertEquals(1, stats.Calls(GeodesicListener.EQUATORIAL));
+    assertEquals(1, stats.Calls(GeodesicListener.SHORT));
+    assertEquals(2, stats.Calls(GeodesicListener.NEWTON));
+    assertEquals(5, stats.Calls());
+    long h[] = stats.Numit(), n = 0;
+    for (long c : h) n += c;
+    assertEquals(2, n);
+    assertEquals(0, h[0]);
+    assertEquals(1, stats.Fallbacks());
+    assertTrue(stats.Bisections() > 0);
+    // No further calls once the listener is removed
+    Geodesic.WGS84.Inverse(10, 20, 30, 20);
+    assertEquals(5, stats.Calls());
+    stats.Reset();
+    assertEquals(0, stats.Calls());
+  }
+
+  @Test
+  public void WaypointsCheck() {
+    // Waypoints should match Position to within roundoff, both with the
+    // angle-addition formulas and when falling back to Position.
+    Geodesic geods[] = {Geodesic.WGS84, new Geodesic(6.4e6, 1/20.0)};
+    int mask = GeodesicMask.ALL | GeodesicMask.LONG_UNROLL;
+    final int n = 100;
+    for (Geodesic geod : geods) {
+      GeodesicLine line = new GeodesicLine(geod, 40.64, -73.78, 45,
+                                           GeodesicMask.ALL);
+      for (int k = 0; k < 2; ++k) {
+        boolean arcmode = k == 1;
+        double s0 = arcmode ? -3.3 : -1e5, ds = arcmode ? 3.7 : 4.1e5;
+        final double lat[] = new double[n], lon[] = new double[n],
+          azi[] = new double[n], s12[] = new double[n];
+        line.Waypoints(arcmode, s0, ds, n, mask,
+                       (i, lat2, lon2, azi2, s) -> {
+                         lat[i] = lat2; lon[i] = lon2;
+                         azi[i] = azi2; s12[i] = s;
+                       });
+        GeodesicArrays g = new GeodesicArrays();
+        g.lat2 = new double[n + 2]; g.lon2 = new double[n + 2];
+        g.azi2 = new double[n + 2]; g.s12 = new double[n + 2];
+        g.a12 = new double[n + 2]; g.m12 = new double[n + 2];
+        g.M12 = new double[n + 2]; g.M21 = new double[n + 2];
+        g.S12 = new double[n + 2];
+        line.Waypoints(arcmode, s0, ds, n, mask, g, 2);
+        for (int i = 0; i < n; ++i) {
+          GeodesicData r = line.Position(arcmode, s0 + i * ds, mask);
+          assertEquals(r.lat2, lat[i], 1e-12);
+          assertEquals(r.lon2, lon[i], 1e-12);
+          assertEquals(r.azi2, azi[i], 1e-12);
+          assertEquals(r.s12, s12[i], 1e-8);
+          assertEquals(r.lat2, g.lat2[i + 2], 1e-12);
+          assertEquals(r.lon2, g.lon2[i + 2], 1e-12);
+          assertEquals(r.azi2, g.azi2[i + 2], 1e-12);
+          assertEquals(r.s12, g.s12[i + 2], 1e-8);
+          assertEquals(r.a12, g.a12[i + 2], 1e-12);
+          assertEquals(r.m12, g.m12[i + 2], 1e-8);
+          assertEquals(r.M12, g.M12[i + 2], 1e-14);
+          assertEquals(r.M21, g.M21[i + 2], 1e-14);
+          assertEquals(r.S12, g.S12[i + 2], 0.1);
+        }
+      }
+    }
+    // A line without DISTANCE_IN gives NaNs in distance mode
+    GeodesicLine line = new GeodesicLine(Geodesic.WGS84, 10, 20, 30,
+                                         GeodesicMask.LATITUDE);
+    line.Waypoints(false, 0, 1e5, 3, GeodesicMask.STANDARD,
+                   (i, lat2, lon2, azi2, s12) -> {
+                     assertTrue(Double.isNaN(lat2));
+                     assertTrue(Double.isNaN(lon2));
+                   });
+  }
+
+  @Test
+  public void ConsumerCheck() {
+    // The consumer versions should give identical results to the versions
+    // returning GeodesicData.
+    final int n = 20;
+    Random random = new Random(20260102L);
+    GeodesicArrays g = new GeodesicArrays();
+    g.lat1 = new double[n]; g.lon1 = new double[n]; g.azi1 = new double[n];
+    g.lat2 = new double[n]; g.lon2 = new double[n]; g.s12 = new double[n];
+    for (int i = 0; i < n; ++i) {
+      g.lat1[i] = RandomLat(random);
+      g.lon1[i] = RandomLon(random);
+      g.azi1[i] = 360 * random.nextDouble() - 180;
+      g.lat2[i] = RandomLat(random);
+      g.lon2[i] = RandomLon(random);
+      g.s12[i] = 2e7 * random.nextDouble();
+    }
+    final double a[] = new double[n], b[] = new double[n],
+      c[] = new double[n], d[] = new double[n];
+    Geodesic.WGS84.Inverse(g, 0, n, GeodesicMask.STANDARD,
+                           (i, azi1, azi2, s12) -> {
+                             a[i] = azi1; b[i] = azi2; c[i] = s12;
+                           });
+    for (int i = 0; i < n; ++i) {
+      GeodesicData r = Geodesic.WGS84.Inverse(g.lat1[i], g.lon1[i],
+                                              g.lat2[i], g.lon2[i]);
+      assertEquals(r.azi1, a[i], 0);
+      assertEquals(r.azi2, b[i], 0);
+      assertEquals(r.s12, c[i], 0);
+    }
+    Geodesic.WGS84.Inverse(g, 0, n, GeodesicMask.AZIMUTH,
+                           (i, azi1, azi2, s12) -> { c[i] = s12; });
+    for (int i = 0; i < n; ++i)
+      assertTrue(Double.isNaN(c[i]));
+    Geodesic.WGS84.Direct(g, 0, n, false,
+                          GeodesicMask.STANDARD | GeodesicMask.LONG_UNROLL,
+                          (i, lat2, lon2, azi2, s12) -> {
+                            a[i] = lat2; b[i] = lon2; c[i] = azi2; d[i] = s12;
+                          });
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    for (int i = 0; i < n; ++i) {
+      GeodesicData r = Geodesic.WGS84.Direct(g.lat1[i], g.lon1[i], g.azi1[i],
+                                             g.s12[i],
+                                             GeodesicMask.STANDARD |
+                                             GeodesicMask.LONG_UNROLL);
+      assertEquals(r.lat2, a[i], 0);
+      assertEquals(r.lon2, b[i], 0);
+      assertEquals(r.azi2, c[i], 0);
+      assertEquals(r.s12, d[i], 0);
+      GeodesicLine line = new GeodesicLine(Geodesic.WGS84, g.lat1[i],
+                                           g.lon1[i], g.azi1[i]);
+      final int k = i;
+      line.Position((j, lat2, lon2, azi2, s12) -> {
+          assertEquals(k, j);
+          assertEquals(r.lat2, lat2, 0);
+          assertTrue(Double.isNaN(lon2));
+          assertEquals(r.azi2, azi2, 0);
+          assertEquals(r.s12, s12, 0);
+        }, i, w, false, g.s12[i],
+        GeodesicMask.LATITUDE | GeodesicMask.AZIMUTH | GeodesicMask.DISTANCE);
+    }
+  }
+
+  @Test(expected = GeographicErr.class)
+  public void InverseArraysMissing() {
+    GeodesicArrays g = new GeodesicArrays();
+    g.lat1 = new double[2]; g.lon1 = new double[2];
+    g.lat2 = new double[2]; g.lon2 = new double[2];
+    Geodesic.WGS84.Inverse(g, 0, 2, GeodesicMask.DISTANCE);
+  }
+
   @Test
   public void GeodSolve0() {
     GeodesicData inv = Geodesic.WGS84.Inverse(40.6, -73.8,
@@ -937,4 +1440,717 @@ public class GeodesicTest {
     // A = ellipsoid area.
     assertEquals(a.area, 1000000.0, 0.01);
   }
+
+  @Test
+  public void SpecializedCheck() throws java.io.IOException {
+    // Geodesic.WGS84 is the generated class GeodesicWGS84; check that it
+    // gives identical results to Geodesic and that it is up to date.
+    Geodesic g = new Geodesic(Constants.WGS84_a, Constants.WGS84_f);
+    Random random = new Random(20260103L);
+    for (int i = 0; i < 200; ++i) {
+      double
+        lat1 = RandomLat(random),
+        lat2 = RandomLat(random),
+        lon2 = RandomLon(random),
+        azi1 = 360 * random.nextDouble() - 180,
+        s12 = 2e7 * random.nextDouble();
+      GeodesicData
+        a = Geodesic.WGS84.Inverse(lat1, 0, lat2, lon2, GeodesicMask.ALL),
+        b = g.Inverse(lat1, 0, lat2, lon2, GeodesicMask.ALL);
+      assertEquals(a.s12, b.s12, 0);
+      assertEquals(a.azi1, b.azi1, 0);
+      assertEquals(a.azi2, b.azi2, 0);
+      assertEquals(a.M12, b.M12, 0);
+      assertEquals(a.S12, b.S12, 0);
+      a = Geodesic.WGS84.Direct(lat1, 0, azi1, s12, GeodesicMask.ALL);
+      b = g.Direct(lat1, 0, azi1, s12, GeodesicMask.ALL);
+      assertEquals(a.lat2, b.lat2, 0);
+      assertEquals(a.lon2, b.lon2, 0);
+      assertEquals(a.azi2, b.azi2, 0);
+      assertEquals(a.m12, b.m12, 0);
+      assertEquals(a.S12, b.S12, 0);
+    }
+    java.io.File f =
+      new java.io.File("src/main/java/net/sf/geographiclib/GeodesicWGS84.java");
+    if (f.exists())
+      assertEquals(new String(java.nio.file.Files.readAllBytes(f.toPath()),
+                              "UTF-8"),
+                   GeodesicGenerator.Source("GeodesicWGS84",
+                                            Constants.WGS84_a,
+                                            Constants.WGS84_f));
+  }
+
+  @Test
+  public void FactoryCheck() {
+    assertTrue(Geodesic.of(Constants.WGS84_a, Constants.WGS84_f) ==
+               Geodesic.WGS84);
+    Geodesic g = Geodesic.of(6378137, 1/298.257222101);
+    assertTrue(Geodesic.of(6378137, 1/298.257222101) == g);
+    assertEquals(1/298.257222101, g.Flattening(), 0);
+    // Fill the cache to evict g
+    for (int i = 0; i < 100; ++i)
+      Geodesic.of(6.4e6 + i, 0.001);
+    assertTrue(Geodesic.of(6378137, 1/298.257222101) != g);
+    // The cached objects are good for concurrent use
+    double s12 = java.util.stream.IntStream.range(0, 1000).parallel()
+      .mapToDouble(i -> Geodesic.of(6.4e6 + i % 10, 0.001)
+                   .Inverse(0, 0, 10, 10).s12 / (6.4e6 + i % 10))
+      .max().getAsDouble();
+    assertEquals(new Geodesic(1, 0.001).Inverse(0, 0, 10, 10).s12, s12, 1e-15);
+  }
+
+  @Test(expected = GeographicErr.class)
+  public void FactoryBad() {
+    Geodesic.of(-1, 0);
+  }
+
+  @Test
+  public void DistanceCheck() {
+    // The distance-only calculation should give identical results to
+    // Inverse, including the special cases.
+    double pts[][] = {
+      {10, 20, 30, 20}, {0, 10, 0, 40}, {0, 0, 0, 179.5}, {-90, 0, 90, 33},
+      {90, 0, 90, 180}, {20.001, 0, 20.001, 0}, {40, 20, 40.00000001, 20},
+      {-30, 0, 29.5, 179.5}, {0, 0, 0.5, 179.7}, {Double.NaN, 0, 10, 10},
+    };
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    Geodesic prolate = new Geodesic(6.4e6, -1/150.0);
+    for (Geodesic g : new Geodesic[] {Geodesic.WGS84, prolate}) {
+      for (double q[] : pts) {
+        double s12 = g.Inverse(q[0], q[1], q[2], q[3],
+                               GeodesicMask.DISTANCE).s12;
+        assertEquals(s12, g.Distance(w, q[0], q[1], q[2], q[3]), 0);
+        assertEquals(s12, g.Distance(q[2], q[3], q[0], q[1]), 0);
+      }
+    }
+    Random random = new Random(20260104L);
+    final int n = 100;
+    GeodesicArrays a = new GeodesicArrays();
+    a.lat1 = new double[n]; a.lon1 = new double[n];
+    a.lat2 = new double[n]; a.lon2 = new double[n]; a.s12 = new double[n];
+    for (int i = 0; i < n; ++i) {
+      a.lat1[i] = RandomLat(random);
+      a.lon1[i] = 720 * random.nextDouble() - 360;
+      a.lat2[i] = RandomLat(random);
+      a.lon2[i] = 720 * random.nextDouble() - 360;
+    }
+    Geodesic.WGS84.Inverse(a, 0, n, GeodesicMask.DISTANCE);
+    for (int i = 0; i < n; ++i)
+      assertEquals(Geodesic.WGS84.Inverse(a.lat1[i], a.lon1[i],
+                                          a.lat2[i], a.lon2[i]).s12,
+                   a.s12[i], 0);
+    // A listener still sees the end points
+    final double lon2[] = {Double.NaN};
+    Geodesic.SetListener((lat1, lon1, lat2x, lon2x, path, numit, bis, t) ->
+                         lon2[0] = lon2x);
+    try {
+      Geodesic.WGS84.Distance(w, 10, 20, 30, 400);
+    } finally {
+      Geodesic.SetListener(null);
+    }
+    assertEquals(40, lon2[0], 0);
+  }
+
+  @Test
+  public void HintCheck() {
+    // A vehicle moving in 100 m steps tracking a distant target; the order of
+    // the points is reversed for hint2 (to exercise swapp)
+    GeodesicHint hint = new GeodesicHint(true), hint2 = new GeodesicHint(true);
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    GeodesicData r = new GeodesicData();
+    GeodesicLine l = Geodesic.WGS84.Line(40, -75, 30);
+    double lat0 = -30, lon0 = 100;
+    for (int i = 0; i < 200; ++i) {
+      GeodesicData p = l.Position(100.0 * (i/2));
+      boolean rev = i % 2 == 1;
+      Geodesic.WGS84.Inverse(r, w, rev ? hint2 : hint,
+                             rev ? lat0 : p.lat2, rev ? lon0 : p.lon2,
+                             rev ? p.lat2 : lat0, rev ? p.lon2 : lon0,
+                             GeodesicMask.ALL);
+      GeodesicData c = Geodesic.WGS84.Inverse(r.lat1, r.lon1, r.lat2, r.lon2,
+                                              GeodesicMask.ALL);
+      assertEquals(c.s12, r.s12, 1e-8);
+      assertEquals(c.azi1, r.azi1, 1e-12);
+      assertEquals(c.azi2, r.azi2, 1e-12);
+      assertEquals(c.m12, r.m12, 1e-8);
+      assertEquals(c.S12, r.S12, 0.1);
+    }
+    assertEquals(100, hint.Calls());
+    assertTrue(hint.Saved() > 0 && hint2.Saved() > 0);
+    // A bad hint does no harm
+    hint.Set(-90, -90);
+    Geodesic.WGS84.Inverse(r, w, hint, 10, 20, -20, 170,
+                           GeodesicMask.DISTANCE);
+    assertEquals(Geodesic.WGS84.Distance(10, 20, -20, 170), r.s12, 1e-8);
+  }
+
+  @Test
+  public void DistanceApproxCheck() {
+    // Check the error bound for random points including nearly coincident
+    // and nearly antipodal ones; check Within against the exact distance.
+    GeodesicWorkspace w = new GeodesicWorkspace();
+    Pair p = new Pair();
+    for (Geodesic g : new Geodesic[] {Geodesic.WGS84,
+                                      new Geodesic(6.4e6, -1/100.0)}) {
+      Random random = new Random(20260105L);
+      for (int i = 0; i < 30000; ++i) {
+        double
+          lat1 = RandomLat(random),
+          lat2 = RandomLat(random),
+          lon2 = RandomLon(random),
+          d1 = (random.nextDouble() - 0.5) *
+          Math.pow(10, 1 - 7 * random.nextDouble()),
+          d2 = (random.nextDouble() - 0.5) *
+          Math.pow(10, 1 - 7 * random.nextDouble());
+        if (i % 3 == 1) {
+          lat2 = Math.max(-90, Math.min(90, lat1 + d1)); lon2 = d2;
+        } else if (i % 3 == 2) {
+          lat2 = Math.max(-90, Math.min(90, -lat1 + d1)); lon2 = 180 + d2;
+        }
+        double s12 = g.Distance(w, lat1, 0, lat2, lon2);
+        g.DistanceApprox(p, lat1, 0, lat2, lon2);
+        assertTrue(Math.abs(p.first - s12) <= p.second);
+        double s12max = s12 * (1 + 2 * (random.nextDouble() - 0.5) *
+                               Math.pow(10, -2 - 6 * random.nextDouble()));
+        assertEquals(s12 <= s12max, g.Within(w, lat1, 0, lat2, lon2, s12max));
+      }
+    }
+    // For a short distance, the bound is about 0.28 f^2 s12
+    Geodesic.WGS84.DistanceApprox(p, 10, 20, 10.1, 20.1);
+    assertTrue(p.second < 0.06);
+    assertEquals(Geodesic.WGS84.Distance(10, 20, 10.1, 20.1), p.first, 0.03);
+    // No bound for large f
+    new Geodesic(6.4e6, 0.1).DistanceApprox(p, 10, 20, 10.1, 20.1);
+    assertTrue(Double.isInfinite(p.second));
+    assertTrue(!Geodesic.WGS84.Within(w, Double.NaN, 0, 1, 1, 1e7));
+  }
+
+  @Test
+  public void OrderCheck() {
+    // Order 6 is the default; lower orders agree with it to within the errors
+    // quoted in the documentation; the area term is checked loosely.
+    Geodesic g6 = new Geodesic(Geodesic.WGS84.EquatorialRadius(),
+                               Geodesic.WGS84.Flattening(), 6);
+    assertEquals(6, Geodesic.WGS84.Order());
+    assertEquals(6, g6.Order());
+    double direrr[] = {40e-6, 120e-9, 15e-9}, inverr[] = {8e-6, 30e-9, 15e-9};
+    for (int order = 3; order <= 5; ++order) {
+      Geodesic g = new Geodesic(Geodesic.WGS84.EquatorialRadius(),
+                                Geodesic.WGS84.Flattening(), order);
+      assertEquals(order, g.Order());
+      Random random = new Random(20260106L);
+      for (int i = 0; i < 2000; ++i) {
+        double
+          lat1 = RandomLat(random),
+          azi1 = 360 * random.nextDouble() - 180,
+          s12 = 2e7 * random.nextDouble(),
+          lat2 = RandomLat(random),
+          lon2 = RandomLon(random);
+        GeodesicData
+          d = g.Direct(lat1, 0, azi1, s12, GeodesicMask.ALL),
+          d6 = g6.Direct(lat1, 0, azi1, s12, GeodesicMask.ALL),
+          e = Geodesic.WGS84.Direct(lat1, 0, azi1, s12, GeodesicMask.ALL);
+        assertEquals(e.lat2, d6.lat2, 0);
+        assertEquals(e.lon2, d6.lon2, 0);
+        assertEquals(e.S12, d6.S12, 0);
+        assertEquals(0, Geodesic.WGS84.Inverse(d.lat2, d.lon2, d6.lat2, d6.lon2,
+                                               GeodesicMask.DISTANCE).s12,
+                     direrr[order - 3]);
+        assertEquals(d6.m12, d.m12, 10 * direrr[order - 3]);
+        assertEquals(d6.S12, d.S12, 1e-4 * Math.abs(d6.S12) + 1);
+        GeodesicData
+          r = g.Inverse(lat1, 0, lat2, lon2, GeodesicMask.ALL),
+          r6 = g6.Inverse(lat1, 0, lat2, lon2, GeodesicMask.ALL);
+        assertEquals(r6.s12, r.s12, inverr[order - 3]);
+        // And with a GeodesicLine (1 degree is about 1e5 m)
+        GeodesicLine l = g.InverseLine(lat1, 0, lat2, lon2);
+        assertEquals(lat2, l.Position(r.s12).lat2, 2e-5 * direrr[order - 3]);
+      }
+    }
+  }
+
+  @Test(expected = GeographicErr.class)
+  public void OrderBad() {
+    new Geodesic(6.4e6, 0.01, 7);
+  }
+
+  @Test
+  public void SphereCheck() {
+    // The closed form solution for a sphere agrees with the general method
+    // applied to a sphere with a negligible flattening.
+    Geodesic sphere = new Geodesic(6.4e6, 0),
+      nearly = new Geodesic(6.4e6, 1e-30);
+    Pair p = new Pair();
+    Random random = new Random(20260107L);
+    for (int i = 0; i < 20000; ++i) {
+      double
+        lat1 = RandomLat(random),
+        lat2 = RandomLat(random),
+        lon2 = RandomLon(random),
+        d = Math.pow(10, -8 * random.nextDouble());
+      if (i % 4 == 1) {
+        lat2 = lat1 + d; lon2 = d;  // nearly coincident
+      } else if (i % 4 == 2) {
+        lat2 = -lat1 + d; lon2 = 180 - d;  // nearly antipodal
+      }
+      GeodesicData
+        r = sphere.Inverse(lat1, 0, lat2, lon2, GeodesicMask.ALL),
+        r0 = nearly.Inverse(lat1, 0, lat2, lon2, GeodesicMask.ALL);
+      assertEquals(r0.s12, r.s12, 1e-8);
+      assertEquals(r0.a12, r.a12, 1e-13);
+      assertEquals(r0.m12, r.m12, 1e-8);
+      assertEquals(r0.M12, r.M12, 1e-15);
+      assertEquals(r0.M21, r.M21, 1e-15);
+      // Azimuths (and so areas) are ill-conditioned for nearly coincident or
+      // antipodal points
+      double tol = 1e-13 + 1e-12 / Math.min(r.a12, 180 - r.a12);
+      assertEquals(r0.S12, r.S12, 1 + 2 * Math.toRadians(tol) * 6.4e6 * 6.4e6);
+      GeoMath.AngDiff(p, r0.azi1, r.azi1); assertEquals(0, p.first, tol);
+      GeoMath.AngDiff(p, r0.azi2, r.azi2); assertEquals(0, p.first, tol);
+      GeodesicData
+        s = sphere.Direct(lat1, 0, r.azi1, r.s12, GeodesicMask.ALL),
+        s0 = nearly.Direct(lat1, 0, r.azi1, r.s12, GeodesicMask.ALL);
+      assertEquals(s0.lat2, s.lat2, 1e-13);
+      assertEquals(s0.lon2, s.lon2, 1e-13);
+      assertEquals(s0.azi2, s.azi2, 1e-13);
+      assertEquals(s0.m12, s.m12, 1e-8);
+      assertEquals(s0.S12, s.S12, 1 + 2 * Math.toRadians(tol) * 6.4e6 * 6.4e6);
+    }
+    GeodesicStatistics stats = new GeodesicStatistics();
+    Geodesic.SetListener(stats);
+    sphere.Inverse(10, 20, 30, 40);
+    Geodesic.SetListener(null);
+    assertEquals(1, stats.Calls(GeodesicListener.SPHERICAL));
+    // A polygon (an octant)
+    PolygonArea poly = new PolygonArea(sphere, false);
+    poly.AddPoint(0, 0); poly.AddPoint(0, 90); poly.AddPoint(90, 0);
+    PolygonResult a = poly.Compute(false, true);
+    assertEquals(Math.PI/2 * GeoMath.sq(6.4e6), a.area, 1e-3);
+    assertEquals(3 * Math.PI/2 * 6.4e6, a.perimeter, 1e-8);
+  }
+
+  @Test
+  public void FloatArraysCheck() {
+    // The single precision batch routines give the double precision results
+    // rounded to float.
+    int n = 1000, off = 3, len = n - 10;
+    Random random = new Random(20260108L);
+    GeodesicFloatArrays f = new GeodesicFloatArrays();
+    GeodesicArrays d = new GeodesicArrays();
+    f.lat1 = new float[n]; f.lon1 = new float[n]; f.azi1 = new float[n];
+    f.lat2 = new float[n]; f.lon2 = new float[n]; f.azi2 = new float[n];
+    f.s12 = new float[n]; f.a12 = new float[n]; f.m12 = new float[n];
+    f.M12 = new float[n]; f.M21 = new float[n]; f.S12 = new float[n];
+    d.lat1 = new double[n]; d.lon1 = new double[n]; d.azi1 = new double[n];
+    d.lat2 = new double[n]; d.lon2 = new double[n]; d.azi2 = new double[n];
+    d.s12 = new double[n]; d.a12 = new double[n]; d.m12 = new double[n];
+    d.M12 = new double[n]; d.M21 = new double[n]; d.S12 = new double[n];
+    for (int i = 0; i < n; ++i) {
+      d.lat1[i] = f.lat1[i] = (float)RandomLat(random);
+      d.lon1[i] = f.lon1[i] = (float)RandomLon(random);
+      d.lat2[i] = f.lat2[i] = (float)RandomLat(random);
+      d.lon2[i] = f.lon2[i] = (float)RandomLon(random);
+    }
+    Geodesic.WGS84.Inverse(f, off, len, GeodesicMask.ALL);
+    Geodesic.WGS84.Inverse(d, off, len, GeodesicMask.ALL);
+    for (int i = 0; i < n; ++i) {
+      boolean in = i >= off && i < off + len;
+      assertEquals(in ? (float)d.azi1[i] : 0, f.azi1[i], 0);
+      assertEquals(in ? (float)d.azi2[i] : 0, f.azi2[i], 0);
+      assertEquals(in ? (float)d.s12[i] : 0, f.s12[i], 0);
+      assertEquals(in ? (float)d.a12[i] : 0, f.a12[i], 0);
+      assertEquals(in ? (float)d.m12[i] : 0, f.m12[i], 0);
+      assertEquals(in ? (float)d.M12[i] : 0, f.M12[i], 0);
+      assertEquals(in ? (float)d.M21[i] : 0, f.M21[i], 0);
+      assertEquals(in ? (float)d.S12[i] : 0, f.S12[i], 0);
+      // Just the rounding error in s12
+      if (in)
+        assertEquals(d.s12[i], f.s12[i], 0x1p-24 * d.s12[i]);
+    }
+    // The direct problem (from the inverse results) via the blocked path
+    // and the general path
+    for (int outmask : new int[] {GeodesicMask.STANDARD, GeodesicMask.ALL}) {
+      for (int i = 0; i < n; ++i) {
+        d.azi1[i] = f.azi1[i]; d.s12[i] = f.s12[i];
+      }
+      Geodesic.WGS84.Direct(f, 0, n, false, outmask);
+      Geodesic.WGS84.Direct(d, 0, n, false, outmask);
+      for (int i = 0; i < n; ++i) {
+        assertEquals((float)d.lat2[i], f.lat2[i], 0);
+        assertEquals((float)d.lon2[i], f.lon2[i], 0);
+        assertEquals((float)d.azi2[i], f.azi2[i], 0);
+        assertEquals((float)d.a12[i], f.a12[i], 0);
+        assertEquals((float)d.S12[i], f.S12[i], 0);
+      }
+    }
+    // Arc mode
+    Geodesic.WGS84.Direct(f, 0, n, true, GeodesicMask.DISTANCE);
+    for (int i = 0; i < n; ++i) d.a12[i] = f.a12[i];
+    Geodesic.WGS84.Direct(d, 0, n, true, GeodesicMask.DISTANCE);
+    for (int i = 0; i < n; ++i)
+      assertEquals((float)d.s12[i], f.s12[i], 0);
+  }
+
+  @Test(expected = GeographicErr.class)
+  public void FloatArraysBad() {
+    GeodesicFloatArrays f = new GeodesicFloatArrays();
+    f.lat1 = new float[10]; f.lon1 = new float[10]; f.lat2 = new float[10];
+    f.lon2 = new float[10]; f.s12 = new float[5];
+    Geodesic.WGS84.Inverse(f, 0, 10, GeodesicMask.DISTANCE);
+  }
+
+  @Test
+  public void WarmUpCheck() {
+    // Whether the steady state is reached depends on the machine, so just
+    // check the bookkeeping with a short time limit.
+    GeodesicWarmUp warm = new GeodesicWarmUp(Geodesic.WGS84);
+    warm.Run(100000000L);
+    int rounds = warm.Rounds();
+    assertTrue(rounds > 0);
+    assertTrue(warm.Nanos() > 0);
+    assertTrue(warm.RoundNanos() > 0 && warm.RoundNanos() <= warm.Nanos());
+    warm.Run(0);
+    assertEquals(rounds, warm.Rounds());
+    assertTrue(!warm.Converged());
+    warm.Reset();
+    assertEquals(0, warm.Rounds());
+    assertEquals(0, warm.Nanos());
+  }
+
+  @Test
+  public void CacheCheck() {
+    // The cache returns the solution for the snapped points, sharing the
+    // entry for the reversed problem, and evicts the least recently used
+    // entries.
+    GeodesicCache cache = new GeodesicCache(Geodesic.WGS84, 100, 1e-3);
+    assertEquals(100, cache.Capacity());
+    GeodesicData r = cache.Inverse(10.0004, 20.0006, -30.0002, 40);
+    GeodesicData e = Geodesic.WGS84.Inverse(10, 20.001, -30, 40,
+                                            GeodesicMask.ALL);
+    assertEquals(0, cache.Hits()); assertEquals(1, cache.Misses());
+    assertEquals(10, r.lat1, 1e-12); assertEquals(20.001, r.lon1, 1e-12);
+    assertEquals(e.s12, r.s12, 1e-9);
+    assertEquals(e.azi1, r.azi1, 1e-12);
+    assertEquals(e.S12, r.S12, 1);
+    // A hit and a reversed hit
+    r = cache.Inverse(10, 20.001, -30, 40);
+    assertEquals(e.s12, r.s12, 1e-9);
+    r = cache.Inverse(-30, 40, 10, 20.001);
+    assertEquals(2, cache.Hits()); assertEquals(1, cache.Misses());
+    GeodesicData f = Geodesic.WGS84.Inverse(-30, 40, 10, 20.001,
+                                            GeodesicMask.ALL);
+    assertEquals(-30, r.lat1, 1e-12); assertEquals(20.001, r.lon2, 1e-12);
+    assertEquals(f.s12, r.s12, 1e-9);
+    assertEquals(f.azi1, r.azi1, 1e-12); assertEquals(f.azi2, r.azi2, 1e-12);
+    assertEquals(f.M12, r.M12, 1e-15); assertEquals(f.M21, r.M21, 1e-15);
+    assertEquals(f.S12, r.S12, 1);
+    assertEquals(e.s12, cache.Distance(-30, 40, 10, 20.001), 1e-9);
+    // Fill the cache, keeping the first entry in use
+    for (int i = 1; i <= 150; ++i) {
+      cache.Inverse(0, 0, 0.01 * i, 1);
+      cache.Inverse(10, 20.001, -30, 40);
+    }
+    assertEquals(100, cache.Size());
+    assertEquals(51, cache.Evictions());
+    cache.Reset();
+    cache.Inverse(10, 20.001, -30, 40);   // still present
+    cache.Inverse(0, 0, 0.01, 1);         // evicted
+    assertEquals(1, cache.Hits()); assertEquals(1, cache.Misses());
+    cache.Clear();
+    assertEquals(0, cache.Size());
+    // Pole and NaN
+    r = cache.Inverse(89.9999, 0, 0, 0);
+    assertEquals(90, r.lat1, 0);
+    assertTrue(Double.isNaN(cache.Inverse(Double.NaN, 0, 0, 0).s12));
+    // Concurrent use: the results don't depend on the order of the lookups
+    GeodesicCache big = new GeodesicCache(Geodesic.WGS84, 5000);
+    double s12[] = java.util.stream.IntStream.range(0, 20000).parallel()
+      .mapToDouble(i -> big.Distance(i % 50, 0, 0, (i / 50) % 40))
+      .toArray();
+    for (int i = 0; i < 20000; ++i)
+      assertEquals(Geodesic.WGS84.Inverse(i % 50, 0, 0, (i / 50) % 40).s12,
+                   s12[i], 1e-9);
+    assertEquals(20000, big.Hits() + big.Misses());
+    assertTrue(big.Misses() >= 2000 && big.Size() <= 2000);
+  }
+
+  @Test(expected = GeographicErr.class)
+  public void CacheBad() {
+    new GeodesicCache(Geodesic.WGS84, 100, 1e-8);
+  }
+
+  @Test
+  public void LazyCheck() {
+    // The standard quantities match those of Inverse and Direct exactly; the
+    // deferred ones agree to within roundoff.  The Direct problems run past
+    // point 2 (sometimes backwards) and with arc lengths over 180 deg.
+    double special[][] = {
+      {10, 20, 30, 20}, {-90, 0, 90, 33}, {0, 10, 0, 40}, {0, 0, 0, 179.5},
+      {40, 20, 40.00000001, 20.00000001}, {-30, 0, 29.5, 179.5},
+      {0, 0, 0.5, 179.7}, {20, 30, 20, 30}, {90, 0, 10, 20} };
+    Random random = new Random(20260301L);
+    Geodesic geods[] = { Geodesic.WGS84, new Geodesic(6.4e6, -1/150.0),
+                         new Geodesic(6.4e6, 1/298.0, 4),
+                         Geodesic.of(6.4e6, 0) };
+    double errm = 0, errM = 0, errS = 0;
+    for (Geodesic g : geods) {
+      for (int k = 0; k < special.length + 200; ++k) {
+        double c[] = k < special.length ? special[k] : new double[] {
+          RandomLat(random), RandomLon(random),
+          RandomLat(random), RandomLon(random) };
+        GeodesicData e = g.Inverse(c[0], c[1], c[2], c[3], GeodesicMask.ALL);
+        GeodesicLazyData l = g.InverseLazy(c[0], c[1], c[2], c[3]);
+        assertEquals(e.lat1, l.lat1, 0); assertEquals(e.lon1, l.lon1, 0);
+        assertEquals(e.lat2, l.lat2, 0); assertEquals(e.lon2, l.lon2, 0);
+        assertEquals(e.azi1, l.azi1, 0); assertEquals(e.azi2, l.azi2, 0);
+        assertEquals(e.s12, l.s12, 0); assertEquals(e.a12, l.a12, 0);
+        errm = Math.max(errm, Math.abs(e.m12 - l.m12()));
+        errM = Math.max(errM, Math.max(Math.abs(e.M12 - l.M12()),
+                                       Math.abs(e.M21 - l.M21())));
+        errS = Math.max(errS, Math.abs(e.S12 - l.S12()));
+        for (int arcmode = 0; arcmode < 2; ++arcmode) {
+          double s12_a12 = arcmode == 0 ? 3 * e.s12 - 1e7 : 3 * e.a12 - 90;
+          e = g.Direct(c[0], c[1], e.azi1, arcmode != 0, s12_a12,
+                       GeodesicMask.ALL);
+          l = arcmode != 0 ? g.ArcDirectLazy(c[0], c[1], e.azi1, s12_a12) :
+            g.DirectLazy(c[0], c[1], e.azi1, s12_a12);
+          assertEquals(e.lat2, l.lat2, 0); assertEquals(e.lon2, l.lon2, 0);
+          assertEquals(e.azi2, l.azi2, 0);
+          assertEquals(e.s12, l.s12, 0); assertEquals(e.a12, l.a12, 0);
+          errm = Math.max(errm, Math.abs(e.m12 - l.m12()));
+          errM = Math.max(errM, Math.max(Math.abs(e.M12 - l.M12()),
+                                         Math.abs(e.M21 - l.M21())));
+          errS = Math.max(errS, Math.abs(e.S12 - l.S12()));
+          GeodesicData d = l.Data();
+          assertEquals(l.m12(), d.m12, 0); assertEquals(l.S12(), d.S12, 0);
+        }
+      }
+    }
+    assertTrue(errm < 1e-6); assertTrue(errM < 1e-13);
+    // Roundoff in the area is about a^2 * 1e-14 for long geodesics
+    assertTrue(errS < 2);
+  }
+
+  @Test
+  public void RingsCheck() {
+    // The vertices match Direct and the areas match PolygonArea exactly,
+    // independent of the grain size.
+    double radii[] = {1e3, 100e3, 2000e3, 0, -50e3};
+    int count = 37, n = radii.length;
+    double lat[] = new double[n * count], lon[] = new double[n * count],
+      area[] = new double[n];
+    for (double lat0 : new double[] {40.5, 90, -89.99, 0}) {
+      for (int grain : new int[] {1, 10, 1000}) {
+        GeodesicRings rings =
+          new GeodesicRings(Geodesic.WGS84,
+                            java.util.concurrent.ForkJoinPool.commonPool(),
+                            grain);
+        rings.Rings(lat0, -175, radii, count, lat, lon, area);
+        for (int k = 0; k < n; ++k) {
+          PolygonArea poly = new PolygonArea(Geodesic.WGS84, false);
+          for (int j = 0; j < count; ++j) {
+            GeodesicData g = Geodesic.WGS84.Direct(lat0, -175,
+                                                   360.0 * j / count,
+                                                   radii[k]);
+            assertEquals(g.lat2, lat[k * count + j], 0);
+            assertEquals(g.lon2, lon[k * count + j], 0);
+            poly.AddPoint(g.lat2, g.lon2);
+          }
+          assertEquals(poly.Compute(true, true).area, area[k], 0);
+        }
+      }
+      // A small ring is nearly a circle (the polygon is a little smaller)
+      double s = radii[0], a = Math.PI * s * s;
+      assertEquals(a * (1 - 2 * GeoMath.sq(Math.PI / count) / 3),
+                   area[0], a * 1e-4);
+      assertEquals(0, area[3], 0);
+    }
+    // Without the areas
+    double lat1[] = new double[n * count], lon1[] = new double[n * count];
+    new GeodesicRings(Geodesic.WGS84).Rings(-30, 20, radii, count,
+                                            lat1, lon1);
+    assertEquals(Geodesic.WGS84.Direct(-30, 20, 360.0 * 5 / count,
+                                       radii[2]).lat2,
+                 lat1[2 * count + 5], 0);
+  }
+
+  @Test(expected = GeographicErr.class)
+  public void RingsBad() {
+    new GeodesicRings(Geodesic.WGS84).Rings(0, 0, new double[] {1, 2}, 10,
+                                            new double[20], new double[19]);
+  }
+
+  @Test
+  public void ResetCheck() {
+    // A line which is reset repeatedly (with different ellipsoids and
+    // capabilities) gives the same results as new lines.
+    GeodesicLine l = new GeodesicLine();
+    assertTrue(Double.isNaN(l.Position(1e6).lat2));
+    Geodesic geods[] = { Geodesic.WGS84, new Geodesic(6.4e6, 1/298.0, 4),
+                         Geodesic.of(6.4e6, 0) };
+    int caps[] = { GeodesicMask.ALL,
+                   GeodesicMask.LATITUDE | GeodesicMask.LONGITUDE |
+                   GeodesicMask.DISTANCE_IN,
+                   GeodesicMask.STANDARD };
+    Random random = new Random(20260302L);
+    for (int k = 0; k < 60; ++k) {
+      Geodesic g = geods[k % 3];
+      int c = caps[(k / 3) % 3];
+      double lat1 = RandomLat(random),
+        lon1 = RandomLon(random),
+        azi1 = 360 * random.nextDouble() - 180,
+        lat2 = RandomLat(random),
+        lon2 = RandomLon(random);
+      GeodesicLine e = new GeodesicLine(g, lat1, lon1, azi1, c);
+      l.Reset(g, lat1, lon1, azi1, c);
+      assertEquals(c | GeodesicMask.LATITUDE | GeodesicMask.AZIMUTH |
+                   GeodesicMask.LONG_UNROLL, l.Capabilities());
+      assertTrue(Double.isNaN(l.Distance()) && Double.isNaN(l.Arc()));
+      for (int i = 0; i < 2; ++i) {
+        GeodesicData a = e.ArcPosition(70.0 * i + 33, GeodesicMask.ALL),
+          b = l.ArcPosition(70.0 * i + 33, GeodesicMask.ALL);
+        assertEquals(a.lat2, b.lat2, 0); assertEquals(a.lon2, b.lon2, 0);
+        assertEquals(a.azi2, b.azi2, 0); assertEquals(a.s12, b.s12, 0);
+        assertEquals(a.m12, b.m12, 0); assertEquals(a.M12, b.M12, 0);
+        assertEquals(a.S12, b.S12, 0);
+      }
+      e = g.InverseLine(lat1, lon1, lat2, lon2, c);
+      l.ResetInverse(g, lat1, lon1, lat2, lon2, c);
+      assertEquals(e.Capabilities(), l.Capabilities());
+      assertEquals(e.Arc(), l.Arc(), 0);
+      assertEquals(e.Distance(), l.Distance(), 0);
+      assertEquals(e.Azimuth(), l.Azimuth(), 0);
+      GeodesicData a = e.ArcPosition(e.Arc() / 3, GeodesicMask.ALL),
+        b = l.ArcPosition(l.Arc() / 3, GeodesicMask.ALL);
+      assertEquals(a.lat2, b.lat2, 0); assertEquals(a.lon2, b.lon2, 0);
+      assertEquals(a.m12, b.m12, 0); assertEquals(a.S12, b.S12, 0);
+    }
+  }
+
+  @Test
+  public void StreamCheck() {
+    // The streams should give the same results as Waypoints however they are
+    // split.
+    Geodesic geods[] = {Geodesic.WGS84, new Geodesic(6.4e6, 1/20.0)};
+    int mask = GeodesicMask.ALL | GeodesicMask.LONG_UNROLL;
+    final int n = 1000;
+    for (Geodesic geod : geods) {
+      GeodesicLine line = new GeodesicLine(geod, 40.64, -73.78, 45,
+                                           GeodesicMask.ALL);
+      for (int k = 0; k < 2; ++k) {
+        boolean arcmode = k == 1;
+        double s0 = arcmode ? -3.3 : -1e5, ds = arcmode ? 0.37 : 4.1e4;
+        GeodesicArrays g = new GeodesicArrays();
+        g.lat2 = new double[n]; g.lon2 = new double[n];
+        g.azi2 = new double[n]; g.s12 = new double[n];
+        g.m12 = new double[n]; g.M12 = new double[n];
+        g.M21 = new double[n]; g.S12 = new double[n];
+        line.Waypoints(arcmode, s0, ds, n, mask, g, 0);
+        Object seq[] = line.Positions(arcmode, s0, ds, n, mask).toArray(),
+          par[] = line.Positions(arcmode, s0, ds, n, mask)
+          .parallel().toArray();
+        assertEquals(n, seq.length);
+        assertEquals(n, par.length);
+        for (int i = 0; i < n; ++i) {
+          GeodesicData a = (GeodesicData)seq[i], b = (GeodesicData)par[i];
+          assertEquals(g.lat2[i], a.lat2, 0); assertEquals(a.lat2, b.lat2, 0);
+          assertEquals(g.lon2[i], a.lon2, 0); assertEquals(a.lon2, b.lon2, 0);
+          assertEquals(g.azi2[i], a.azi2, 0); assertEquals(a.azi2, b.azi2, 0);
+          assertEquals(g.s12[i], a.s12, 0); assertEquals(a.s12, b.s12, 0);
+          assertEquals(g.m12[i], a.m12, 0); assertEquals(a.m12, b.m12, 0);
+          assertEquals(g.S12[i], a.S12, 0); assertEquals(a.S12, b.S12, 0);
+        }
+        double lon[] = line.Values(mask & (GeodesicMask.LONGITUDE |
+                                           GeodesicMask.LONG_UNROLL),
+                                   arcmode, s0, ds, n).parallel().toArray(),
+          M12[] = line.Values(GeodesicMask.GEODESICSCALE,
+                              arcmode, s0, ds, n).parallel().toArray();
+        for (int i = 0; i < n; ++i) {
+          assertEquals(g.lon2[i], lon[i], 0);
+          assertEquals(g.M12[i], M12[i], 0);
+        }
+        // Points at given distances match Position
+        double x[] = {s0, 0, 5 * ds, -7 * ds};
+        double lat[] = line.Values(GeodesicMask.LATITUDE, arcmode, x)
+          .parallel().toArray();
+        Object pos[] = line.Positions(arcmode, x, mask).toArray();
+        for (int i = 0; i < x.length; ++i) {
+          GeodesicData r = line.Position(arcmode, x[i], mask);
+          assertEquals(r.lat2, lat[i], 0);
+          assertEquals(r.lon2, ((GeodesicData)pos[i]).lon2, 0);
+        }
+      }
+    }
+    java.util.Spliterator<GeodesicData> s =
+      Geodesic.WGS84.Line(10, 20, 30).Positions(true, 0, 1, 100,
+                                                GeodesicMask.STANDARD)
+      .spliterator();
+    assertTrue(s.hasCharacteristics(java.util.Spliterator.SIZED |
+                                    java.util.Spliterator.SUBSIZED));
+    assertTrue(!s.hasCharacteristics(java.util.Spliterator.IMMUTABLE));
+    assertEquals(100, s.getExactSizeIfKnown());
+    java.util.Spliterator<GeodesicData> t = s.trySplit();
+    assertEquals(64, t.getExactSizeIfKnown());
+    assertEquals(36, s.getExactSizeIfKnown());
+    // Pieces are split at multiples of 32 and have at least 32 points
+    assertEquals(32, t.trySplit().getExactSizeIfKnown());
+    assertEquals(32, t.getExactSizeIfKnown());
+    assertTrue(t.trySplit() == null);
+    assertTrue(s.trySplit() == null);
+  }
+
+  @Test(expected = GeographicErr.class)
+  public void StreamBad() {
+    Geodesic.WGS84.Line(10, 20, 30).Values(GeodesicMask.STANDARD,
+                                           true, 0, 1, 10);
+  }
+
+  @Test
+  public void ArcDirectArraysSparse() {
+    // REDUCEDLENGTH includes the capability bits of DISTANCE; make sure that
+    // the batch ArcDirect doesn't then write to the (missing) s12 column.
+    int n = testcases.length;
+    GeodesicArrays g = new GeodesicArrays();
+    g.lat1 = new double[n]; g.lon1 = new double[n];
+    g.azi1 = new double[n]; g.a12 = new double[n];
+    g.lat2 = new double[n]; g.m12 = new double[n];
+    for (int i = 0; i < n; ++i) {
+      g.lat1[i] = testcases[i][0]; g.lon1[i] = testcases[i][1];
+      g.azi1[i] = testcases[i][2]; g.a12[i] = testcases[i][7];
+    }
+    int mask = GeodesicMask.LATITUDE | GeodesicMask.REDUCEDLENGTH;
+    Geodesic.WGS84.ArcDirect(g, 0, n, mask);
+    for (int i = 0; i < n; ++i) {
+      GeodesicData ref = Geodesic.WGS84.ArcDirect(testcases[i][0],
+                                                  testcases[i][1],
+                                                  testcases[i][2],
+                                                  testcases[i][7], mask);
+      assertEquals(ref.lat2, g.lat2[i], 0);
+      assertEquals(ref.m12, g.m12[i], 0);
+    }
+  }
+
+  @Test
+  public void CacheWrap() {
+    // Snapped longitudes are reduced to [-180, 180] and each meridian has a
+    // single key.
+    GeodesicCache cache = new GeodesicCache(Geodesic.WGS84, 100, 7);
+    GeodesicData r = cache.Inverse(10, 179, 20, -179);
+    assertEquals(-178, r.lon1, 0);
+    assertEquals(178, r.lon2, 0);
+    GeodesicData ref = Geodesic.WGS84.Inverse(7, -178, 21, 178,
+                                              GeodesicMask.ALL);
+    assertEquals(ref.s12, r.s12, 0);
+    assertEquals(ref.azi1, r.azi1, 0);
+    cache.Inverse(10, 180, 20, 0);
+    r = cache.Inverse(10, -180, 20, 360);
+    assertEquals(1, cache.Hits());
+    assertEquals(r.lon1, cache.Inverse(10, 540, 20, 0).lon1, 0);
+    // A grid which wraps around the circle of latitude
+    cache = new GeodesicCache(Geodesic.WGS84, 100, 1);
+    cache.Inverse(10, 179.6, 20, 0);
+    r = cache.Inverse(10, -180, 20, 0);
+    assertEquals(1, cache.Hits());
+    assertEquals(-180, r.lon1, 0);
+  }
 }